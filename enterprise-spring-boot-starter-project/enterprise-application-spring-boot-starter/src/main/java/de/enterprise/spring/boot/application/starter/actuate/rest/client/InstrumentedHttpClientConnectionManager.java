@@ -1,10 +1,21 @@
 package de.enterprise.spring.boot.application.starter.actuate.rest.client;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpClientConnection;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
 import org.apache.http.conn.DnsResolver;
 import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.conn.HttpConnectionFactory;
@@ -16,18 +27,43 @@ import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * A {@link HttpClientConnectionManager} which monitors the number of open connections.
+ * <p>
+ * Additionally the time waiting for a connection from the pool, the time a connection is leased, the time to establish new connections
+ * and the number of requests which didn't get a connection in time are recorded, in total and per route.
+ * <p>
+ * Per route meters, including gauges for the connections of the route, are registered when a route is used for the first time. They are
+ * removed again when the pool has no connections for the route anymore and no request of the route is in progress, which is checked
+ * whenever idle or expired connections are closed. All meters are removed on {@link #shutdown()}.
+ * The number of routes with own metrics is limited, further routes are recorded with the route tag {@value #OVERFLOW_ROUTE}.
  *
  * @author Malte Geßner
  */
 public class InstrumentedHttpClientConnectionManager extends PoolingHttpClientConnectionManager {
 
 	private static final String TAG_NAME_HTTPCLIENT_NAME = "httpClientName";
+	private static final String TAG_NAME_ROUTE = "route";
+	private static final String OVERFLOW_ROUTE = "other";
+	private static final int DEFAULT_MAX_ROUTES = 10;
+
+	private final MeterRegistry meterRegistry;
+	private final Tags tags;
+	private final ConnectionMeters totalMeters;
+	private final Map<HttpRoute, ConnectionMeters> routeMeters = new ConcurrentHashMap<>();
+	private final Map<HttpClientConnection, Lease> leases = new ConcurrentHashMap<>();
+	private volatile ConnectionMeters overflowMeters;
+	private volatile int maxRoutes = DEFAULT_MAX_ROUTES;
 
 	protected static Registry<ConnectionSocketFactory> getDefaultRegistry() {
 		return RegistryBuilder.<ConnectionSocketFactory> create().register("http", PlainConnectionSocketFactory.getSocketFactory())
@@ -38,6 +74,10 @@ public class InstrumentedHttpClientConnectionManager extends PoolingHttpClientCo
 		this(meterRegistry, getDefaultRegistry(), metricName);
 	}
 
+	public InstrumentedHttpClientConnectionManager(MeterRegistry meterRegistry, long connTTL, TimeUnit connTTLTimeUnit, String metricName) {
+		this(meterRegistry, getDefaultRegistry(), connTTL, connTTLTimeUnit, metricName);
+	}
+
 	public InstrumentedHttpClientConnectionManager(MeterRegistry meterRegistry, Registry<ConnectionSocketFactory> socketFactoryRegistry,
 			String metricName) {
 		this(meterRegistry, socketFactoryRegistry, -1, TimeUnit.MILLISECONDS, metricName);
@@ -53,14 +93,239 @@ public class InstrumentedHttpClientConnectionManager extends PoolingHttpClientCo
 			DnsResolver dnsResolver, long connTTL, TimeUnit connTTLTimeUnit, String metricName) {
 		super(socketFactoryRegistry, connFactory, schemePortResolver, dnsResolver, connTTL, connTTLTimeUnit);
 		Tags tags = Tags.of(TAG_NAME_HTTPCLIENT_NAME, StringUtils.defaultIfBlank(metricName, "default"));
+		this.meterRegistry = meterRegistry;
+		this.tags = tags;
+		this.totalMeters = new ConnectionMeters(meterRegistry, "httpclientconnection", tags);
+
+		this.totalMeters.registerGauge(meterRegistry, "httpclientconnection.available-connections", tags,
+				() -> this.getTotalStats().getAvailable());
+		this.totalMeters.registerGauge(meterRegistry, "httpclientconnection.leased-connections", tags,
+				() -> this.getTotalStats().getLeased());
+		this.totalMeters.registerGauge(meterRegistry, "httpclientconnection.max-connections", tags,
+				() -> this.getTotalStats().getMax());
+		this.totalMeters.registerGauge(meterRegistry, "httpclientconnection.pending-connections", tags,
+				() -> this.getTotalStats().getPending());
+	}
+
+	/**
+	 * Sets the maximum number of routes with own metrics. A value of 0 disables metrics per route.
+	 *
+	 * @param maxRoutes
+	 *            maximum number of routes
+	 */
+	public void setMaxRoutes(int maxRoutes) {
+		this.maxRoutes = maxRoutes;
+	}
+
+	@Override
+	public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+		ConnectionRequest connectionRequest = super.requestConnection(route, state);
+		// kept until the connection is released, so the meters are not removed while the request is in progress
+		ConnectionMeters meters = this.retainRouteMeters(route);
+		return new ConnectionRequest() {
+
+			@Override
+			public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+					throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+				long startTime = System.nanoTime();
+				HttpClientConnection connection = null;
+				try {
+					connection = connectionRequest.get(timeout, timeUnit);
+				} catch (ConnectionPoolTimeoutException e) {
+					InstrumentedHttpClientConnectionManager.this.totalMeters.timeouts.increment();
+					if (meters != null) {
+						meters.timeouts.increment();
+					}
+					throw e;
+				} finally {
+					if (connection == null && meters != null) {
+						meters.release();
+					}
+				}
+				long leaseTime = System.nanoTime();
+				InstrumentedHttpClientConnectionManager.this.totalMeters.waitTime.record(leaseTime - startTime, TimeUnit.NANOSECONDS);
+				if (meters != null) {
+					meters.waitTime.record(leaseTime - startTime, TimeUnit.NANOSECONDS);
+				}
+				InstrumentedHttpClientConnectionManager.this.leases.put(connection, new Lease(leaseTime, meters));
+				return connection;
+			}
+
+			@Override
+			public boolean cancel() {
+				return connectionRequest.cancel();
+			}
+		};
+	}
+
+	@Override
+	public void releaseConnection(HttpClientConnection managedConn, Object state, long keepalive, TimeUnit timeUnit) {
+		Lease lease = this.leases.remove(managedConn);
+		if (lease != null) {
+			long leaseDuration = System.nanoTime() - lease.startTime;
+			this.totalMeters.leaseTime.record(leaseDuration, TimeUnit.NANOSECONDS);
+			if (lease.meters != null) {
+				lease.meters.leaseTime.record(leaseDuration, TimeUnit.NANOSECONDS);
+				lease.meters.release();
+			}
+		}
+		super.releaseConnection(managedConn, state, keepalive, timeUnit);
+	}
+
+	@Override
+	public void connect(HttpClientConnection managedConn, HttpRoute route, int connectTimeout, HttpContext context) throws IOException {
+		long startTime = System.nanoTime();
+		try {
+			super.connect(managedConn, route, connectTimeout, context);
+		} finally {
+			long connectDuration = System.nanoTime() - startTime;
+			this.totalMeters.connectTime.record(connectDuration, TimeUnit.NANOSECONDS);
+			Lease lease = this.leases.get(managedConn);
+			if (lease != null && lease.meters != null) {
+				lease.meters.connectTime.record(connectDuration, TimeUnit.NANOSECONDS);
+			}
+		}
+	}
+
+	@Override
+	public void closeIdleConnections(long idleTimeout, TimeUnit timeUnit) {
+		super.closeIdleConnections(idleTimeout, timeUnit);
+		this.removeUnusedRouteMeters();
+	}
+
+	@Override
+	public void closeExpiredConnections() {
+		super.closeExpiredConnections();
+		this.removeUnusedRouteMeters();
+	}
+
+	@Override
+	public void shutdown() {
+		super.shutdown();
+		this.leases.clear();
+		this.routeMeters.forEach((route, meters) -> meters.remove(this.meterRegistry));
+		this.routeMeters.clear();
+		if (this.overflowMeters != null) {
+			this.overflowMeters.remove(this.meterRegistry);
+		}
+		this.totalMeters.remove(this.meterRegistry);
+	}
+
+	private ConnectionMeters retainRouteMeters(HttpRoute route) {
+		if (this.maxRoutes <= 0) {
+			return null;
+		}
+		if (!this.routeMeters.containsKey(route) && this.routeMeters.size() >= this.maxRoutes) {
+			this.removeUnusedRouteMeters();
+			// routes added concurrently may exceed the limit by a few
+			if (this.routeMeters.size() >= this.maxRoutes) {
+				return this.getOverflowMeters().retain();
+			}
+		}
+		// retained atomically with the removal of unused meters
+		return this.routeMeters.compute(route, (key, meters) -> (meters != null ? meters : this.createRouteMeters(key)).retain());
+	}
+
+	private ConnectionMeters createRouteMeters(HttpRoute route) {
+		Tags routeTags = this.tags.and(TAG_NAME_ROUTE, route.getTargetHost().toURI());
+		ConnectionMeters meters = new ConnectionMeters(this.meterRegistry, "httpclientconnection.route", routeTags);
+		meters.registerGauge(this.meterRegistry, "httpclientconnection.route.available-connections", routeTags,
+				() -> this.getStats(route).getAvailable());
+		meters.registerGauge(this.meterRegistry, "httpclientconnection.route.leased-connections", routeTags,
+				() -> this.getStats(route).getLeased());
+		meters.registerGauge(this.meterRegistry, "httpclientconnection.route.max-connections", routeTags,
+				() -> this.getStats(route).getMax());
+		meters.registerGauge(this.meterRegistry, "httpclientconnection.route.pending-connections", routeTags,
+				() -> this.getStats(route).getPending());
+		return meters;
+	}
+
+	private ConnectionMeters getOverflowMeters() {
+		if (this.overflowMeters == null) {
+			this.overflowMeters = new ConnectionMeters(this.meterRegistry, "httpclientconnection.route",
+					this.tags.and(TAG_NAME_ROUTE, OVERFLOW_ROUTE));
+		}
+		return this.overflowMeters;
+	}
+
+	/**
+	 * Removes the meters of all routes which currently have no connections in the pool and no request in progress.
+	 */
+	private void removeUnusedRouteMeters() {
+		for (HttpRoute route : this.routeMeters.keySet()) {
+			this.routeMeters.computeIfPresent(route, (key, meters) -> {
+				if (meters.isInUse() || !isEmpty(this.getStats(key))) {
+					return meters;
+				}
+				meters.remove(this.meterRegistry);
+				return null;
+			});
+		}
+	}
+
+	private static boolean isEmpty(PoolStats stats) {
+		return stats.getLeased() == 0 && stats.getPending() == 0 && stats.getAvailable() == 0;
+	}
+
+	/**
+	 * Meters for connection leases, in total or for one route.
+	 */
+	private static final class ConnectionMeters {
+		private final Timer waitTime;
+		private final Timer leaseTime;
+		private final Timer connectTime;
+		private final Counter timeouts;
+		private final List<Meter> meters = new ArrayList<>();
+		// requests between requesting and releasing a connection
+		private final AtomicInteger inUse = new AtomicInteger();
+
+		ConnectionMeters(MeterRegistry meterRegistry, String prefix, Tags tags) {
+			this.waitTime = Timer.builder(prefix + ".wait").description("time waiting for a connection from the pool").tags(tags)
+					.register(meterRegistry);
+			this.leaseTime = Timer.builder(prefix + ".lease").description("time a connection is leased from the pool").tags(tags)
+					.register(meterRegistry);
+			this.connectTime = Timer.builder(prefix + ".connect").description("time to establish a connection").tags(tags)
+					.register(meterRegistry);
+			this.timeouts = Counter.builder(prefix + ".timeouts").description("requests which didn't get a connection from the pool in time")
+					.tags(tags).register(meterRegistry);
+			this.meters.add(this.waitTime);
+			this.meters.add(this.leaseTime);
+			this.meters.add(this.connectTime);
+			this.meters.add(this.timeouts);
+		}
+
+		void registerGauge(MeterRegistry meterRegistry, String name, Tags tags, Supplier<Number> value) {
+			this.meters.add(Gauge.builder(name, value).tags(tags).register(meterRegistry));
+		}
+
+		void remove(MeterRegistry meterRegistry) {
+			this.meters.forEach(meterRegistry::remove);
+		}
+
+		ConnectionMeters retain() {
+			this.inUse.incrementAndGet();
+			return this;
+		}
+
+		void release() {
+			this.inUse.decrementAndGet();
+		}
+
+		boolean isInUse() {
+			return this.inUse.get() > 0;
+		}
+	}
+
+	/**
+	 * Start time and route meters of a leased connection.
+	 */
+	private static final class Lease {
+		private final long startTime;
+		private final ConnectionMeters meters;
 
-		meterRegistry.gauge("httpclientconnection.available-connections", tags, Integer.valueOf(0),
-				x -> this.getTotalStats().getAvailable());
-		meterRegistry.gauge("httpclientconnection.leased-connections", tags, Integer.valueOf(0),
-				x -> this.getTotalStats().getLeased());
-		meterRegistry.gauge("httpclientconnection.max-connections", tags, Integer.valueOf(0),
-				x -> this.getTotalStats().getMax());
-		meterRegistry.gauge("httpclientconnection.pending-connections", tags, Integer.valueOf(0),
-				x -> this.getTotalStats().getPending());
+		Lease(long startTime, ConnectionMeters meters) {
+			this.startTime = startTime;
+			this.meters = meters;
+		}
 	}
 }
@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.apache.http.impl.client.cache.CacheConfig;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.autoconfigure.health.HealthContributorAutoConfiguration;
 import org.springframework.boot.actuate.health.HealthIndicator;
@@ -19,14 +21,15 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.validation.annotation.Validated;
 
 import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.GroupConfig;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizeConfig;
 import com.hazelcast.config.NetworkConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.spi.properties.GroupProperty;
@@ -37,8 +40,15 @@ import de.enterprise.spring.boot.application.starter.clustering.actuate.Hazelcas
 import de.enterprise.spring.boot.application.starter.clustering.discovery.HazelcastDiscoveryConfigurer;
 import de.enterprise.spring.boot.application.starter.clustering.discovery.TcpHazelcastDiscoveryConfigurer;
 import de.enterprise.spring.boot.application.starter.clustering.scheduling.HazelcastTaskScheduler;
+import de.enterprise.spring.boot.application.starter.clustering.scheduling.InstrumentedThreadPoolTaskExecutor;
 import de.enterprise.spring.boot.application.starter.clustering.scheduling.ScheduledTaskExecutionProtocol;
-import de.enterprise.spring.boot.application.starter.logging.MdcTaskDecorator;
+import de.enterprise.spring.boot.application.starter.clustering.scheduling.ShardedTask;
+import de.enterprise.spring.boot.application.starter.clustering.scheduling.ShardedTaskExecutor;
+import de.enterprise.spring.boot.application.starter.clustering.scheduling.TaskExecutorProperties;
+import de.enterprise.spring.boot.application.starter.clustering.scheduling.TaskLeaseManager;
+import de.enterprise.spring.boot.application.starter.clustering.scheduling.TaskSchedulingProperties;
+import de.enterprise.spring.boot.application.starter.httpclient.HttpCacheStorageProvider;
+import de.enterprise.spring.boot.application.starter.tracing.ContextPropagatingTaskDecorator;
 import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
 import io.micrometer.core.instrument.MeterRegistry;
 
@@ -49,11 +59,21 @@ import io.micrometer.core.instrument.MeterRegistry;
  */
 @Configuration
 @ConditionalOnClass(HazelcastInstance.class)
-@EnableConfigurationProperties({ HazelcastProperties.class })
+@EnableConfigurationProperties({ HazelcastProperties.class, TracingProperties.class })
 @ComponentScan("de.enterprise.spring.boot.application.starter.clustering.discovery")
 @AutoConfigureBefore(TaskExecutionAutoConfiguration.class)
 public class HazelcastAutoConfiguration {
 
+	/**
+	 * Name pattern of the maps of the shared http caches.
+	 */
+	public static final String HTTP_CACHE_MAP_PATTERN = "http-cache-*";
+
+	/**
+	 * Default maximum number of cached responses per member and client of the shared http caches.
+	 */
+	public static final int DEFAULT_HTTP_CACHE_MAX_SIZE = 10_000;
+
 	@ConditionalOnProperty(name = "enterprise-application.hazelcast.discovery-type", havingValue = "Tcp")
 	@Bean
 	TcpHazelcastDiscoveryConfigurer tcpHazelcastDiscoveryConfigurer() {
@@ -87,6 +107,9 @@ public class HazelcastAutoConfiguration {
 		}
 		matchingDiscoveryConfigurers.get(0).configure(config);
 
+		// bounded by default, replaced by a configured cache of the same name or a more specific name
+		config.addMapConfig(new MapConfig(HTTP_CACHE_MAP_PATTERN).setEvictionPolicy(EvictionPolicy.LRU)
+				.setMaxSizeConfig(new MaxSizeConfig(DEFAULT_HTTP_CACHE_MAX_SIZE, MaxSizeConfig.MaxSizePolicy.PER_NODE)));
 		if (hazelcastProperties.getCaches() != null) {
 			hazelcastProperties.getCaches().forEach(mapConfig -> config.addMapConfig(mapConfig));
 		}
@@ -105,6 +128,13 @@ public class HazelcastAutoConfiguration {
 		return new HazelcastPublicMetrics(hazelcastInstance);
 	}
 
+	@ConditionalOnMissingBean(HttpCacheStorageProvider.class)
+	@Bean
+	HttpCacheStorageProvider hazelcastHttpCacheStorageProvider(HazelcastInstance hazelcastInstance) {
+		return clientName -> new HazelcastHttpCacheStorage(hazelcastInstance.getMap(HTTP_CACHE_MAP_PATTERN.replace("*", clientName)),
+				CacheConfig.DEFAULT_MAX_UPDATE_RETRIES);
+	}
+
 	@ConditionalOnClass(SpringManagedContext.class)
 	protected static class SpringManagedContextConfiguration {
 		@Bean
@@ -127,12 +157,27 @@ public class HazelcastAutoConfiguration {
 			return new ScheduledTaskExecutionProtocol(hazelcastInstance, hazelcastProperties.getLoggingProperties(), meterRegistry);
 		}
 
+		@Bean(destroyMethod = "shutdown")
+		public TaskLeaseManager taskLeaseManager(HazelcastInstance hazelcastInstance, HazelcastProperties hazelcastProperties) {
+			TaskSchedulingProperties schedulingProperties = hazelcastProperties.getScheduling();
+			return new TaskLeaseManager(hazelcastInstance, schedulingProperties.getLeaseDuration(),
+					schedulingProperties.getLeaseRenewInterval());
+		}
+
+		@Bean(initMethod = "start", destroyMethod = "shutdown")
+		public ShardedTaskExecutor shardedTaskExecutor(HazelcastInstance hazelcastInstance,
+				ScheduledTaskExecutionProtocol scheduledTaskExecutionProtocol, HazelcastProperties hazelcastProperties,
+				ObjectProvider<ShardedTask> shardedTasks) {
+			return new ShardedTaskExecutor(hazelcastInstance, scheduledTaskExecutionProtocol, hazelcastProperties.getScheduling().getSharding(),
+					shardedTasks);
+		}
+
 		@Bean(destroyMethod = "destroy")
 		public TaskScheduler taskScheduler(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry,
-				ScheduledTaskExecutionProtocol scheduledTaskExecutionProtocol, TracingProperties tracingProperties) {
+				ScheduledTaskExecutionProtocol scheduledTaskExecutionProtocol, TracingProperties tracingProperties,
+				HazelcastProperties hazelcastProperties, TaskLeaseManager taskLeaseManager) {
 			HazelcastTaskScheduler taskScheduler = new HazelcastTaskScheduler(hazelcastInstance, meterRegistry,
-					scheduledTaskExecutionProtocol,
-					tracingProperties);
+					scheduledTaskExecutionProtocol, tracingProperties, hazelcastProperties.getScheduling(), taskLeaseManager);
 			taskScheduler.setWaitForTasksToCompleteOnShutdown(true);
 			taskScheduler.setAwaitTerminationSeconds(60);
 			taskScheduler.setPoolSize(5);
@@ -141,13 +186,24 @@ public class HazelcastAutoConfiguration {
 		}
 
 		@Bean(destroyMethod = "destroy")
-		public TaskExecutor taskExecutor() {
-			ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		public InstrumentedThreadPoolTaskExecutor taskExecutor(HazelcastProperties hazelcastProperties, TracingProperties tracingProperties) {
+			TaskExecutorProperties properties = hazelcastProperties.getTaskExecutor();
+			InstrumentedThreadPoolTaskExecutor taskExecutor = new InstrumentedThreadPoolTaskExecutor("taskExecutor");
+			// keeps the mdc without tracing, the ContextPropagatingExecutorBeanPostProcessor replaces it by the configured decorator
+			taskExecutor.setTaskDecorator(new ContextPropagatingTaskDecorator(tracingProperties));
 			taskExecutor.setWaitForTasksToCompleteOnShutdown(true);
-			taskExecutor.setAwaitTerminationSeconds(60);
-			taskExecutor.setCorePoolSize(10);
-			taskExecutor.setMaxPoolSize(20);
-			taskExecutor.setTaskDecorator(new MdcTaskDecorator());
+			taskExecutor.setAwaitTerminationMillis(properties.getAwaitTermination().toMillis());
+			taskExecutor.setCorePoolSize(properties.getCorePoolSize());
+			taskExecutor.setMaxPoolSize(properties.getMaxPoolSize());
+			taskExecutor.setQueueCapacity(properties.getQueueCapacity());
+			taskExecutor.setKeepAliveSeconds((int) properties.getKeepAlive().getSeconds());
+			taskExecutor.setAllowCoreThreadTimeOut(properties.isAllowCoreThreadTimeOut());
+			taskExecutor.setThreadNamePrefix(properties.getThreadNamePrefix());
+			taskExecutor.setRejectedExecutionHandler(properties.getRejectionPolicy().createHandler());
+			if (properties.getAdaptive().isEnabled()) {
+				taskExecutor.setAdaptiveCorePoolSize(properties.getAdaptive().getTargetQueueLatency(),
+						properties.getAdaptive().getCheckInterval());
+			}
 			return taskExecutor;
 		}
 	}
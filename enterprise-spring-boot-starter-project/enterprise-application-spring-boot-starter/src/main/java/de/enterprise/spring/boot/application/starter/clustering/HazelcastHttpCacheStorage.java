@@ -0,0 +1,56 @@
+package de.enterprise.spring.boot.application.starter.clustering;
+
+import java.io.IOException;
+
+import org.apache.http.client.cache.HttpCacheEntry;
+import org.apache.http.client.cache.HttpCacheStorage;
+import org.apache.http.client.cache.HttpCacheUpdateCallback;
+import org.apache.http.client.cache.HttpCacheUpdateException;
+
+import com.hazelcast.core.IMap;
+
+/**
+ * Storage of the http response cache in a Hazelcast {@link IMap}, so cached responses are shared within the cluster. Size and expiration
+ * of the map are configured as usual by the map config (e.g. <code>enterprise-application.hazelcast.caches</code>).
+ *
+ * @author Malte Geßner
+ *
+ */
+public class HazelcastHttpCacheStorage implements HttpCacheStorage {
+
+	private final IMap<String, HttpCacheEntry> entries;
+	private final int maxUpdateRetries;
+
+	public HazelcastHttpCacheStorage(IMap<String, HttpCacheEntry> entries, int maxUpdateRetries) {
+		this.entries = entries;
+		this.maxUpdateRetries = maxUpdateRetries;
+	}
+
+	@Override
+	public void putEntry(String key, HttpCacheEntry entry) {
+		this.entries.set(key, entry);
+	}
+
+	@Override
+	public HttpCacheEntry getEntry(String key) {
+		return this.entries.get(key);
+	}
+
+	@Override
+	public void removeEntry(String key) {
+		this.entries.delete(key);
+	}
+
+	@Override
+	public void updateEntry(String key, HttpCacheUpdateCallback callback) throws IOException, HttpCacheUpdateException {
+		for (int i = 0; i <= this.maxUpdateRetries; i++) {
+			HttpCacheEntry existingEntry = this.entries.get(key);
+			HttpCacheEntry updatedEntry = callback.update(existingEntry);
+			if (existingEntry == null ? this.entries.putIfAbsent(key, updatedEntry) == null
+					: this.entries.replace(key, existingEntry, updatedEntry)) {
+				return;
+			}
+		}
+		throw new HttpCacheUpdateException("failed to update cache entry " + key + " after " + this.maxUpdateRetries + " retries");
+	}
+}
@@ -13,6 +13,8 @@ import com.hazelcast.config.MapConfig;
 
 import de.enterprise.spring.boot.application.starter.clustering.discovery.HazelcastDiscoveryType;
 import de.enterprise.spring.boot.application.starter.clustering.scheduling.ScheduledTaskLoggingProperties;
+import de.enterprise.spring.boot.application.starter.clustering.scheduling.TaskExecutorProperties;
+import de.enterprise.spring.boot.application.starter.clustering.scheduling.TaskSchedulingProperties;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -38,6 +40,12 @@ public class HazelcastProperties {
 	private ScheduledTaskLoggingProperties loggingProperties = new ScheduledTaskLoggingProperties();
 	@Valid
 	private List<MapConfig> caches;
+	@Valid
+	@NotNull
+	private TaskExecutorProperties taskExecutor = new TaskExecutorProperties();
+	@Valid
+	@NotNull
+	private TaskSchedulingProperties scheduling = new TaskSchedulingProperties();
 
 	/**
 	 * Hazelcast config values for tcp node discovery.
@@ -0,0 +1,50 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.util.Date;
+
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.util.Assert;
+
+/**
+ * Fixed rate trigger with execution times at multiples of the period since the epoch, so all cluster members compute the same execution
+ * times regardless of their start time.
+ * <p>
+ * The next execution time is computed from the slot grid and not from the last execution, so late executions do not shift the following
+ * ones. Slots missed while the task was running are skipped instead of executed in a row.
+ *
+ * @author Malte Geßner
+ *
+ */
+public class AlignedFixedRateTrigger implements Trigger {
+
+	private final long period;
+	private final long startTime;
+
+	/**
+	 * @param period
+	 *            period in milliseconds
+	 * @param startTime
+	 *            earliest execution time in milliseconds since the epoch
+	 */
+	public AlignedFixedRateTrigger(long period, long startTime) {
+		Assert.isTrue(period > 0, "period must be positive");
+		this.period = period;
+		this.startTime = startTime;
+	}
+
+	@Override
+	public Date nextExecutionTime(TriggerContext triggerContext) {
+		long earliest = Math.max(this.startTime, triggerContext.getClock().millis());
+		Date lastScheduledExecutionTime = triggerContext.lastScheduledExecutionTime();
+		if (lastScheduledExecutionTime != null) {
+			earliest = Math.max(earliest, lastScheduledExecutionTime.getTime() + 1);
+		}
+		long slot = Math.floorDiv(earliest + this.period - 1, this.period);
+		return new Date(slot * this.period);
+	}
+
+	public long getPeriod() {
+		return this.period;
+	}
+}
@@ -23,6 +23,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.CronTrigger;
 import org.springframework.scheduling.support.DelegatingErrorHandlingRunnable;
 import org.springframework.scheduling.support.SimpleTriggerContext;
 import org.springframework.util.ErrorHandler;
@@ -34,13 +35,18 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Copy of {@link org.springframework.scheduling.concurrent.ReschedulingRunnable} with extension for hazelcast cluster sync mechanismn. Each
- * task execution was only processed on one cluster node/member.
+ * task execution was only processed on one cluster node/member, which one is decided by the {@link TaskOwnership}. Cron executions missed
+ * since the last execution in the cluster are handled by the {@link MisfirePolicy}. They are checked on startup by the owner of the task
+ * and when the ownership moves to this member, not before executions following an execution on this member.
  *
  * @author Malte Gessner
  */
 @Slf4j
 public class HazelcastReschedulingRunnable extends DelegatingErrorHandlingRunnable implements ScheduledFuture<Object> {
 
+	// upper bound of the computed missed executions of a frequent cron after a long downtime
+	private static final int MAX_COUNTED_MISFIRES = 10_000;
+
 	private final Trigger trigger;
 
 	private final SimpleTriggerContext triggerContext = new SimpleTriggerContext();
@@ -48,26 +54,35 @@ public class HazelcastReschedulingRunnable extends DelegatingErrorHandlingRunnab
 	private final ScheduledExecutorService executor;
 	private final String taskName;
 
-	private final IAtomicLong lastExecutionTimeInMillis;
+	private final TaskOwnership taskOwnership;
 	private ScheduledTaskExecutionProtocol scheduledTaskExecutionProtocol;
-	private final ILock taskLock;
+	private MisfirePolicy misfirePolicy = MisfirePolicy.SKIP;
+	private int maxMisfireExecutions = 1;
 
 	private ScheduledFuture<?> currentFuture;
 
 	private Date scheduledExecutionTime;
 
+	// scheduled time of the last execution on this member, no executions were missed until then
+	private Date lastOwnedExecutionTime;
+
 	private final Object triggerContextMonitor = new Object();
 
 	public HazelcastReschedulingRunnable(Runnable delegate, String taskName, Trigger trigger, ScheduledExecutorService executor,
 			IAtomicLong lastExecutionTimeInMillis, ScheduledTaskExecutionProtocol scheduledTaskExecutionProtocol, ILock taskLock,
 
 			ErrorHandler errorHandler) {
+		this(delegate, taskName, trigger, executor, new LockTaskOwnership(taskLock, lastExecutionTimeInMillis),
+				scheduledTaskExecutionProtocol, errorHandler);
+	}
+
+	public HazelcastReschedulingRunnable(Runnable delegate, String taskName, Trigger trigger, ScheduledExecutorService executor,
+			TaskOwnership taskOwnership, ScheduledTaskExecutionProtocol scheduledTaskExecutionProtocol, ErrorHandler errorHandler) {
 		super(delegate, errorHandler);
 		this.trigger = trigger;
 		this.executor = executor;
-		this.lastExecutionTimeInMillis = lastExecutionTimeInMillis;
+		this.taskOwnership = taskOwnership;
 		this.scheduledTaskExecutionProtocol = scheduledTaskExecutionProtocol;
-		this.taskLock = taskLock;
 		this.taskName = taskName;
 	}
 
@@ -78,7 +93,7 @@ public class HazelcastReschedulingRunnable extends DelegatingErrorHandlingRunnab
 				return null;
 			}
 
-			this.lastExecutionTimeInMillis.set(this.scheduledExecutionTime.getTime());
+			this.taskOwnership.scheduled(this.scheduledExecutionTime);
 
 			long initialDelay = this.scheduledExecutionTime.getTime() - System.currentTimeMillis();
 			this.currentFuture = this.executor.schedule(this, initialDelay, TimeUnit.MILLISECONDS);
@@ -86,34 +101,40 @@ public class HazelcastReschedulingRunnable extends DelegatingErrorHandlingRunnab
 		}
 	}
 
+	/**
+	 * Handles the cron executions missed since the last execution in the cluster, called once after the first scheduling. Only the owner
+	 * of the task catches up, otherwise they are handled by the member executing the task next.
+	 */
+	public void catchUpMisfires() {
+		this.executor.execute(NamedTask.of(this.taskName, () -> {
+			try {
+				this.taskOwnership.catchUpAsOwner(() -> this.handleMisfires(new Date(), true));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				log.warn("catching up missed executions of <{}> interrupted", this.taskName);
+			}
+		}));
+	}
+
+	public void setMisfirePolicy(MisfirePolicy misfirePolicy, int maxMisfireExecutions) {
+		this.misfirePolicy = misfirePolicy;
+		this.maxMisfireExecutions = maxMisfireExecutions;
+	}
+
 	@Override
 	public void run() {
 		Date actualExecutionTime = new Date();
 		try {
 			log.debug("try execute task for executionTime <{}>, actualTime <{}>", this.scheduledExecutionTime.getTime(),
 					actualExecutionTime.getTime());
-			if (this.taskLock.tryLock(50, TimeUnit.MILLISECONDS)) {
-				log.debug("lock <{}>", this.taskLock.getName());
-				if (this.lastExecutionTimeInMillis.compareAndSet(this.scheduledExecutionTime.getTime(),
-						actualExecutionTime.getTime() + 1)) {
-					this.taskLock.unlock();
-					log.debug("unlocked <{}>", this.taskLock.getName());
-					log.debug("execute task for executionTime <{}>, actualTime <{}>", this.scheduledExecutionTime.getTime(),
-							actualExecutionTime.getTime());
-					try {
-						this.scheduledTaskExecutionProtocol.startExecution(this.taskName);
-						LocalDateTime executionTime = LocalDateTime.now();
-						super.run();
-						this.scheduledTaskExecutionProtocol.finishedExecution(this.taskName, executionTime);
-					} catch (Exception e) {
-						this.scheduledTaskExecutionProtocol.failedExecution(this.taskName);
-					}
-				} else {
-					this.taskLock.unlock();
-					log.debug("unlocked <{}>", this.taskLock.getName());
+			if (this.taskOwnership.acquire(this.scheduledExecutionTime, actualExecutionTime)) {
+				log.debug("execute task for executionTime <{}>, actualTime <{}>", this.scheduledExecutionTime.getTime(),
+						actualExecutionTime.getTime());
+				if (!this.ownedPreviousExecution()) {
+					this.handleMisfires(this.scheduledExecutionTime, false);
 				}
-			} else {
-				log.debug("try lock failed <{}>", this.taskLock.getName());
+				this.lastOwnedExecutionTime = this.scheduledExecutionTime;
+				this.execute();
 			}
 		} catch (InterruptedException e) {
 			log.error("lock interrupted", e);
@@ -128,6 +149,61 @@ public class HazelcastReschedulingRunnable extends DelegatingErrorHandlingRunnab
 		}
 	}
 
+	private void execute() {
+		try {
+			this.scheduledTaskExecutionProtocol.startExecution(this.taskName);
+			LocalDateTime executionTime = LocalDateTime.now();
+			super.run();
+			this.scheduledTaskExecutionProtocol.finishedExecution(this.taskName, executionTime);
+		} catch (Exception e) {
+			this.scheduledTaskExecutionProtocol.failedExecution(this.taskName);
+		}
+	}
+
+	private boolean ownedPreviousExecution() {
+		synchronized (this.triggerContextMonitor) {
+			return this.lastOwnedExecutionTime != null && this.lastOwnedExecutionTime.equals(this.triggerContext.lastScheduledExecutionTime());
+		}
+	}
+
+	private void handleMisfires(Date until, boolean startup) {
+		if (!(this.trigger instanceof CronTrigger)) {
+			return;
+		}
+		Date lastExecutionTime = this.scheduledTaskExecutionProtocol.getLastExecutionTime(this.taskName);
+		if (lastExecutionTime == null) {
+			return;
+		}
+		int misfires = this.countMisfires(lastExecutionTime, until);
+		if (misfires == 0 || !this.scheduledTaskExecutionProtocol.claimMisfires(this.taskName, lastExecutionTime)) {
+			return;
+		}
+		this.scheduledTaskExecutionProtocol.misfired(this.taskName, misfires, this.misfirePolicy);
+
+		int executions = 0;
+		if (this.misfirePolicy == MisfirePolicy.FIRE_ALL) {
+			executions = Math.min(misfires, this.maxMisfireExecutions);
+		} else if (this.misfirePolicy == MisfirePolicy.FIRE_ONCE && startup) {
+			// a regular execution replaces the missed ones
+			executions = 1;
+		}
+		for (int i = 0; i < executions; i++) {
+			this.execute();
+		}
+	}
+
+	private int countMisfires(Date lastExecutionTime, Date until) {
+		SimpleTriggerContext misfireContext = new SimpleTriggerContext(lastExecutionTime, lastExecutionTime, lastExecutionTime);
+		int misfires = 0;
+		Date next = this.trigger.nextExecutionTime(misfireContext);
+		while (next != null && next.before(until) && misfires < MAX_COUNTED_MISFIRES) {
+			misfires++;
+			misfireContext.update(next, next, next);
+			next = this.trigger.nextExecutionTime(misfireContext);
+		}
+		return misfires;
+	}
+
 	@Override
 	public boolean cancel(boolean mayInterruptIfRunning) {
 		synchronized (this.triggerContextMonitor) {
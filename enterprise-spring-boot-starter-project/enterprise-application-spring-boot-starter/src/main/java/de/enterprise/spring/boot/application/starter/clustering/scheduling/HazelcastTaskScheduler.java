@@ -1,5 +1,7 @@
 package de.enterprise.spring.boot.application.starter.clustering.scheduling;
 
+import java.lang.reflect.Method;
+import java.util.Date;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ScheduledExecutorService;
@@ -9,6 +11,7 @@ import java.util.concurrent.ThreadFactory;
 import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.Trigger;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.PeriodicTrigger;
 import org.springframework.scheduling.support.ScheduledMethodRunnable;
 import org.springframework.scheduling.support.TaskUtils;
 
@@ -22,7 +25,9 @@ import io.micrometer.core.instrument.MeterRegistry;
 /**
  * Hazelcast based task scheduler. Prevents the execution on many cluster node/members per task schedule date.
  *
- * Supports only the cron triggered task.
+ * Coordinates all tasks with a cluster wide name, see {@link #resolveTaskName(Runnable)}, other tasks are executed locally on each member.
+ * Fixed rate tasks are aligned to the epoch by {@link AlignedFixedRateTrigger}, so all members share the execution times. The member
+ * executing a task is chosen per task by {@link TaskOwnershipMode}.
  *
  * @author Malte Gessner
  *
@@ -35,13 +40,23 @@ public class HazelcastTaskScheduler extends ThreadPoolTaskScheduler {
 	private volatile MeterRegistry metricRegistry;
 	private ScheduledTaskExecutionProtocol scheduledTaskExecutionProtocol;
 	private TracingProperties tracingProperties;
+	private TaskSchedulingProperties schedulingProperties;
+	private TaskLeaseManager taskLeaseManager;
 
 	public HazelcastTaskScheduler(HazelcastInstance hazelcastInstance, MeterRegistry metricRegistry,
 			ScheduledTaskExecutionProtocol scheduledTaskExecutionProtocol, TracingProperties tracingProperties) {
+		this(hazelcastInstance, metricRegistry, scheduledTaskExecutionProtocol, tracingProperties, new TaskSchedulingProperties(), null);
+	}
+
+	public HazelcastTaskScheduler(HazelcastInstance hazelcastInstance, MeterRegistry metricRegistry,
+			ScheduledTaskExecutionProtocol scheduledTaskExecutionProtocol, TracingProperties tracingProperties,
+			TaskSchedulingProperties schedulingProperties, TaskLeaseManager taskLeaseManager) {
 		this.hazelcastInstance = hazelcastInstance;
 		this.metricRegistry = metricRegistry;
 		this.scheduledTaskExecutionProtocol = scheduledTaskExecutionProtocol;
 		this.tracingProperties = tracingProperties;
+		this.schedulingProperties = schedulingProperties;
+		this.taskLeaseManager = taskLeaseManager;
 	}
 
 	@Override
@@ -53,24 +68,101 @@ public class HazelcastTaskScheduler extends ThreadPoolTaskScheduler {
 
 	@Override
 	public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+		String taskName = this.resolveTaskName(task);
+		if (taskName == null) {
+			return super.schedule(task, trigger);
+		}
 
-		ScheduledMethodRunnable scheduledMethodRunnable = (ScheduledMethodRunnable) task;
-
-		String className = scheduledMethodRunnable.getMethod().getDeclaringClass().getSimpleName();
-		String methodName = scheduledMethodRunnable.getMethod().getName();
-		String taskName = this.scheduledTaskExecutionProtocol.getTaskName(className, methodName);
-		IAtomicLong lastExecutionTimeInMillis = this.hazelcastInstance.getAtomicLong(taskName);
-
-		this.scheduledTaskExecutionProtocol.registerTask(taskName, trigger);
+		TaskOwnership taskOwnership = this.createTaskOwnership(taskName);
 
-		ILock taskLock = this.hazelcastInstance.getLock(taskName);
+		this.scheduledTaskExecutionProtocol.registerTask(taskName, trigger, taskOwnership);
 
 		ScheduledExecutorService executor = this.getScheduledExecutor();
 		try {
-			return new HazelcastReschedulingRunnable(task, taskName, trigger, executor, lastExecutionTimeInMillis,
-					this.scheduledTaskExecutionProtocol, taskLock, TaskUtils.getDefaultErrorHandler(false)).schedule();
+			HazelcastReschedulingRunnable reschedulingRunnable = new HazelcastReschedulingRunnable(task, taskName, trigger, executor,
+					taskOwnership, this.scheduledTaskExecutionProtocol, TaskUtils.getDefaultErrorHandler(false));
+			reschedulingRunnable.setMisfirePolicy(this.schedulingProperties.misfirePolicyOf(taskName),
+					this.schedulingProperties.getMaxMisfireExecutions());
+			ScheduledFuture<?> future = reschedulingRunnable.schedule();
+			reschedulingRunnable.catchUpMisfires();
+			return future;
 		} catch (RejectedExecutionException ex) {
 			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
 		}
 	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+		if (this.resolveTaskName(task) == null) {
+			return super.schedule(task, startTime);
+		}
+		return this.schedule(task, triggerContext -> triggerContext.lastScheduledExecutionTime() == null ? startTime : null);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+		if (this.resolveTaskName(task) == null) {
+			return super.scheduleAtFixedRate(task, startTime, period);
+		}
+		return this.schedule(task, new AlignedFixedRateTrigger(period, startTime.getTime()));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+		if (this.resolveTaskName(task) == null) {
+			return super.scheduleAtFixedRate(task, period);
+		}
+		return this.schedule(task, new AlignedFixedRateTrigger(period, System.currentTimeMillis()));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+		if (this.resolveTaskName(task) == null) {
+			return super.scheduleWithFixedDelay(task, startTime, delay);
+		}
+		PeriodicTrigger trigger = new PeriodicTrigger(delay);
+		trigger.setInitialDelay(Math.max(0, startTime.getTime() - System.currentTimeMillis()));
+		return this.schedule(task, trigger);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+		if (this.resolveTaskName(task) == null) {
+			return super.scheduleWithFixedDelay(task, delay);
+		}
+		return this.schedule(task, new PeriodicTrigger(delay));
+	}
+
+	/**
+	 * Resolves the cluster wide name of a task, tasks without name are executed locally on each member.
+	 *
+	 * @param task
+	 *            the scheduled task
+	 * @return name of a {@link NamedTask}, <code>ClassName-methodName</code> of a <code>@Scheduled</code> method or <code>null</code>
+	 */
+	protected String resolveTaskName(Runnable task) {
+		if (task instanceof NamedTask) {
+			return ((NamedTask) task).getTaskName();
+		}
+		if (task instanceof ScheduledMethodRunnable) {
+			Method method = ((ScheduledMethodRunnable) task).getMethod();
+			return this.scheduledTaskExecutionProtocol.getTaskName(method.getDeclaringClass().getSimpleName(), method.getName());
+		}
+		return null;
+	}
+
+	private TaskOwnership createTaskOwnership(String taskName) {
+		TaskOwnershipMode ownershipMode = this.schedulingProperties.ownershipModeOf(taskName);
+		if (this.taskLeaseManager != null && ownershipMode == TaskOwnershipMode.LEASE) {
+			String leaseName = this.schedulingProperties.leaseNameOf(taskName);
+			this.taskLeaseManager.register(leaseName);
+			return new LeaseTaskOwnership(this.taskLeaseManager, leaseName);
+		}
+		IAtomicLong lastExecutionTimeInMillis = this.hazelcastInstance.getAtomicLong(taskName);
+		if (ownershipMode == TaskOwnershipMode.PARTITION) {
+			return new PartitionTaskOwnership(this.hazelcastInstance.getPartitionService(), taskName, lastExecutionTimeInMillis);
+		}
+		ILock taskLock = this.hazelcastInstance.getLock(taskName);
+		return new LockTaskOwnership(taskLock, lastExecutionTimeInMillis);
+	}
 }
@@ -16,6 +16,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.util.StopWatch;
 
+import de.enterprise.spring.boot.application.starter.tracing.Span;
+import de.enterprise.spring.boot.application.starter.tracing.TraceContext;
 import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
 import de.enterprise.spring.boot.application.starter.tracing.TracingUtils;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -94,17 +96,32 @@ public class InstrumentedScheduledExecutorService implements ScheduledExecutorSe
 	@Override
 	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
 		scheduledOnce(command);
-		return this.delegate.schedule(new InstrumentedRunnable(command), delay, unit);
+		return this.delegate.schedule(new InstrumentedRunnable(command, this.callerContext(command)), delay, unit);
 	}
 
 	protected String getTaskName(Runnable command) {
 		if (command instanceof HazelcastReschedulingRunnable) {
 			return ((HazelcastReschedulingRunnable) command).getTaskName();
 		}
+		if (command instanceof NamedTask) {
+			return ((NamedTask) command).getTaskName();
+		}
 
 		return "default";
 	}
 
+	private Span startSpan(Runnable command, TraceContext parent) {
+		return TracingUtils.startChildSpan(this.tracingProperties, this.getTaskName(command), Span.Kind.INTERNAL, parent);
+	}
+
+	private TraceContext callerContext(Runnable command) {
+		// a task being its own future reschedules itself from its execution, its executions must not become a chain of child spans
+		if (command instanceof Future || this.tracingProperties == null || !this.tracingProperties.isEnabled()) {
+			return null;
+		}
+		return TracingUtils.currentTraceContext(this.tracingProperties);
+	}
+
 	protected AtomicInteger getRunningCounter(Runnable command) {
 		String taskName = this.getTaskName(command);
 		if (!this.runningByTaskName.containsKey(taskName)) {
@@ -211,7 +228,7 @@ public class InstrumentedScheduledExecutorService implements ScheduledExecutorSe
 	@Override
 	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
 		this.scheduledRepetitively(command);
-		return this.delegate.scheduleAtFixedRate(new InstrumentedRunnable(command), initialDelay, delay, unit);
+		return this.delegate.scheduleAtFixedRate(new InstrumentedRunnable(command, null), initialDelay, delay, unit);
 	}
 
 	/**
@@ -268,7 +285,7 @@ public class InstrumentedScheduledExecutorService implements ScheduledExecutorSe
 	@Override
 	public <T> Future<T> submit(Runnable task, T result) {
 		this.submitted(task);
-		return this.delegate.submit(new InstrumentedRunnable(task), result);
+		return this.delegate.submit(new InstrumentedRunnable(task, this.callerContext(task)), result);
 	}
 
 	/**
@@ -277,7 +294,7 @@ public class InstrumentedScheduledExecutorService implements ScheduledExecutorSe
 	@Override
 	public Future<?> submit(Runnable task) {
 		this.submitted(task);
-		return this.delegate.submit(new InstrumentedRunnable(task));
+		return this.delegate.submit(new InstrumentedRunnable(task, this.callerContext(task)));
 	}
 
 	/**
@@ -332,24 +349,32 @@ public class InstrumentedScheduledExecutorService implements ScheduledExecutorSe
 	@Override
 	public void execute(Runnable command) {
 		this.submitted(command);
-		this.delegate.execute(new InstrumentedRunnable(command));
+		this.delegate.execute(new InstrumentedRunnable(command, this.callerContext(command)));
 	}
 
 	private class InstrumentedRunnable implements Runnable {
 		private final Runnable command;
+		// trace context of the submitting thread, the span of the task becomes its child
+		private final TraceContext parent;
 
-		InstrumentedRunnable(Runnable command) {
+		InstrumentedRunnable(Runnable command, TraceContext parent) {
 			this.command = command;
+			this.parent = parent;
 		}
 
 		@Override
 		public void run() {
 			InstrumentedScheduledExecutorService.this.runningInc(this.command);
+			Span span = InstrumentedScheduledExecutorService.this.startSpan(this.command, this.parent);
 			try {
-				TracingUtils.addNewMdcTraceContext(InstrumentedScheduledExecutorService.this.tracingProperties);
 				InstrumentedScheduledExecutorService.this.duration(this.command).record(this.command);
+			} catch (RuntimeException e) {
+				if (span != null) {
+					span.error(e);
+				}
+				throw e;
 			} finally {
-				TracingUtils.removeMdcTraceContext(InstrumentedScheduledExecutorService.this.tracingProperties);
+				TracingUtils.endSpan(InstrumentedScheduledExecutorService.this.tracingProperties, span);
 
 				InstrumentedScheduledExecutorService.this.runningDec(this.command);
 				InstrumentedScheduledExecutorService.this.completed(this.command);
@@ -370,11 +395,18 @@ public class InstrumentedScheduledExecutorService implements ScheduledExecutorSe
 		public void run() {
 			InstrumentedScheduledExecutorService.this.runningInc(this.command);
 			StopWatch executionStopWatch = new StopWatch();
+			Span span = InstrumentedScheduledExecutorService.this.startSpan(this.command, null);
 			try {
 				executionStopWatch.start();
 				InstrumentedScheduledExecutorService.this.duration(this.command).record(this.command);
+			} catch (RuntimeException e) {
+				if (span != null) {
+					span.error(e);
+				}
+				throw e;
 			} finally {
 				executionStopWatch.stop();
+				TracingUtils.endSpan(InstrumentedScheduledExecutorService.this.tracingProperties, span);
 
 				InstrumentedScheduledExecutorService.this.runningDec(this.command);
 				InstrumentedScheduledExecutorService.this.completed(this.command);
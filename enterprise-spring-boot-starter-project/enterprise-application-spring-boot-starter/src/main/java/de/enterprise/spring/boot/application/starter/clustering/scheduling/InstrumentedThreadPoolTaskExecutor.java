@@ -0,0 +1,183 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link ThreadPoolTaskExecutor} publishing the pool and queue state, the time tasks wait in the queue and their execution time as
+ * metrics. The metric names follow {@link ExecutorServiceMetrics} and are tagged with the name of the executor.
+ * <p>
+ * Optionally the core pool size adapts to the queue wait time: if the average wait time of an interval exceeds the target, the core pool
+ * size grows by one thread up to the max pool size, if it is below half of the target, it shrinks by one thread down to the initial core
+ * pool size.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Slf4j
+public class InstrumentedThreadPoolTaskExecutor extends ThreadPoolTaskExecutor implements MeterBinder {
+
+	private static final long serialVersionUID = 202101150915L;
+
+	private final String name;
+	private final LongAdder rejectedTasks = new LongAdder();
+	private final LongAdder intervalWaitNanos = new LongAdder();
+	private final LongAdder intervalTasks = new LongAdder();
+	private final AtomicLong nextAdaptation = new AtomicLong();
+
+	private volatile Timer waitTimer;
+	private volatile Timer executionTimer;
+	private long targetQueueLatencyNanos;
+	private long checkIntervalNanos;
+	private int minCorePoolSize;
+
+	public InstrumentedThreadPoolTaskExecutor(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Enables the adaptation of the core pool size, must be called before the executor is initialized.
+	 *
+	 * @param targetQueueLatency
+	 *            average queue wait time above which the core pool size grows
+	 * @param checkInterval
+	 *            minimum time between two adaptations
+	 */
+	public void setAdaptiveCorePoolSize(Duration targetQueueLatency, Duration checkInterval) {
+		this.targetQueueLatencyNanos = targetQueueLatency.toNanos();
+		this.checkIntervalNanos = checkInterval.toNanos();
+	}
+
+	@Override
+	protected ExecutorService initializeExecutor(ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+		this.minCorePoolSize = this.getCorePoolSize();
+		this.nextAdaptation.set(System.nanoTime() + this.checkIntervalNanos);
+		return super.initializeExecutor(threadFactory, (task, executor) -> {
+			this.rejectedTasks.increment();
+			rejectedExecutionHandler.rejectedExecution(task, executor);
+		});
+	}
+
+	@Override
+	public void execute(Runnable task) {
+		super.execute(this.instrument(task));
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		return super.submit(this.instrument(task));
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		return super.submit(this.instrument(task));
+	}
+
+	@Override
+	public ListenableFuture<?> submitListenable(Runnable task) {
+		return super.submitListenable(this.instrument(task));
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+		return super.submitListenable(this.instrument(task));
+	}
+
+	public long getRejectedTasks() {
+		return this.rejectedTasks.sum();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Tags tags = Tags.of("name", this.name);
+		new ExecutorServiceMetrics(this.getThreadPoolExecutor(), this.name, Tags.empty()).bindTo(registry);
+		this.waitTimer = Timer.builder("executor.idle").tags(tags).description("Time tasks waited in the queue").register(registry);
+		this.executionTimer = Timer.builder("executor").tags(tags).description("Execution time of tasks").register(registry);
+		FunctionCounter.builder("executor.rejected", this.rejectedTasks, LongAdder::doubleValue).tags(tags)
+				.description("Tasks rejected because all threads were busy and the queue was full").register(registry);
+	}
+
+	private Runnable instrument(Runnable task) {
+		long submitted = System.nanoTime();
+		return () -> {
+			long started = this.started(submitted);
+			try {
+				task.run();
+			} finally {
+				this.completed(started);
+			}
+		};
+	}
+
+	private <T> Callable<T> instrument(Callable<T> task) {
+		long submitted = System.nanoTime();
+		return () -> {
+			long started = this.started(submitted);
+			try {
+				return task.call();
+			} finally {
+				this.completed(started);
+			}
+		};
+	}
+
+	private long started(long submitted) {
+		long started = System.nanoTime();
+		long waitNanos = started - submitted;
+		Timer timer = this.waitTimer;
+		if (timer != null) {
+			timer.record(waitNanos, TimeUnit.NANOSECONDS);
+		}
+		if (this.targetQueueLatencyNanos > 0) {
+			this.adapt(waitNanos, started);
+		}
+		return started;
+	}
+
+	private void completed(long started) {
+		Timer timer = this.executionTimer;
+		if (timer != null) {
+			timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private void adapt(long waitNanos, long now) {
+		this.intervalWaitNanos.add(waitNanos);
+		this.intervalTasks.increment();
+		long next = this.nextAdaptation.get();
+		// only one thread adapts per interval
+		if (now - next < 0 || !this.nextAdaptation.compareAndSet(next, now + this.checkIntervalNanos)) {
+			return;
+		}
+		long tasks = this.intervalTasks.sumThenReset();
+		long averageWaitNanos = tasks > 0 ? this.intervalWaitNanos.sumThenReset() / tasks : 0;
+		int corePoolSize = this.getCorePoolSize();
+		if (averageWaitNanos > this.targetQueueLatencyNanos && corePoolSize < this.getMaxPoolSize()) {
+			this.setCorePoolSize(corePoolSize + 1);
+			log.debug("increased core pool size of executor {} to {}, average queue wait time {} ms", this.name, corePoolSize + 1,
+					TimeUnit.NANOSECONDS.toMillis(averageWaitNanos));
+		} else if (averageWaitNanos < this.targetQueueLatencyNanos / 2 && corePoolSize > this.minCorePoolSize) {
+			this.setCorePoolSize(corePoolSize - 1);
+			log.debug("decreased core pool size of executor {} to {}, average queue wait time {} ms", this.name, corePoolSize - 1,
+					TimeUnit.NANOSECONDS.toMillis(averageWaitNanos));
+		}
+	}
+}
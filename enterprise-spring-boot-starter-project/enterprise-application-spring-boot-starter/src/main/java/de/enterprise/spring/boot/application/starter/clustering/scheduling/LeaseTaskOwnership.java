@@ -0,0 +1,44 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.util.Date;
+
+/**
+ * Only the member holding the lease of the task executes it, the ownership is checked locally without cluster round trip.
+ *
+ * @author Malte Geßner
+ *
+ */
+public class LeaseTaskOwnership implements TaskOwnership {
+
+	private final TaskLeaseManager taskLeaseManager;
+	private final String leaseName;
+
+	public LeaseTaskOwnership(TaskLeaseManager taskLeaseManager, String leaseName) {
+		this.taskLeaseManager = taskLeaseManager;
+		this.leaseName = leaseName;
+	}
+
+	@Override
+	public boolean acquire(Date scheduledExecutionTime, Date actualExecutionTime) {
+		return this.taskLeaseManager.isOwner(this.leaseName);
+	}
+
+	@Override
+	public boolean catchUpAsOwner(Runnable catchUp) {
+		if (!this.taskLeaseManager.isOwner(this.leaseName)) {
+			return false;
+		}
+		catchUp.run();
+		return true;
+	}
+
+	@Override
+	public TaskOwnershipMode getMode() {
+		return TaskOwnershipMode.LEASE;
+	}
+
+	@Override
+	public String getOwner() {
+		return this.taskLeaseManager.getOwner(this.leaseName);
+	}
+}
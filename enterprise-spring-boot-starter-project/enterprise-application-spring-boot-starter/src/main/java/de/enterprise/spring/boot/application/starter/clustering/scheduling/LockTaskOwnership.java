@@ -0,0 +1,73 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import com.hazelcast.core.IAtomicLong;
+import com.hazelcast.core.ILock;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Each member tries to lock the task at every execution, the first member switching the cluster wide execution time executes it. The
+ * execution time is set by the first member scheduling the next execution.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Slf4j
+public class LockTaskOwnership implements TaskOwnership {
+
+	private final ILock taskLock;
+	private final IAtomicLong lastExecutionTimeInMillis;
+
+	public LockTaskOwnership(ILock taskLock, IAtomicLong lastExecutionTimeInMillis) {
+		this.taskLock = taskLock;
+		this.lastExecutionTimeInMillis = lastExecutionTimeInMillis;
+	}
+
+	@Override
+	public void scheduled(Date scheduledExecutionTime) {
+		long pendingExecutionTime = this.lastExecutionTimeInMillis.get();
+		// other members may compute other execution times, e.g. for fixed delay tasks, overwriting their pending execution would prevent
+		// every execution, it is replaced only if it was missed
+		if (pendingExecutionTime < System.currentTimeMillis()) {
+			this.lastExecutionTimeInMillis.compareAndSet(pendingExecutionTime, scheduledExecutionTime.getTime());
+		}
+	}
+
+	@Override
+	public boolean acquire(Date scheduledExecutionTime, Date actualExecutionTime) throws InterruptedException {
+		if (!this.taskLock.tryLock(50, TimeUnit.MILLISECONDS)) {
+			log.debug("try lock failed <{}>", this.taskLock.getName());
+			return false;
+		}
+		log.debug("lock <{}>", this.taskLock.getName());
+		try {
+			// the execution is marked negative, an execution time scheduled by another member must not match the mark
+			return this.lastExecutionTimeInMillis.compareAndSet(scheduledExecutionTime.getTime(), -actualExecutionTime.getTime());
+		} finally {
+			this.taskLock.unlock();
+			log.debug("unlocked <{}>", this.taskLock.getName());
+		}
+	}
+
+	@Override
+	public boolean catchUpAsOwner(Runnable catchUp) throws InterruptedException {
+		// members trying to execute the task meanwhile don't get the lock
+		if (!this.taskLock.tryLock(50, TimeUnit.MILLISECONDS)) {
+			return false;
+		}
+		try {
+			catchUp.run();
+			return true;
+		} finally {
+			this.taskLock.unlock();
+		}
+	}
+
+	@Override
+	public TaskOwnershipMode getMode() {
+		return TaskOwnershipMode.LOCK;
+	}
+}
@@ -0,0 +1,25 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+/**
+ * Handling of cron executions missed since the last successful execution of a task, e.g. while the cluster was redeployed.
+ *
+ * @author Malte Geßner
+ *
+ */
+public enum MisfirePolicy {
+
+	/**
+	 * Missed executions are only counted.
+	 */
+	SKIP,
+
+	/**
+	 * Missed executions are executed once at startup, the next regular execution replaces them later on.
+	 */
+	FIRE_ONCE,
+
+	/**
+	 * Each missed execution is executed, at most {@link TaskSchedulingProperties#getMaxMisfireExecutions()}.
+	 */
+	FIRE_ALL
+}
@@ -0,0 +1,45 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+/**
+ * Task with a cluster wide unique name, scheduled tasks of the {@link HazelcastTaskScheduler} are only coordinated within the cluster if
+ * their name is known.
+ *
+ * @author Malte Geßner
+ *
+ */
+public interface NamedTask extends Runnable {
+
+	/**
+	 * @return name of the task, the same on all cluster members
+	 */
+	String getTaskName();
+
+	/**
+	 * Names a task for the cluster coordination.
+	 *
+	 * @param taskName
+	 *            name of the task, the same on all cluster members
+	 * @param task
+	 *            the task
+	 * @return named task
+	 */
+	static NamedTask of(String taskName, Runnable task) {
+		return new NamedTask() {
+
+			@Override
+			public void run() {
+				task.run();
+			}
+
+			@Override
+			public String getTaskName() {
+				return taskName;
+			}
+
+			@Override
+			public String toString() {
+				return taskName;
+			}
+		};
+	}
+}
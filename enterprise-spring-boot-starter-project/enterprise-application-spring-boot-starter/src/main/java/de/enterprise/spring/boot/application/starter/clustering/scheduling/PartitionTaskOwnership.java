@@ -0,0 +1,80 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.util.Date;
+
+import com.hazelcast.core.IAtomicLong;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.Partition;
+import com.hazelcast.core.PartitionService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The owner of the partition of the task name executes the task, so tasks are spread over the members and are moved by Hazelcast on
+ * membership changes.
+ * <p>
+ * The execution time is switched by compare-and-set like {@link LockTaskOwnership}, which prevents a second execution while a partition
+ * migrates. The atomic long of the task is stored in the same partition, so the owner switches it without a remote call.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Slf4j
+public class PartitionTaskOwnership implements TaskOwnership {
+
+	private final PartitionService partitionService;
+	private final String taskName;
+	private final IAtomicLong lastExecutionTimeInMillis;
+
+	public PartitionTaskOwnership(PartitionService partitionService, String taskName, IAtomicLong lastExecutionTimeInMillis) {
+		this.partitionService = partitionService;
+		this.taskName = taskName;
+		this.lastExecutionTimeInMillis = lastExecutionTimeInMillis;
+	}
+
+	@Override
+	public void scheduled(Date scheduledExecutionTime) {
+		// other members may compute other execution times, e.g. for fixed delay tasks
+		Member owner = this.partitionOwner();
+		if (owner != null && owner.localMember()) {
+			this.lastExecutionTimeInMillis.set(scheduledExecutionTime.getTime());
+		}
+	}
+
+	@Override
+	public boolean acquire(Date scheduledExecutionTime, Date actualExecutionTime) {
+		Member owner = this.partitionOwner();
+		if (owner == null || !owner.localMember()) {
+			log.debug("partition of <{}> is owned by <{}>", this.taskName, owner);
+			return false;
+		}
+		return this.lastExecutionTimeInMillis.compareAndSet(scheduledExecutionTime.getTime(), actualExecutionTime.getTime() + 1);
+	}
+
+	@Override
+	public boolean catchUpAsOwner(Runnable catchUp) {
+		Member owner = this.partitionOwner();
+		if (owner == null || !owner.localMember()) {
+			return false;
+		}
+		catchUp.run();
+		return true;
+	}
+
+	@Override
+	public TaskOwnershipMode getMode() {
+		return TaskOwnershipMode.PARTITION;
+	}
+
+	@Override
+	public String getOwner() {
+		Member owner = this.partitionOwner();
+		return owner != null ? owner.getAddress().toString() : null;
+	}
+
+	private Member partitionOwner() {
+		Partition partition = this.partitionService.getPartition(this.taskName);
+		// null while the partition is not yet assigned or migrating
+		return partition.getOwner();
+	}
+}
@@ -1,8 +1,10 @@
 package de.enterprise.spring.boot.application.starter.clustering.scheduling;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,6 +18,7 @@ import com.hazelcast.core.IAtomicLong;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -29,6 +32,9 @@ public class ScheduledTaskExecutionProtocol {
 	private static final String TAG_NAME_TASK_NAME = "taskName";
 
 	private static final String LAST_SUCCESSFULL_EXECUTION_HAZELCAST_PREFIX = "lastSuccessfullExecution-";
+	private static final String LAST_FAILED_EXECUTION_HAZELCAST_PREFIX = "lastFailedExecution-";
+	private static final String LAST_STARTED_EXECUTION_HAZELCAST_PREFIX = "lastStartedExecution-";
+	private static final String MISFIRES_CLAIMED_HAZELCAST_PREFIX = "misfiresClaimed-";
 
 	private HazelcastInstance hazelcastInstance;
 	private ScheduledTaskLoggingProperties loggingProperties;
@@ -53,15 +59,21 @@ public class ScheduledTaskExecutionProtocol {
 	}
 
 	public void registerTask(String taskName, Trigger trigger) {
+		this.registerTask(taskName, trigger, null);
+	}
+
+	public void registerTask(String taskName, Trigger trigger, TaskOwnership taskOwnership) {
 		String cronExpression = null;
 		if (trigger instanceof CronTrigger) {
 			cronExpression = ((CronTrigger) trigger).getExpression();
 		}
-		this.taskMap.put(taskName, new TaskState(cronExpression));
+		this.taskMap.put(taskName, new TaskState(cronExpression, taskOwnership));
 	}
 
 	public void startExecution(String taskName) {
 		this.metricRegistry.counter("hazelcast.cluster.scheduling.startExecution", Tags.of(TAG_NAME_TASK_NAME, taskName)).increment();
+		// a running execution is not missed, even if it is still running when another member executes the next one
+		this.hazelcastInstance.getAtomicLong(LAST_STARTED_EXECUTION_HAZELCAST_PREFIX + taskName).set(System.currentTimeMillis());
 
 		if (this.shouldLog(taskName)) {
 			log.info("Start CronJob job={}", taskName);
@@ -77,12 +89,63 @@ public class ScheduledTaskExecutionProtocol {
 		this.updateExecutionTimeOfTask(taskName, executionTime);
 	}
 
+	public void shardExecuted(String taskName, int shard, Duration duration, boolean success) {
+		if (this.shouldLog(taskName)) {
+			log.info("{} shard={} of CronJob job={} in {}ms", success ? "Finished" : "Failed", shard, taskName, duration.toMillis());
+		}
+
+		this.metricRegistry.timer("hazelcast.cluster.scheduling.shardExecution",
+				Tags.of(TAG_NAME_TASK_NAME, taskName, "outcome", success ? "SUCCESS" : "FAILURE")).record(duration);
+	}
+
+	public void finishedShards(String taskName, Map<Integer, Long> durationsByShard) {
+		this.taskMap.computeIfAbsent(taskName, name -> new TaskState(null, null)).setLastShardDurationsInMillis(durationsByShard);
+	}
+
+	/**
+	 * Returns the time of the last execution in the cluster, successful, failed or still running.
+	 *
+	 * @param taskName
+	 *            name of the task
+	 * @return time of the last execution or <code>null</code> if the task was never executed
+	 */
+	public Date getLastExecutionTime(String taskName) {
+		long millis = Math.max(this.hazelcastInstance.getAtomicLong(LAST_STARTED_EXECUTION_HAZELCAST_PREFIX + taskName).get(),
+				Math.max(this.hazelcastInstance.getAtomicLong(this.getLastExecutionTaskName(taskName)).get(),
+						this.hazelcastInstance.getAtomicLong(LAST_FAILED_EXECUTION_HAZELCAST_PREFIX + taskName).get()));
+		return millis != 0 ? new Date(millis) : null;
+	}
+
+	/**
+	 * Claims the handling of the executions missed since the last execution, so they are handled by one member only.
+	 *
+	 * @param taskName
+	 *            name of the task
+	 * @param lastExecutionTime
+	 *            last execution the missed executions were computed from
+	 * @return <code>true</code> if this member handles the missed executions
+	 */
+	public boolean claimMisfires(String taskName, Date lastExecutionTime) {
+		IAtomicLong claimed = this.hazelcastInstance.getAtomicLong(MISFIRES_CLAIMED_HAZELCAST_PREFIX + taskName);
+		long previous = claimed.get();
+		return previous != lastExecutionTime.getTime() && claimed.compareAndSet(previous, lastExecutionTime.getTime());
+	}
+
+	public void misfired(String taskName, int misfires, MisfirePolicy misfirePolicy) {
+		log.warn("Missed {} executions of CronJob job={}, policy={}", misfires, taskName, misfirePolicy);
+
+		this.metricRegistry.counter("hazelcast.cluster.scheduling.misfire", Tags.of(TAG_NAME_TASK_NAME, taskName, "policy", misfirePolicy.name()))
+				.increment(misfires);
+	}
+
 	public void failedExecution(String taskName) {
 		if (this.shouldLog(taskName)) {
 			log.info("Failed CronJob job={}", taskName);
 		}
 
 		this.metricRegistry.counter("hazelcast.cluster.scheduling.failedExecution", Tags.of(TAG_NAME_TASK_NAME, taskName)).increment();
+		// failed executions are not missed, they are not repeated by the misfire policy
+		this.hazelcastInstance.getAtomicLong(LAST_FAILED_EXECUTION_HAZELCAST_PREFIX + taskName).set(System.currentTimeMillis());
 	}
 
 	private boolean shouldLog(String taskName) {
@@ -101,6 +164,7 @@ public class ScheduledTaskExecutionProtocol {
 
 	public Map<String, TaskState> getTaskProtocol() {
 		for (String key : this.taskMap.keySet()) {
+			this.taskMap.get(key).updateOwner();
 			IAtomicLong lastExecutionTimeInMillis = this.hazelcastInstance.getAtomicLong(LAST_SUCCESSFULL_EXECUTION_HAZELCAST_PREFIX + key);
 			long millis = lastExecutionTimeInMillis.get();
 			if (millis == 0) {
@@ -121,9 +185,29 @@ public class ScheduledTaskExecutionProtocol {
 		private String cronExpression;
 		private LocalDateTime localLastSuccessfullExecutionTime;
 		private LocalDateTime clusterLastSuccessfullExecutionTime;
-
-		TaskState(String cronExpression) {
+		private TaskOwnershipMode ownershipMode;
+		/**
+		 * Member executing the task, unknown in mode {@link TaskOwnershipMode#LOCK}.
+		 */
+		private String owner;
+		/**
+		 * Duration of each shard of the last run coordinated by this member, only for {@link ShardedTask}s.
+		 */
+		private Map<Integer, Long> lastShardDurationsInMillis;
+		@Getter(AccessLevel.NONE)
+		@Setter(AccessLevel.NONE)
+		private TaskOwnership taskOwnership;
+
+		TaskState(String cronExpression, TaskOwnership taskOwnership) {
 			this.cronExpression = cronExpression;
+			this.taskOwnership = taskOwnership;
+			this.ownershipMode = taskOwnership != null ? taskOwnership.getMode() : null;
+		}
+
+		void updateOwner() {
+			if (this.taskOwnership != null) {
+				this.owner = this.taskOwnership.getOwner();
+			}
 		}
 	}
 }
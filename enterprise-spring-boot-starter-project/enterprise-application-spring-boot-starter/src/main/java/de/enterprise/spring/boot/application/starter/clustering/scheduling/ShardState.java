@@ -0,0 +1,70 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.io.Serializable;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Cluster wide state of a shard of a {@link ShardedTaskRun}.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ShardState implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Status status;
+	private final String memberUuid;
+	private final int attempts;
+	private final long durationMillis;
+
+	/**
+	 * @return state of a shard waiting in the queue
+	 */
+	public static ShardState pending() {
+		return new ShardState(Status.PENDING, null, 0, 0);
+	}
+
+	/**
+	 * @return this shard waiting in the queue again
+	 */
+	public ShardState requeued() {
+		return new ShardState(Status.PENDING, null, this.attempts, 0);
+	}
+
+	/**
+	 * @param executingMemberUuid
+	 *            uuid of the member claiming the shard
+	 * @return this shard claimed by a member
+	 */
+	public ShardState running(String executingMemberUuid) {
+		return new ShardState(Status.RUNNING, executingMemberUuid, this.attempts + 1, 0);
+	}
+
+	/**
+	 * @param success
+	 *            whether the execution succeeded
+	 * @param executionMillis
+	 *            duration of the execution
+	 * @return this shard after its execution
+	 */
+	public ShardState finished(boolean success, long executionMillis) {
+		return new ShardState(success ? Status.DONE : Status.FAILED, this.memberUuid, this.attempts, executionMillis);
+	}
+
+	/**
+	 * Status of a shard.
+	 */
+	public enum Status {
+		PENDING, RUNNING, DONE, FAILED
+	}
+}
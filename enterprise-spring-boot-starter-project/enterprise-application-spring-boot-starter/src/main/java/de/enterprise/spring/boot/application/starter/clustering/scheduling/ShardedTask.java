@@ -0,0 +1,38 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Task whose work is split into shards executed in parallel by all cluster members, see {@link ShardedTaskExecutor}.
+ * <p>
+ * Implementations must be Spring beans on all members, so every member can execute shards of the task.
+ *
+ * @author Malte Geßner
+ *
+ */
+public interface ShardedTask {
+
+	/**
+	 * @return name of the task, the same on all cluster members
+	 */
+	default String getTaskName() {
+		return ClassUtils.getUserClass(this).getSimpleName();
+	}
+
+	/**
+	 * @return number of shards the work is split into
+	 */
+	int getShardCount();
+
+	/**
+	 * Executes one shard of the work, e.g. all records with <code>id % shardCount == shard</code>.
+	 *
+	 * @param shard
+	 *            number of the shard, from <code>0</code> to <code>shardCount - 1</code>
+	 * @param shardCount
+	 *            number of shards
+	 * @throws Exception
+	 *             if the shard failed and should be retried
+	 */
+	void executeShard(int shard, int shardCount) throws Exception;
+}
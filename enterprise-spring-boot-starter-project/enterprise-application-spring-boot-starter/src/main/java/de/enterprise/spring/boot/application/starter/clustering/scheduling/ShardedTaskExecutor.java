@@ -0,0 +1,290 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.IQueue;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.Message;
+import com.hazelcast.core.MessageListener;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executes {@link ShardedTask}s in parallel on all cluster members.
+ * <p>
+ * The member calling {@link #execute(ShardedTask)}, usually the one executing a <code>@Scheduled</code> method, coordinates the run: it
+ * puts the shard numbers into a queue and announces the run on the topic {@value #TOPIC_NAME}. Each member claims shards from the queue
+ * with {@link TaskSchedulingProperties.Sharding#getParallelism()} threads and records their state in the map {@value #SHARD_MAP_NAME}.
+ * The coordinator waits until all shards are done, failed shards and shards of members which left the cluster are put into the queue
+ * again up to {@link TaskSchedulingProperties.Sharding#getMaxAttempts()} attempts.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Slf4j
+public class ShardedTaskExecutor implements MessageListener<ShardedTaskRun> {
+
+	/**
+	 * Name of the topic announcing runs with open shards.
+	 */
+	public static final String TOPIC_NAME = "sharded-tasks";
+	/**
+	 * Name of the map of the shard states.
+	 */
+	public static final String SHARD_MAP_NAME = "sharded-task-shards";
+
+	private static final String QUEUE_NAME_PREFIX = "sharded-task-";
+
+	private final HazelcastInstance hazelcastInstance;
+	private final ScheduledTaskExecutionProtocol scheduledTaskExecutionProtocol;
+	private final TaskSchedulingProperties.Sharding properties;
+	private final ObjectProvider<ShardedTask> shardedTaskProvider;
+
+	private volatile Map<String, ShardedTask> shardedTasks;
+	private ExecutorService workers;
+	private String messageListenerId;
+
+	public ShardedTaskExecutor(HazelcastInstance hazelcastInstance, ScheduledTaskExecutionProtocol scheduledTaskExecutionProtocol,
+			TaskSchedulingProperties.Sharding properties, ObjectProvider<ShardedTask> shardedTaskProvider) {
+		this.hazelcastInstance = hazelcastInstance;
+		this.scheduledTaskExecutionProtocol = scheduledTaskExecutionProtocol;
+		this.properties = properties;
+		this.shardedTaskProvider = shardedTaskProvider;
+	}
+
+	/**
+	 * Starts listening for runs of other members.
+	 */
+	public synchronized void start() {
+		if (this.workers != null) {
+			return;
+		}
+		this.workers = Executors.newFixedThreadPool(this.properties.getParallelism(), new CustomizableThreadFactory("sharded-task-"));
+		this.messageListenerId = this.topic().addMessageListener(this);
+	}
+
+	/**
+	 * Stops claiming shards, shards currently executed by this member are put into the queue again by the coordinator.
+	 */
+	public synchronized void shutdown() {
+		if (this.workers == null) {
+			return;
+		}
+		try {
+			this.topic().removeMessageListener(this.messageListenerId);
+		} catch (RuntimeException e) {
+			log.debug("removing sharded task listener failed", e);
+		}
+		this.workers.shutdownNow();
+		this.workers = null;
+	}
+
+	/**
+	 * Executes all shards of a task on the cluster members and waits for their completion.
+	 *
+	 * @param shardedTask
+	 *            the task
+	 * @throws IllegalStateException
+	 *             if shards failed after all attempts or the run timed out
+	 */
+	public void execute(ShardedTask shardedTask) {
+		String taskName = shardedTask.getTaskName();
+		int shardCount = shardedTask.getShardCount();
+		ShardedTaskRun run = new ShardedTaskRun(taskName, taskName + "-" + UUID.randomUUID(), shardCount);
+		IMap<String, ShardState> shards = this.shards();
+		IQueue<Integer> queue = this.queue(run.getRunId());
+		Set<String> shardKeys = IntStream.range(0, shardCount).mapToObj(shard -> shardKey(run.getRunId(), shard))
+				.collect(Collectors.toSet());
+		try {
+			for (int shard = 0; shard < shardCount; shard++) {
+				shards.set(shardKey(run.getRunId(), shard), ShardState.pending());
+				queue.offer(shard);
+			}
+			this.topic().publish(run);
+			this.awaitShards(run, shardKeys);
+		} finally {
+			// states first, workers stop polling the queue when they are gone
+			shardKeys.forEach(shards::delete);
+			queue.destroy();
+		}
+	}
+
+	@Override
+	public void onMessage(Message<ShardedTaskRun> message) {
+		ShardedTaskRun run = message.getMessageObject();
+		ShardedTask shardedTask = this.shardedTasks().get(run.getTaskName());
+		ExecutorService currentWorkers = this.workers;
+		if (shardedTask == null || currentWorkers == null) {
+			log.debug("ignoring sharded task run <{}>", run);
+			return;
+		}
+		for (int i = 0; i < this.properties.getParallelism(); i++) {
+			currentWorkers.execute(() -> this.claimShards(run, shardedTask));
+		}
+	}
+
+	private void awaitShards(ShardedTaskRun run, Set<String> shardKeys) {
+		IMap<String, ShardState> shards = this.shards();
+		long deadline = System.currentTimeMillis() + this.properties.getTimeout().toMillis();
+		while (true) {
+			try {
+				Thread.sleep(this.properties.getCheckInterval().toMillis());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("waiting for shards of task <" + run.getTaskName() + "> interrupted", e);
+			}
+			Map<String, ShardState> states = shards.getAll(shardKeys);
+			Set<String> memberUuids = this.hazelcastInstance.getCluster().getMembers().stream().map(Member::getUuid).collect(Collectors.toSet());
+			int open = 0;
+			int failed = 0;
+			boolean requeued = false;
+			for (Map.Entry<String, ShardState> entry : states.entrySet()) {
+				ShardState state = entry.getValue();
+				if (state.getStatus() == ShardState.Status.DONE) {
+					continue;
+				}
+				boolean retry = state.getStatus() == ShardState.Status.FAILED && state.getAttempts() < this.properties.getMaxAttempts();
+				boolean orphaned = state.getStatus() == ShardState.Status.RUNNING && !memberUuids.contains(state.getMemberUuid());
+				if (retry || orphaned) {
+					requeued |= this.requeue(run, entry.getKey(), state);
+					open++;
+				} else if (state.getStatus() == ShardState.Status.FAILED) {
+					failed++;
+				} else {
+					open++;
+				}
+			}
+			if (requeued) {
+				this.topic().publish(run);
+			}
+			if (open == 0) {
+				this.scheduledTaskExecutionProtocol.finishedShards(run.getTaskName(), durationsByShard(run, states));
+				if (failed > 0) {
+					throw new IllegalStateException(failed + " of " + run.getShardCount() + " shards of task <" + run.getTaskName() + "> failed");
+				}
+				return;
+			}
+			if (System.currentTimeMillis() > deadline) {
+				throw new IllegalStateException(open + " of " + run.getShardCount() + " shards of task <" + run.getTaskName()
+						+ "> not finished within " + this.properties.getTimeout());
+			}
+		}
+	}
+
+	private boolean requeue(ShardedTaskRun run, String shardKey, ShardState state) {
+		if (!this.shards().replace(shardKey, state, state.requeued())) {
+			return false;
+		}
+		int shard = Integer.parseInt(shardKey.substring(shardKey.lastIndexOf('-') + 1));
+		log.info("retrying shard {} of task <{}> after attempt {}", shard, run.getTaskName(), state.getAttempts());
+		this.queue(run.getRunId()).offer(shard);
+		return true;
+	}
+
+	private void claimShards(ShardedTaskRun run, ShardedTask shardedTask) {
+		IMap<String, ShardState> shards = this.shards();
+		IQueue<Integer> queue = this.queue(run.getRunId());
+		String memberUuid = this.hazelcastInstance.getCluster().getLocalMember().getUuid();
+		Integer shard = this.nextShard(run, queue);
+		while (shard != null && !Thread.currentThread().isInterrupted()) {
+			String shardKey = shardKey(run.getRunId(), shard);
+			ShardState pending = shards.get(shardKey);
+			if (pending == null) {
+				// run already finished
+				return;
+			}
+			ShardState claimed = pending.running(memberUuid);
+			// only one member claims a shard, even if it was put into the queue twice
+			if (pending.getStatus() == ShardState.Status.PENDING && shards.replace(shardKey, pending, claimed)) {
+				this.executeShard(run, shardedTask, shard, claimed);
+			}
+			shard = this.nextShard(run, queue);
+		}
+	}
+
+	private void executeShard(ShardedTaskRun run, ShardedTask shardedTask, int shard, ShardState claimed) {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			shardedTask.executeShard(shard, run.getShardCount());
+			success = true;
+		} catch (Exception e) {
+			log.warn("shard {} of task <{}> failed in attempt {}", shard, run.getTaskName(), claimed.getAttempts(), e);
+		}
+		Duration duration = Duration.ofNanos(System.nanoTime() - start);
+		this.scheduledTaskExecutionProtocol.shardExecuted(run.getTaskName(), shard, duration, success);
+		// neither recreates the state of a finished run nor overwrites a shard requeued by the coordinator
+		if (!this.shards().replace(shardKey(run.getRunId(), shard), claimed, claimed.finished(success, duration.toMillis()))) {
+			log.info("result of shard {} of task <{}> discarded, the shard was requeued or the run finished", shard, run.getTaskName());
+		}
+	}
+
+	private Integer nextShard(ShardedTaskRun run, IQueue<Integer> queue) {
+		// the coordinator deletes the shard states before it destroys the queue, polling a destroyed queue would create it again
+		if (!this.isRunning(run)) {
+			return null;
+		}
+		Integer shard = queue.poll();
+		if (shard == null && !this.isRunning(run)) {
+			// destroyed while polling
+			queue.destroy();
+		}
+		return shard;
+	}
+
+	private boolean isRunning(ShardedTaskRun run) {
+		return run.getShardCount() > 0 && this.shards().containsKey(shardKey(run.getRunId(), 0));
+	}
+
+	private Map<String, ShardedTask> shardedTasks() {
+		// resolved lazily as sharded tasks depend on this executor
+		if (this.shardedTasks == null) {
+			this.shardedTasks = Collections.unmodifiableMap(
+					this.shardedTaskProvider.orderedStream().collect(Collectors.toMap(ShardedTask::getTaskName, Function.identity())));
+		}
+		return this.shardedTasks;
+	}
+
+	private ITopic<ShardedTaskRun> topic() {
+		return this.hazelcastInstance.getTopic(TOPIC_NAME);
+	}
+
+	private IMap<String, ShardState> shards() {
+		return this.hazelcastInstance.getMap(SHARD_MAP_NAME);
+	}
+
+	private IQueue<Integer> queue(String runId) {
+		return this.hazelcastInstance.getQueue(QUEUE_NAME_PREFIX + runId);
+	}
+
+	private static String shardKey(String runId, int shard) {
+		return runId + "-" + shard;
+	}
+
+	private static Map<Integer, Long> durationsByShard(ShardedTaskRun run, Map<String, ShardState> states) {
+		Map<Integer, Long> durations = new TreeMap<>();
+		for (int shard = 0; shard < run.getShardCount(); shard++) {
+			ShardState state = states.get(shardKey(run.getRunId(), shard));
+			if (state != null) {
+				durations.put(shard, state.getDurationMillis());
+			}
+		}
+		return durations;
+	}
+}
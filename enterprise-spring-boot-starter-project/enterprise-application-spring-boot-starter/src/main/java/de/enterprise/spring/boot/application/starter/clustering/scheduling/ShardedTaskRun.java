@@ -0,0 +1,25 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published to all cluster members when shards of a run of a {@link ShardedTask} are open.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ShardedTaskRun implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String taskName;
+	private final String runId;
+	private final int shardCount;
+}
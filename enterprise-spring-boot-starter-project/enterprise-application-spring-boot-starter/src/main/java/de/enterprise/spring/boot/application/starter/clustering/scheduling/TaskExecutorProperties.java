@@ -0,0 +1,75 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.time.Duration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.validation.annotation.Validated;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Config values of the application task executor used for <code>@Async</code> methods.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Getter
+@Setter
+@Validated
+public class TaskExecutorProperties {
+
+	@Min(1)
+	private int corePoolSize = 10;
+	/**
+	 * Maximum number of threads, threads above the core pool size are only started if the queue is full.
+	 */
+	@Min(1)
+	private int maxPoolSize = 20;
+	/**
+	 * Number of queued tasks before further threads are started, the rejection policy applies if the queue is full and all threads are
+	 * busy.
+	 */
+	@Min(0)
+	private int queueCapacity = 500;
+	@NotNull
+	private TaskRejectionPolicy rejectionPolicy = TaskRejectionPolicy.CALLER_RUNS;
+	/**
+	 * Idle time after which threads above the core pool size are stopped.
+	 */
+	@NotNull
+	private Duration keepAlive = Duration.ofSeconds(60);
+	private boolean allowCoreThreadTimeOut;
+	@NotNull
+	private String threadNamePrefix = "task-";
+	@NotNull
+	private Duration awaitTermination = Duration.ofSeconds(60);
+	@Valid
+	@NotNull
+	private Adaptive adaptive = new Adaptive();
+
+	/**
+	 * Adapts the core pool size between the configured core and max pool size to the time tasks wait in the queue.
+	 *
+	 * @author Malte Geßner
+	 *
+	 */
+	@Getter
+	@Setter
+	public static class Adaptive {
+		private boolean enabled;
+		/**
+		 * Average queue wait time above which the core pool size grows by one thread, it shrinks below half of it.
+		 */
+		@NotNull
+		private Duration targetQueueLatency = Duration.ofMillis(50);
+		/**
+		 * Minimum time between two adaptations of the core pool size.
+		 */
+		@NotNull
+		private Duration checkInterval = Duration.ofSeconds(10);
+	}
+}
@@ -0,0 +1,226 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MemberAttributeEvent;
+import com.hazelcast.core.MembershipEvent;
+import com.hazelcast.core.MembershipListener;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Manages time bounded leases of scheduled tasks, the member holding the lease of a task is its only executor.
+ * <p>
+ * Leases are stored in the map {@value #LEASE_MAP_NAME} as <code>memberUuid|expirationTime</code> and are acquired and renewed by
+ * compare-and-set on a background thread, so a task execution only checks the local lease state. Expiration times use the cluster time. A
+ * member considers a lease valid until one renew interval before its expiration, so it stops executing before another member can take
+ * the lease over. Leases of a removed member are released immediately, leases of an unresponsive member after their expiration.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Slf4j
+public class TaskLeaseManager implements MembershipListener {
+
+	/**
+	 * Name of the map of the leases.
+	 */
+	public static final String LEASE_MAP_NAME = "scheduling-leases";
+
+	private static final char SEPARATOR = '|';
+
+	private final HazelcastInstance hazelcastInstance;
+	private final String memberUuid;
+	private final long leaseMillis;
+	private final long renewIntervalMillis;
+	// lease name -> cluster time until which this member may execute the task, 0 if not owner
+	private final Map<String, Long> ownedUntil = new ConcurrentHashMap<>();
+	// lease name -> lease value written by this member
+	private final Map<String, String> ownLeases = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService renewer;
+	private String membershipListenerId;
+
+	public TaskLeaseManager(HazelcastInstance hazelcastInstance, Duration leaseDuration, Duration renewInterval) {
+		this(hazelcastInstance, hazelcastInstance.getCluster().getLocalMember().getUuid(), leaseDuration, renewInterval);
+	}
+
+	TaskLeaseManager(HazelcastInstance hazelcastInstance, String memberUuid, Duration leaseDuration, Duration renewInterval) {
+		Assert.isTrue(leaseDuration.compareTo(renewInterval.multipliedBy(2)) >= 0,
+				"leaseDuration must be at least twice the leaseRenewInterval");
+		this.hazelcastInstance = hazelcastInstance;
+		this.memberUuid = memberUuid;
+		this.leaseMillis = leaseDuration.toMillis();
+		this.renewIntervalMillis = renewInterval.toMillis();
+	}
+
+	/**
+	 * Registers a lease and tries to acquire it, leases are renewed after the first registration.
+	 *
+	 * @param leaseName
+	 *            name of the lease, e.g. the task name
+	 */
+	public void register(String leaseName) {
+		if (this.ownedUntil.putIfAbsent(leaseName, 0L) == null) {
+			this.start();
+			this.renew(leaseName);
+		}
+	}
+
+	/**
+	 * Checks the local lease state.
+	 *
+	 * @param leaseName
+	 *            name of the lease
+	 * @return <code>true</code> if this member holds the lease
+	 */
+	public boolean isOwner(String leaseName) {
+		return this.ownedUntil.getOrDefault(leaseName, 0L) > this.clusterTime();
+	}
+
+	/**
+	 * Reads the current holder of a lease from the cluster.
+	 *
+	 * @param leaseName
+	 *            name of the lease
+	 * @return address of the member holding the lease, its uuid if it left the cluster or <code>null</code> if the lease is free or expired
+	 */
+	public String getOwner(String leaseName) {
+		String lease = this.leases().get(leaseName);
+		if (lease == null || expirationTime(lease) < this.clusterTime()) {
+			return null;
+		}
+		String ownerUuid = lease.substring(0, lease.lastIndexOf(SEPARATOR));
+		return this.hazelcastInstance.getCluster().getMembers().stream().filter(member -> member.getUuid().equals(ownerUuid))
+				.map(member -> member.getAddress().toString()).findFirst().orElse(ownerUuid);
+	}
+
+	/**
+	 * Acquires free or expired leases and renews the own ones.
+	 */
+	public void renewLeases() {
+		for (String leaseName : this.ownedUntil.keySet()) {
+			try {
+				this.renew(leaseName);
+			} catch (RuntimeException e) {
+				log.warn("renewing task lease <{}> failed", leaseName, e);
+			}
+		}
+	}
+
+	/**
+	 * Stops renewing and releases the own leases, so other members take them over immediately.
+	 */
+	public synchronized void shutdown() {
+		if (this.renewer == null) {
+			return;
+		}
+		this.renewer.shutdownNow();
+		try {
+			this.hazelcastInstance.getCluster().removeMembershipListener(this.membershipListenerId);
+			this.ownLeases.forEach((leaseName, lease) -> this.leases().remove(leaseName, lease));
+		} catch (RuntimeException e) {
+			log.debug("releasing task leases failed", e);
+		}
+		this.ownLeases.clear();
+		this.ownedUntil.replaceAll((leaseName, until) -> 0L);
+		this.renewer = null;
+	}
+
+	@Override
+	public void memberRemoved(MembershipEvent membershipEvent) {
+		String removedMemberUuid = membershipEvent.getMember().getUuid();
+		ScheduledExecutorService currentRenewer = this.renewer;
+		if (currentRenewer != null) {
+			currentRenewer.execute(() -> this.takeOverLeases(removedMemberUuid));
+		}
+	}
+
+	@Override
+	public void memberAdded(MembershipEvent membershipEvent) {
+		// new members acquire free leases only
+	}
+
+	@Override
+	public void memberAttributeChanged(MemberAttributeEvent memberAttributeEvent) {
+		// not relevant
+	}
+
+	private synchronized void start() {
+		if (this.renewer != null) {
+			return;
+		}
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("task-lease-");
+		threadFactory.setDaemon(true);
+		this.renewer = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		this.renewer.scheduleWithFixedDelay(this::renewLeases, this.renewIntervalMillis, this.renewIntervalMillis, TimeUnit.MILLISECONDS);
+		this.membershipListenerId = this.hazelcastInstance.getCluster().addMembershipListener(this);
+	}
+
+	private synchronized void renew(String leaseName) {
+		long now = this.clusterTime();
+		String lease = this.memberUuid + SEPARATOR + (now + this.leaseMillis);
+		IMap<String, String> leases = this.leases();
+		String ownLease = this.ownLeases.get(leaseName);
+		boolean acquired = ownLease != null && leases.replace(leaseName, ownLease, lease);
+		if (!acquired) {
+			String existing = leases.putIfAbsent(leaseName, lease);
+			if (existing == null) {
+				acquired = true;
+			} else if (expirationTime(existing) < now) {
+				// the owner did not renew the lease in time
+				acquired = leases.replace(leaseName, existing, lease);
+			}
+		}
+		if (acquired) {
+			if (ownLease == null) {
+				log.info("acquired task lease <{}>", leaseName);
+			}
+			this.ownLeases.put(leaseName, lease);
+			this.ownedUntil.put(leaseName, now + this.leaseMillis - this.renewIntervalMillis);
+		} else {
+			if (ownLease != null) {
+				log.warn("lost task lease <{}>", leaseName);
+			}
+			this.ownLeases.remove(leaseName);
+			this.ownedUntil.put(leaseName, 0L);
+		}
+	}
+
+	private void takeOverLeases(String removedMemberUuid) {
+		IMap<String, String> leases = this.leases();
+		for (String leaseName : this.ownedUntil.keySet()) {
+			try {
+				String lease = leases.get(leaseName);
+				if (lease != null && lease.startsWith(removedMemberUuid + SEPARATOR)) {
+					leases.remove(leaseName, lease);
+					this.renew(leaseName);
+				}
+			} catch (RuntimeException e) {
+				log.warn("taking over task lease <{}> failed", leaseName, e);
+			}
+		}
+	}
+
+	private IMap<String, String> leases() {
+		return this.hazelcastInstance.getMap(LEASE_MAP_NAME);
+	}
+
+	private long clusterTime() {
+		return this.hazelcastInstance.getCluster().getClusterTime();
+	}
+
+	private static long expirationTime(String lease) {
+		return Long.parseLong(lease.substring(lease.lastIndexOf(SEPARATOR) + 1));
+	}
+}
@@ -0,0 +1,61 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.util.Date;
+
+/**
+ * Decides which cluster member executes a scheduled execution of a task.
+ *
+ * @author Malte Geßner
+ *
+ */
+public interface TaskOwnership {
+
+	/**
+	 * Called on each member when the next execution of the task is scheduled.
+	 *
+	 * @param scheduledExecutionTime
+	 *            time of the next execution
+	 */
+	default void scheduled(Date scheduledExecutionTime) {
+		// nothing to do by default
+	}
+
+	/**
+	 * Called on each member at the scheduled execution time.
+	 *
+	 * @param scheduledExecutionTime
+	 *            scheduled time of the execution
+	 * @param actualExecutionTime
+	 *            current time
+	 * @return <code>true</code> if this member executes the task
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the cluster
+	 */
+	boolean acquire(Date scheduledExecutionTime, Date actualExecutionTime) throws InterruptedException;
+
+	/**
+	 * Executes the catch-up of missed executions if this member owns the task, so it does not overlap with a regular execution on another
+	 * member.
+	 *
+	 * @param catchUp
+	 *            handling of the missed executions
+	 * @return <code>true</code> if this member executed the catch-up
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the cluster
+	 */
+	boolean catchUpAsOwner(Runnable catchUp) throws InterruptedException;
+
+	/**
+	 * @return mode of this ownership
+	 */
+	TaskOwnershipMode getMode();
+
+	/**
+	 * Returns the member currently executing the task.
+	 *
+	 * @return address of the member or <code>null</code> if the member is chosen at each execution
+	 */
+	default String getOwner() {
+		return null;
+	}
+}
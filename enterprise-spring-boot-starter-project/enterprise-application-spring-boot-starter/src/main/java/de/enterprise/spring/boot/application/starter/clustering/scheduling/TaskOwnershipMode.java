@@ -0,0 +1,25 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+/**
+ * How the cluster member executing a scheduled task is chosen.
+ *
+ * @author Malte Geßner
+ *
+ */
+public enum TaskOwnershipMode {
+
+	/**
+	 * All members try to lock the task at each execution, see {@link LockTaskOwnership}.
+	 */
+	LOCK,
+
+	/**
+	 * One member holds a renewable lease of the task and executes all executions, see {@link LeaseTaskOwnership}.
+	 */
+	LEASE,
+
+	/**
+	 * The owner of the Hazelcast partition of the task name executes it, see {@link PartitionTaskOwnership}.
+	 */
+	PARTITION
+}
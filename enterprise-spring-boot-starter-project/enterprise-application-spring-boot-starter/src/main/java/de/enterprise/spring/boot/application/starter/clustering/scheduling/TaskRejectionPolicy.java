@@ -0,0 +1,51 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * What a task executor does with a new task if all threads are busy and the queue is full.
+ *
+ * @author Malte Geßner
+ *
+ */
+public enum TaskRejectionPolicy {
+
+	/**
+	 * Throws a {@link org.springframework.core.task.TaskRejectedException}.
+	 */
+	ABORT,
+
+	/**
+	 * Runs the task on the submitting thread, which slows down the producer.
+	 */
+	CALLER_RUNS,
+
+	/**
+	 * Drops the new task.
+	 */
+	DISCARD,
+
+	/**
+	 * Drops the oldest queued task and queues the new one.
+	 */
+	DISCARD_OLDEST;
+
+	/**
+	 * Creates the handler of this policy.
+	 *
+	 * @return rejected execution handler
+	 */
+	public RejectedExecutionHandler createHandler() {
+		switch (this) {
+		case CALLER_RUNS:
+			return new ThreadPoolExecutor.CallerRunsPolicy();
+		case DISCARD:
+			return new ThreadPoolExecutor.DiscardPolicy();
+		case DISCARD_OLDEST:
+			return new ThreadPoolExecutor.DiscardOldestPolicy();
+		default:
+			return new ThreadPoolExecutor.AbortPolicy();
+		}
+	}
+}
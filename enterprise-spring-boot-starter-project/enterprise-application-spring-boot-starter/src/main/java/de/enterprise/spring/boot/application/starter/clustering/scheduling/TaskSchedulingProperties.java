@@ -0,0 +1,141 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.validation.annotation.Validated;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Config values of the cluster coordination of scheduled tasks.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Getter
+@Setter
+@Validated
+public class TaskSchedulingProperties {
+
+	/**
+	 * Ownership mode of tasks without own config.
+	 */
+	@NotNull
+	private TaskOwnershipMode ownershipMode = TaskOwnershipMode.LOCK;
+	/**
+	 * Validity of a task lease, must be at least twice the renew interval.
+	 */
+	@NotNull
+	private Duration leaseDuration = Duration.ofSeconds(30);
+	@NotNull
+	private Duration leaseRenewInterval = Duration.ofSeconds(10);
+	/**
+	 * Misfire policy of tasks without own config.
+	 */
+	@NotNull
+	private MisfirePolicy misfirePolicy = MisfirePolicy.SKIP;
+	/**
+	 * Maximum number of missed executions executed by {@link MisfirePolicy#FIRE_ALL}.
+	 */
+	@Min(1)
+	private int maxMisfireExecutions = 10;
+	/**
+	 * Config per task name (<code>ClassName-methodName</code>).
+	 */
+	@Valid
+	private Map<String, TaskProperties> tasks = new HashMap<>();
+	@Valid
+	@NotNull
+	private Sharding sharding = new Sharding();
+
+	/**
+	 * Returns the ownership mode of a task.
+	 *
+	 * @param taskName
+	 *            name of the task
+	 * @return configured mode of the task or the default mode
+	 */
+	public TaskOwnershipMode ownershipModeOf(String taskName) {
+		TaskProperties taskProperties = this.tasks.get(taskName);
+		return taskProperties != null && taskProperties.getOwnershipMode() != null ? taskProperties.getOwnershipMode() : this.ownershipMode;
+	}
+
+	/**
+	 * Returns the misfire policy of a task.
+	 *
+	 * @param taskName
+	 *            name of the task
+	 * @return configured policy of the task or the default policy
+	 */
+	public MisfirePolicy misfirePolicyOf(String taskName) {
+		TaskProperties taskProperties = this.tasks.get(taskName);
+		return taskProperties != null && taskProperties.getMisfirePolicy() != null ? taskProperties.getMisfirePolicy() : this.misfirePolicy;
+	}
+
+	/**
+	 * Returns the name of the lease of a task.
+	 *
+	 * @param taskName
+	 *            name of the task
+	 * @return lease group of the task or the task name
+	 */
+	public String leaseNameOf(String taskName) {
+		TaskProperties taskProperties = this.tasks.get(taskName);
+		return taskProperties != null && taskProperties.getLeaseGroup() != null ? taskProperties.getLeaseGroup() : taskName;
+	}
+
+	/**
+	 * Config values of a single task.
+	 *
+	 * @author Malte Geßner
+	 *
+	 */
+	@Getter
+	@Setter
+	public static class TaskProperties {
+		private TaskOwnershipMode ownershipMode;
+		/**
+		 * Tasks of the same lease group share one lease and are executed by the same member.
+		 */
+		private String leaseGroup;
+		private MisfirePolicy misfirePolicy;
+	}
+
+	/**
+	 * Config values of the execution of {@link ShardedTask}s.
+	 *
+	 * @author Malte Geßner
+	 *
+	 */
+	@Getter
+	@Setter
+	public static class Sharding {
+		/**
+		 * Threads per member executing shards.
+		 */
+		@Min(1)
+		private int parallelism = 1;
+		/**
+		 * Executions of a shard before the run fails.
+		 */
+		@Min(1)
+		private int maxAttempts = 3;
+		/**
+		 * Maximum duration of a run.
+		 */
+		@NotNull
+		private Duration timeout = Duration.ofHours(6);
+		/**
+		 * Interval in which the coordinating member checks the shard states.
+		 */
+		@NotNull
+		private Duration checkInterval = Duration.ofSeconds(1);
+	}
+}
@@ -0,0 +1,37 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling.task;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import de.enterprise.spring.boot.application.starter.clustering.scheduling.ShardedTask;
+import de.enterprise.spring.boot.application.starter.clustering.scheduling.ShardedTaskExecutor;
+
+/**
+ * Base class of scheduled tasks whose work is executed in parallel by all cluster members. The <code>@Scheduled</code> method calls
+ * {@link #executeSharded()}, each member then executes shards by {@link #executeShard(int, int)}.
+ *
+ * @author Malte Geßner
+ *
+ */
+public abstract class AbstractShardedScheduledTask implements ShardedTask {
+
+	@Autowired
+	private ShardedTaskExecutor shardedTaskExecutor;
+
+	private final int shardCount;
+
+	protected AbstractShardedScheduledTask(int shardCount) {
+		this.shardCount = shardCount;
+	}
+
+	@Override
+	public int getShardCount() {
+		return this.shardCount;
+	}
+
+	/**
+	 * Executes all shards on the cluster members and waits for their completion.
+	 */
+	protected void executeSharded() {
+		this.shardedTaskExecutor.execute(this);
+	}
+}
@@ -1,10 +1,17 @@
 package de.enterprise.spring.boot.application.starter.httpclient;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
 import java.net.URI;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.web.client.RequestCallback;
@@ -12,14 +19,28 @@ import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.Value;
+
 /**
  * Extends standard RestTemplate with extra methods for putForEntity calls.
+ * <p>
+ * If a {@link RequestCoalescer} is set, concurrent identical GET and HEAD requests share one call and its deserialized result. Requests
+ * are identical if method, URI, response type, result kind (object or entity) and all headers set by the request callback are equal. Only
+ * requests of the methods with a response type (<code>getForObject</code>, <code>getForEntity</code>, <code>exchange</code>) are
+ * coalesced. The shared result must not be modified by the callers.
  * 
  * @author Malte Geßner
  *
  */
 public class ExtendedRestTemplate extends RestTemplate {
 
+	@Getter
+	@Setter
+	private RequestCoalescer requestCoalescer;
+
 	// PUT
 	public <T> ResponseEntity<T> putForEntity(String url, @Nullable Object request,
 			Class<T> responseType, Object... uriVariables) throws RestClientException {
@@ -45,8 +66,121 @@ public class ExtendedRestTemplate extends RestTemplate {
 		return nonNull(execute(url, HttpMethod.PUT, requestCallback, responseExtractor));
 	}
 
+	@Override
+	public <T> RequestCallback acceptHeaderRequestCallback(Class<T> responseType) {
+		return new TypedRequestCallback(super.acceptHeaderRequestCallback(responseType), responseType);
+	}
+
+	@Override
+	public <T> RequestCallback httpEntityCallback(@Nullable Object requestBody, Type responseType) {
+		return new TypedRequestCallback(super.httpEntityCallback(requestBody, responseType), responseType);
+	}
+
+	@Override
+	protected <T> T doExecute(URI url, @Nullable HttpMethod method, @Nullable RequestCallback requestCallback,
+			@Nullable ResponseExtractor<T> responseExtractor) throws RestClientException {
+		RequestCoalescer coalescer = this.requestCoalescer;
+		if (coalescer == null || method != HttpMethod.GET && method != HttpMethod.HEAD
+				|| !(requestCallback instanceof TypedRequestCallback) || responseExtractor == null) {
+			return super.doExecute(url, method, requestCallback, responseExtractor);
+		}
+		CoalescingKey key = createCoalescingKey(url, method, (TypedRequestCallback) requestCallback, responseExtractor);
+		if (key == null) {
+			return super.doExecute(url, method, requestCallback, responseExtractor);
+		}
+		return coalescer.execute(key, () -> super.doExecute(url, method, requestCallback, responseExtractor));
+	}
+
+	private static CoalescingKey createCoalescingKey(URI url, HttpMethod method, TypedRequestCallback requestCallback,
+			ResponseExtractor<?> responseExtractor) {
+		// apply the callback to a detached request to find out which headers and body it sets
+		DetachedClientHttpRequest detachedRequest = new DetachedClientHttpRequest(method, url);
+		try {
+			requestCallback.doWithRequest(detachedRequest);
+		} catch (IOException e) {
+			return null;
+		}
+		if (detachedRequest.getBodySize() > 0) {
+			return null;
+		}
+		return new CoalescingKey(method, url, requestCallback.getResponseType(), responseExtractor.getClass(),
+				detachedRequest.getHeaders());
+	}
+
 	private static <T> T nonNull(@Nullable T result) {
 		Assert.state(result != null, "No result");
 		return result;
 	}
+
+	/**
+	 * Request callback which keeps the response type of the request.
+	 */
+	@RequiredArgsConstructor
+	private static class TypedRequestCallback implements RequestCallback {
+		private final RequestCallback delegate;
+		@Getter
+		private final Type responseType;
+
+		@Override
+		public void doWithRequest(ClientHttpRequest request) throws IOException {
+			this.delegate.doWithRequest(request);
+		}
+	}
+
+	/**
+	 * Identifies identical requests.
+	 */
+	@Value
+	private static class CoalescingKey {
+		private final HttpMethod method;
+		private final URI url;
+		private final Type responseType;
+		private final Class<?> responseExtractorType;
+		private final HttpHeaders headers;
+	}
+
+	/**
+	 * Request which is never executed, only collects headers and body written by a request callback.
+	 */
+	@RequiredArgsConstructor
+	private static class DetachedClientHttpRequest implements ClientHttpRequest {
+		private final HttpMethod method;
+		private final URI uri;
+		private final HttpHeaders headers = new HttpHeaders();
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+		@Override
+		public HttpMethod getMethod() {
+			return this.method;
+		}
+
+		@Override
+		public String getMethodValue() {
+			return this.method.name();
+		}
+
+		@Override
+		public URI getURI() {
+			return this.uri;
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+
+		@Override
+		public OutputStream getBody() {
+			return this.body;
+		}
+
+		int getBodySize() {
+			return this.body.size();
+		}
+
+		@Override
+		public ClientHttpResponse execute() {
+			throw new UnsupportedOperationException("detached request can't be executed");
+		}
+	}
 }
@@ -0,0 +1,22 @@
+package de.enterprise.spring.boot.application.starter.httpclient;
+
+import org.apache.http.client.cache.HttpCacheStorage;
+
+/**
+ * Provides a shared storage for the http response cache of a client, e.g. to share cached responses within a cluster. Used by
+ * {@link HttpClientConfig} if the cache storage {@link HttpClientConfig.HttpCache.StorageType#SHARED} is configured.
+ *
+ * @author Malte Geßner
+ *
+ */
+public interface HttpCacheStorageProvider {
+
+	/**
+	 * Returns the storage for the cached responses of a client.
+	 *
+	 * @param clientName
+	 *            name of the client
+	 * @return storage of the client
+	 */
+	HttpCacheStorage getStorage(String clientName);
+}
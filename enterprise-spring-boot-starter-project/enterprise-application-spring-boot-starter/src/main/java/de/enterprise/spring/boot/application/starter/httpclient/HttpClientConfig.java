@@ -1,28 +1,60 @@
 package de.enterprise.spring.boot.application.starter.httpclient;
 
+import java.io.IOException;
+import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.client.cache.CacheConfig;
+import org.apache.http.impl.client.cache.CachingHttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.BufferingClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.validation.annotation.Validated;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import de.enterprise.spring.boot.application.starter.actuate.rest.client.InstrumentedHttpClientConnectionManager;
 import de.enterprise.spring.boot.application.starter.logging.LoggingProperties;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Configuration parameters for http client configuration.
@@ -30,10 +62,11 @@ import lombok.Setter;
  * @author Malte Geßner
  *
  */
+@Slf4j
 @Getter
 @Setter
 @Validated
-public class HttpClientConfig {
+public class HttpClientConfig implements DisposableBean {
 
 	@Autowired(required = false)
 	@Setter(AccessLevel.PRIVATE)
@@ -47,12 +80,45 @@ public class HttpClientConfig {
 	@Setter(AccessLevel.PRIVATE)
 	protected LoggingProperties loggingProperties;
 
+	@Autowired(required = false)
+	@Setter(AccessLevel.PRIVATE)
+	protected MeterRegistry meterRegistry;
+
+	@Autowired(required = false)
+	@Setter(AccessLevel.PRIVATE)
+	protected CircuitBreakerRegistry circuitBreakerRegistry;
+
+	@Autowired(required = false)
+	@Setter(AccessLevel.PRIVATE)
+	protected RetryRegistry retryRegistry;
+
+	@Autowired(required = false)
+	@Setter(AccessLevel.PRIVATE)
+	protected BulkheadRegistry bulkheadRegistry;
+
+	@Autowired(required = false)
+	@Setter(AccessLevel.PRIVATE)
+	protected ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry;
+
+	@Autowired(required = false)
+	@Setter(AccessLevel.PRIVATE)
+	protected TimeLimiterRegistry timeLimiterRegistry;
+
+	@Autowired(required = false)
+	@Setter(AccessLevel.PRIVATE)
+	protected HttpCacheStorageProvider httpCacheStorageProvider;
+
 	/**
 	 * base address.
 	 */
 	@NotNull
 	protected String baseAddress;
 
+	/**
+	 * Name of the client used for metrics. Defaults to the host of the base address.
+	 */
+	protected String name;
+
 	/**
 	 * Set the timeout in milliseconds used when requesting a connection from the connection. A timeout value of 0 specifies an infinite
 	 * timeout.
@@ -79,29 +145,60 @@ public class HttpClientConfig {
 	@Valid
 	protected BasicAuth basicAuth;
 
+	@Valid
+	@NotNull
+	protected ConnectionPool connectionPool = new ConnectionPool();
+
+	@Valid
+	@NotNull
+	protected Resilience resilience = new Resilience();
+
+	@Valid
+	@NotNull
+	protected Coalescing coalescing = new Coalescing();
+
+	@Valid
+	@NotNull
+	protected HttpCache cache = new HttpCache();
+
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private final List<CloseableHttpClient> httpClients = new ArrayList<>();
+
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private ClientHttpRequestFactory sharedRequestFactory;
+
 	/**
 	 * Creates a new configured restTemplateBuilder instance with values from this config class. Given customizedMessageConverters replaced
-	 * all existing message converters.
+	 * all existing message converters. All rest templates of this config share one request factory and its connection pool.
 	 *
 	 * @param customizedMessageConverters
 	 *            Optional list of message converters to apply to the restTemplate
 	 * @return Configured RestTemplateBuilder instance
 	 */
 	public RestTemplateBuilder createPreConfiguredRestTemplateBuilder(HttpMessageConverter<?>... customizedMessageConverters) {
+		// the injected builder is the shared base of all rest templates, every call starts from it
+		RestTemplateBuilder builder = this.restTemplateBuilder;
 		if (this.getBasicAuth() != null) {
-			this.restTemplateBuilder = this.restTemplateBuilder.basicAuthentication(this.getBasicAuth().getUsername(),
+			builder = builder.basicAuthentication(this.getBasicAuth().getUsername(),
 					this.getBasicAuth().getPassword());
 		}
 
 		if (this.logDetailsEnabled != null && this.logDetailsEnabled
 				|| this.logDetailsEnabled == null && this.loggingProperties.isLogOutgoingRequestDetailsEnabled()) {
-			this.restTemplateBuilder = this.restTemplateBuilder
-					.requestFactory(() -> new BufferingClientHttpRequestFactory(new SimpleClientHttpRequestFactory()))
-					.additionalInterceptors(new RequestResponseLoggingInterceptor(this.loggingProperties));
+			DistributionSummary responseBodySize = null;
+			if (this.meterRegistry != null) {
+				responseBodySize = DistributionSummary.builder("http.client.response.body.size")
+						.description("size of response bodies read through logging rest templates").baseUnit(BaseUnits.BYTES)
+						.tag("client", this.getClientName()).register(this.meterRegistry);
+			}
+			builder = builder
+					.additionalInterceptors(new RequestResponseLoggingInterceptor(this.loggingProperties, responseBodySize));
 		}
 
 		if (customizedMessageConverters.length == 0) {
-			this.restTemplateBuilder = this.restTemplateBuilder.additionalCustomizers(restTemplate -> {
+			builder = builder.additionalCustomizers(restTemplate -> {
 				Set<Class<?>> uniqueMessageConverterTypes = new HashSet<>();
 
 				Iterator<HttpMessageConverter<?>> httpMessageConverterItr = restTemplate.getMessageConverters().iterator();
@@ -119,14 +216,334 @@ public class HttpClientConfig {
 				}
 			});
 		} else {
-			this.restTemplateBuilder = this.restTemplateBuilder.messageConverters(customizedMessageConverters);
+			builder = builder.messageConverters(customizedMessageConverters);
+		}
+
+		if (this.coalescing.isEnabled()) {
+			RequestCoalescer requestCoalescer = new RequestCoalescer(this.getClientName(), this.coalescing.getMaxWait());
+			if (this.meterRegistry != null) {
+				requestCoalescer.bindTo(this.meterRegistry);
+			}
+			builder = builder.additionalCustomizers(restTemplate -> {
+				if (restTemplate instanceof ExtendedRestTemplate) {
+					((ExtendedRestTemplate) restTemplate).setRequestCoalescer(requestCoalescer);
+				}
+			});
+		}
+
+		ClientHttpRequestInterceptor resilienceInterceptor = this.createResilienceInterceptor();
+		if (resilienceInterceptor != null) {
+			// added by a customizer to run after the interceptors of other customizers (e.g. tracing), retries skip following interceptors
+			builder = builder
+					.additionalCustomizers(restTemplate -> restTemplate.getInterceptors().add(resilienceInterceptor));
 		}
 
-		return this.restTemplateBuilder.rootUri(this.getBaseAddress())
+		ClientHttpRequestFactory requestFactory = this.getSharedRequestFactory();
+		return builder.requestFactory(() -> requestFactory)
+				.rootUri(this.getBaseAddress())
 				.setConnectTimeout(Duration.ofMillis(this.getConnectTimeout()))
 				.setReadTimeout(Duration.ofMillis(this.getReadTimeout()));
 	}
 
+	private synchronized ClientHttpRequestFactory getSharedRequestFactory() {
+		// the pool metrics are registered per client name, a second pool would report to the meters of the first one
+		if (this.sharedRequestFactory == null) {
+			this.sharedRequestFactory = this.createRequestFactory();
+		}
+		return this.sharedRequestFactory;
+	}
+
+	/**
+	 * Creates the request factory shared by the rest templates of this config, an Apache HttpClient with its own connection pool. If a
+	 * {@link MeterRegistry} is available, the pool state is published with the client name as tag, so only one request factory per client
+	 * name may be created.
+	 *
+	 * @return new request factory
+	 */
+	protected synchronized ClientHttpRequestFactory createRequestFactory() {
+		PoolingHttpClientConnectionManager connectionManager;
+		long timeToLive = this.connectionPool.getTimeToLive();
+		if (this.meterRegistry != null) {
+			InstrumentedHttpClientConnectionManager instrumentedConnectionManager = new InstrumentedHttpClientConnectionManager(
+					this.meterRegistry, timeToLive, TimeUnit.MILLISECONDS, this.getClientName());
+			instrumentedConnectionManager.setMaxRoutes(this.connectionPool.getMaxRouteMetrics());
+			connectionManager = instrumentedConnectionManager;
+		} else {
+			connectionManager = new PoolingHttpClientConnectionManager(timeToLive, TimeUnit.MILLISECONDS);
+		}
+		connectionManager.setMaxTotal(this.connectionPool.getMaxTotal());
+		connectionManager.setDefaultMaxPerRoute(this.connectionPool.getMaxPerRoute());
+
+		HttpClientBuilder httpClientBuilder = this.cache.isEnabled() ? this.createCachingHttpClientBuilder() : HttpClients.custom();
+		httpClientBuilder
+				.setConnectionManager(connectionManager)
+				.setKeepAliveStrategy(this.createKeepAliveStrategy())
+				.evictExpiredConnections();
+		if (this.connectionPool.getIdleTimeout() > 0) {
+			httpClientBuilder.evictIdleConnections(this.connectionPool.getIdleTimeout(), TimeUnit.MILLISECONDS);
+		}
+
+		CloseableHttpClient httpClient = httpClientBuilder.build();
+		// closing the client also shuts down its connection manager and eviction thread
+		this.httpClients.add(httpClient);
+		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+		requestFactory.setConnectionRequestTimeout(this.getConnectionRequestTimeout());
+		return requestFactory;
+	}
+
+	@Override
+	public synchronized void destroy() {
+		for (CloseableHttpClient httpClient : this.httpClients) {
+			try {
+				httpClient.close();
+			} catch (IOException e) {
+				log.warn("closing http client of {} failed", this.getClientName(), e);
+			}
+		}
+		this.httpClients.clear();
+		this.sharedRequestFactory = null;
+	}
+
+	private CachingHttpClientBuilder createCachingHttpClientBuilder() {
+		CachingHttpClientBuilder cachingHttpClientBuilder = new MeteredCachingHttpClientBuilder(this.meterRegistry, this.getClientName());
+		cachingHttpClientBuilder.setCacheConfig(CacheConfig.custom()
+				.setMaxCacheEntries(this.cache.getMaxEntries())
+				.setMaxObjectSize(this.cache.getMaxObjectSize())
+				.setSharedCache(this.cache.isSharedCache())
+				.build());
+		if (this.cache.getStorage() == HttpCache.StorageType.SHARED) {
+			if (this.httpCacheStorageProvider == null) {
+				throw new IllegalStateException("shared http cache storage configured for client " + this.getClientName()
+						+ ", but no HttpCacheStorageProvider available");
+			}
+			cachingHttpClientBuilder.setHttpCacheStorage(this.httpCacheStorageProvider.getStorage(this.getClientName()));
+		}
+		return cachingHttpClientBuilder;
+	}
+
+	/**
+	 * Creates the interceptor protecting the rest template with the resilience4j instances configured in {@link #getResilience()}.
+	 *
+	 * @return new interceptor, or <code>null</code> if no instance is configured
+	 */
+	protected ClientHttpRequestInterceptor createResilienceInterceptor() {
+		if (!this.resilience.isConfigured()) {
+			return null;
+		}
+		return new ResilienceClientHttpRequestInterceptor(this.resolveCircuitBreaker(), this.resolveRetry(), this.resolveBulkhead(),
+				this.resolveThreadPoolBulkhead(), this.resolveTimeLimiter());
+	}
+
+	protected CircuitBreaker resolveCircuitBreaker() {
+		return resolve(this.resilience.getCircuitBreaker(), this.circuitBreakerRegistry, CircuitBreakerRegistry::circuitBreaker);
+	}
+
+	protected Retry resolveRetry() {
+		return resolve(this.resilience.getRetry(), this.retryRegistry, RetryRegistry::retry);
+	}
+
+	protected Bulkhead resolveBulkhead() {
+		return resolve(this.resilience.getBulkhead(), this.bulkheadRegistry, BulkheadRegistry::bulkhead);
+	}
+
+	protected ThreadPoolBulkhead resolveThreadPoolBulkhead() {
+		return resolve(this.resilience.getThreadPoolBulkhead(), this.threadPoolBulkheadRegistry, ThreadPoolBulkheadRegistry::bulkhead);
+	}
+
+	protected TimeLimiter resolveTimeLimiter() {
+		return resolve(this.resilience.getTimeLimiter(), this.timeLimiterRegistry, TimeLimiterRegistry::timeLimiter);
+	}
+
+	private static <R, T> T resolve(String instanceName, R registry, BiFunction<R, String, T> lookup) {
+		if (StringUtils.isBlank(instanceName)) {
+			return null;
+		}
+		if (registry == null) {
+			throw new IllegalStateException("no resilience4j registry available for instance " + instanceName);
+		}
+		return lookup.apply(registry, instanceName);
+	}
+
+	private ConnectionKeepAliveStrategy createKeepAliveStrategy() {
+		long maxKeepAlive = this.connectionPool.getKeepAlive();
+		if (maxKeepAlive <= 0) {
+			return DefaultConnectionKeepAliveStrategy.INSTANCE;
+		}
+		return (response, context) -> {
+			long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return serverKeepAlive > 0 ? Math.min(serverKeepAlive, maxKeepAlive) : maxKeepAlive;
+		};
+	}
+
+	/**
+	 * Returns the configured name or the host of the base address.
+	 *
+	 * @return name of the client for metrics
+	 */
+	public String getClientName() {
+		if (StringUtils.isNotBlank(this.name)) {
+			return this.name;
+		}
+		String host = null;
+		if (this.baseAddress != null) {
+			try {
+				host = URI.create(this.baseAddress).getHost();
+			} catch (IllegalArgumentException e) {
+				host = null;
+			}
+		}
+		return StringUtils.defaultIfBlank(host, "default");
+	}
+
+	/**
+	 * Connection pool settings of the http client.
+	 *
+	 * @author Malte Geßner
+	 */
+	@Getter
+	@Setter
+	public static class ConnectionPool {
+		/**
+		 * Maximum number of connections of this client.
+		 */
+		@Min(1)
+		private int maxTotal = 50;
+		/**
+		 * Maximum number of connections per route (target host).
+		 */
+		@Min(1)
+		private int maxPerRoute = 20;
+		/**
+		 * Maximum lifetime of a connection in milliseconds. A value of 0 or less specifies an infinite lifetime.
+		 */
+		private long timeToLive = -1;
+		/**
+		 * Time in milliseconds after which idle connections are closed by a background thread. A value of 0 or less disables the eviction.
+		 */
+		private long idleTimeout = 30 * 1000;
+		/**
+		 * Maximum time in milliseconds a connection is kept alive between requests. Used if the server does not send a keep-alive timeout,
+		 * a longer server value is capped. A value of 0 or less uses the server value, or keeps the connection alive indefinitely.
+		 */
+		private long keepAlive = -1;
+		/**
+		 * Maximum number of routes (target hosts) with own pool metrics. Metrics of routes without connections are removed when idle or
+		 * expired connections are evicted. 0 disables metrics per route.
+		 */
+		@Min(0)
+		private int maxRouteMetrics = 10;
+		/**
+		 * Maximum number of requests of web clients waiting for a connection, further requests fail immediately. A value of 0 or less uses
+		 * twice the maximum number of connections. Not used by rest templates.
+		 */
+		private int maxPendingAcquires = -1;
+	}
+
+	/**
+	 * Names of the resilience4j instances protecting the client. The instances are configured as usual with
+	 * <code>resilience4j.&lt;type&gt;.instances.&lt;name&gt;.*</code>, instances without configuration use the default configuration.
+	 *
+	 * @author Malte Geßner
+	 */
+	@Getter
+	@Setter
+	public static class Resilience {
+		/**
+		 * Name of the circuit breaker. Exceptions and responses with a 5xx status are recorded as failures.
+		 */
+		private String circuitBreaker;
+		/**
+		 * Name of the retry. Use <code>enable-exponential-backoff</code> and <code>enable-randomized-wait</code> of the instance for a
+		 * jittered backoff.
+		 */
+		private String retry;
+		/**
+		 * Name of the semaphore bulkhead limiting concurrent calls.
+		 */
+		private String bulkhead;
+		/**
+		 * Name of the thread pool bulkhead executing calls of rest templates on its own threads. Not used by web clients.
+		 */
+		private String threadPoolBulkhead;
+		/**
+		 * Name of the time limiter. Rest templates require a thread pool bulkhead in addition.
+		 */
+		private String timeLimiter;
+
+		public boolean isConfigured() {
+			return StringUtils.isNotBlank(this.circuitBreaker) || StringUtils.isNotBlank(this.retry) || StringUtils.isNotBlank(this.bulkhead)
+					|| StringUtils.isNotBlank(this.threadPoolBulkhead) || StringUtils.isNotBlank(this.timeLimiter);
+		}
+	}
+
+	/**
+	 * Client side http response cache honoring <code>Cache-Control</code>, <code>Expires</code>, <code>ETag</code> and
+	 * <code>Last-Modified</code> of the responses.
+	 *
+	 * @author Malte Geßner
+	 */
+	@Getter
+	@Setter
+	public static class HttpCache {
+		/**
+		 * Whether cacheable responses are cached.
+		 */
+		private boolean enabled;
+		/**
+		 * Storage of the cached responses.
+		 */
+		@NotNull
+		private StorageType storage = StorageType.MEMORY;
+		/**
+		 * Maximum number of cached responses in memory, the least recently used responses are evicted first. Not used by shared storages.
+		 */
+		@Min(1)
+		private int maxEntries = 1000;
+		/**
+		 * Maximum size in bytes of a cached response body, larger responses are not cached.
+		 */
+		@Min(1)
+		private long maxObjectSize = 64 * 1024;
+		/**
+		 * Whether the cache behaves like a shared cache, i.e. doesn't cache responses with <code>Cache-Control: private</code> or to
+		 * requests with authorization.
+		 */
+		private boolean sharedCache;
+
+		/**
+		 * Storage types of the http cache.
+		 */
+		public enum StorageType {
+			/**
+			 * Bounded in-memory storage of this client.
+			 */
+			MEMORY,
+			/**
+			 * Storage of the {@link HttpCacheStorageProvider} bean, e.g. a Hazelcast map shared within the cluster.
+			 */
+			SHARED
+		}
+	}
+
+	/**
+	 * Coalescing of concurrent identical GET requests of {@link ExtendedRestTemplate}s.
+	 *
+	 * @author Malte Geßner
+	 */
+	@Getter
+	@Setter
+	public static class Coalescing {
+		/**
+		 * Whether concurrent identical GET and HEAD requests share one call and its result.
+		 */
+		private boolean enabled;
+		/**
+		 * Maximum time in milliseconds a request waits for an identical request in flight before it is executed itself.
+		 */
+		@Min(0)
+		private long maxWait = 10 * 1000;
+	}
+
 	/**
 	 *
 	 * @author Jonas Keßler
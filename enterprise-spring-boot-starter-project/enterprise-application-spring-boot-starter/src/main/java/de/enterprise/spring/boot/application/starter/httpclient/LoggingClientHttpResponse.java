@@ -0,0 +1,154 @@
+package de.enterprise.spring.boot.application.starter.httpclient;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.function.Consumer;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Response wrapper which passes the body stream through to the caller and keeps a copy of the first bytes for logging. The body is neither
+ * buffered nor read ahead, so large responses are streamed as without logging. When the response is closed, the callback receives the
+ * wrapper to log the captured payload and the total number of bytes read.
+ *
+ * @author Malte Geßner
+ *
+ */
+class LoggingClientHttpResponse implements ClientHttpResponse {
+
+	private final ClientHttpResponse delegate;
+	private final byte[] capturedPayload;
+	private final Consumer<LoggingClientHttpResponse> closeCallback;
+
+	private int capturedLength;
+	private long totalLength;
+	private InputStream body;
+	private boolean closed;
+
+	LoggingClientHttpResponse(ClientHttpResponse delegate, int maxPayloadLength, Consumer<LoggingClientHttpResponse> closeCallback) {
+		this.delegate = delegate;
+		this.capturedPayload = new byte[Math.max(maxPayloadLength, 0)];
+		this.closeCallback = closeCallback;
+	}
+
+	@Override
+	public InputStream getBody() throws IOException {
+		if (this.body == null) {
+			this.body = new TeeInputStream(this.delegate.getBody());
+		}
+		return this.body;
+	}
+
+	@Override
+	public HttpHeaders getHeaders() {
+		return this.delegate.getHeaders();
+	}
+
+	@Override
+	public HttpStatus getStatusCode() throws IOException {
+		return this.delegate.getStatusCode();
+	}
+
+	@Override
+	public int getRawStatusCode() throws IOException {
+		return this.delegate.getRawStatusCode();
+	}
+
+	@Override
+	public String getStatusText() throws IOException {
+		return this.delegate.getStatusText();
+	}
+
+	@Override
+	public void close() {
+		if (!this.closed) {
+			this.closed = true;
+			try {
+				this.closeCallback.accept(this);
+			} finally {
+				this.delegate.close();
+			}
+		}
+	}
+
+	/**
+	 * Returns the captured beginning of the body.
+	 *
+	 * @param charset
+	 *            charset of the body
+	 * @return captured payload, or <code>null</code> if no bytes were read
+	 */
+	String getCapturedPayload(Charset charset) {
+		return this.capturedLength > 0 ? new String(this.capturedPayload, 0, this.capturedLength, charset) : null;
+	}
+
+	/**
+	 * Returns the number of body bytes read by the caller.
+	 *
+	 * @return number of bytes
+	 */
+	long getTotalLength() {
+		return this.totalLength;
+	}
+
+	private void capture(int value) {
+		if (this.capturedLength < this.capturedPayload.length) {
+			this.capturedPayload[this.capturedLength++] = (byte) value;
+		}
+		this.totalLength++;
+	}
+
+	private void capture(byte[] buffer, int offset, int length) {
+		int captureLength = Math.min(length, this.capturedPayload.length - this.capturedLength);
+		if (captureLength > 0) {
+			System.arraycopy(buffer, offset, this.capturedPayload, this.capturedLength, captureLength);
+			this.capturedLength += captureLength;
+		}
+		this.totalLength += length;
+	}
+
+	/**
+	 * Copies the passing bytes into the captured payload until it is full and counts all bytes.
+	 */
+	private class TeeInputStream extends FilterInputStream {
+
+		TeeInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int value = super.read();
+			if (value >= 0) {
+				LoggingClientHttpResponse.this.capture(value);
+			}
+			return value;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			int count = super.read(buffer, offset, length);
+			if (count > 0) {
+				LoggingClientHttpResponse.this.capture(buffer, offset, count);
+			}
+			return count;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			LoggingClientHttpResponse.this.totalLength += skipped;
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			// reset would count and capture bytes twice
+			return false;
+		}
+	}
+}
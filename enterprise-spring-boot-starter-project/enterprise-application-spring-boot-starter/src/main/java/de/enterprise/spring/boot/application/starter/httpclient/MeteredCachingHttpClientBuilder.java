@@ -0,0 +1,53 @@
+package de.enterprise.spring.boot.application.starter.httpclient;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.http.client.cache.CacheResponseStatus;
+import org.apache.http.client.cache.HttpCacheContext;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.impl.client.cache.CachingHttpClientBuilder;
+import org.apache.http.impl.execchain.ClientExecChain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caching http client builder which counts the requests per cache response status (hit, miss, validated, module response) of the cache.
+ *
+ * @author Malte Geßner
+ *
+ */
+class MeteredCachingHttpClientBuilder extends CachingHttpClientBuilder {
+
+	private final Map<CacheResponseStatus, Counter> requestCounters = new EnumMap<>(CacheResponseStatus.class);
+
+	MeteredCachingHttpClientBuilder(MeterRegistry meterRegistry, String clientName) {
+		if (meterRegistry != null) {
+			for (CacheResponseStatus status : CacheResponseStatus.values()) {
+				this.requestCounters.put(status, Counter.builder("http.client.cache.requests")
+						.description("outgoing requests by response status of the http cache")
+						.tag("client", clientName)
+						.tag("result", status.name().toLowerCase(Locale.ROOT).replace("cache_", "").replace('_', '-'))
+						.register(meterRegistry));
+			}
+		}
+	}
+
+	@Override
+	protected ClientExecChain decorateMainExec(ClientExecChain mainExec) {
+		ClientExecChain cachingExec = super.decorateMainExec(mainExec);
+		if (this.requestCounters.isEmpty()) {
+			return cachingExec;
+		}
+		return (route, request, context, execAware) -> {
+			CloseableHttpResponse response = cachingExec.execute(route, request, context, execAware);
+			CacheResponseStatus status = HttpCacheContext.adapt(context).getCacheResponseStatus();
+			if (status != null) {
+				this.requestCounters.get(status).increment();
+			}
+			return response;
+		};
+	}
+}
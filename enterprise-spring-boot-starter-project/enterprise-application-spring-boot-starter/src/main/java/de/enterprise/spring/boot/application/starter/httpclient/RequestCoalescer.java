@@ -0,0 +1,126 @@
+package de.enterprise.spring.boot.application.starter.httpclient;
+
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.web.client.ResourceAccessException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Lets concurrent identical calls share one execution (single flight). The first caller of a key executes the call, callers with the same
+ * key arriving while it is in flight wait for its result or exception instead of executing the call again.
+ * <p>
+ * Waiting callers give up after the maximum wait time and execute the call themselves. Executed, coalesced and timed out calls are counted
+ * and published as metric.
+ *
+ * @author Malte Geßner
+ *
+ */
+public class RequestCoalescer implements MeterBinder {
+
+	private final String clientName;
+	private final long maxWaitMillis;
+	private final Map<Object, CompletableFuture<Object>> inFlightCalls = new ConcurrentHashMap<>();
+
+	private final LongAdder executedCalls = new LongAdder();
+	private final LongAdder coalescedCalls = new LongAdder();
+	private final LongAdder timedOutCalls = new LongAdder();
+
+	/**
+	 * Creates the coalescer.
+	 *
+	 * @param clientName
+	 *            name of the client used as metric tag
+	 * @param maxWaitMillis
+	 *            maximum time in milliseconds to wait for a call in flight
+	 */
+	public RequestCoalescer(String clientName, long maxWaitMillis) {
+		this.clientName = clientName;
+		this.maxWaitMillis = maxWaitMillis;
+	}
+
+	/**
+	 * Executes the call, or waits for the result of an identical call already in flight.
+	 *
+	 * @param <T>
+	 *            result type
+	 * @param key
+	 *            key identifying identical calls, the result of a call is only shared with calls of an equal key
+	 * @param call
+	 *            call to execute
+	 * @return result of the call
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T execute(Object key, Supplier<T> call) {
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		CompletableFuture<Object> inFlightCall = this.inFlightCalls.putIfAbsent(key, future);
+		if (inFlightCall == null) {
+			this.executedCalls.increment();
+			try {
+				T result = call.get();
+				future.complete(result);
+				return result;
+			} catch (RuntimeException | Error e) {
+				future.completeExceptionally(e);
+				throw e;
+			} finally {
+				this.inFlightCalls.remove(key, future);
+			}
+		}
+
+		try {
+			T result = (T) inFlightCall.get(this.maxWaitMillis, TimeUnit.MILLISECONDS);
+			this.coalescedCalls.increment();
+			return result;
+		} catch (TimeoutException e) {
+			this.timedOutCalls.increment();
+			this.executedCalls.increment();
+			return call.get();
+		} catch (ExecutionException e) {
+			this.coalescedCalls.increment();
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw (RuntimeException) e.getCause();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ResourceAccessException("interrupted while waiting for coalesced call",
+					new InterruptedIOException(e.getMessage()));
+		}
+	}
+
+	public long getExecutedCalls() {
+		return this.executedCalls.sum();
+	}
+
+	public long getCoalescedCalls() {
+		return this.coalescedCalls.sum();
+	}
+
+	public long getTimedOutCalls() {
+		return this.timedOutCalls.sum();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registerCounter(registry, this.executedCalls, "executed");
+		this.registerCounter(registry, this.coalescedCalls, "coalesced");
+		this.registerCounter(registry, this.timedOutCalls, "timeout");
+	}
+
+	private void registerCounter(MeterRegistry registry, LongAdder calls, String result) {
+		FunctionCounter.builder("http.client.coalescing", calls, LongAdder::doubleValue)
+				.description("outgoing calls executed or answered by an identical call in flight (timeout: executed after waiting)")
+				.tag("client", this.clientName).tag("result", result).register(registry);
+	}
+}
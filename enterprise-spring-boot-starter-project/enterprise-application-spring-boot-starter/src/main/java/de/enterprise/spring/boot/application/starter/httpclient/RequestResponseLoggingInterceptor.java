@@ -3,44 +3,84 @@ package de.enterprise.spring.boot.application.starter.httpclient;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpRequest;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
-import org.springframework.util.StreamUtils;
 
 import de.enterprise.spring.boot.application.starter.logging.LoggingProperties;
-import lombok.RequiredArgsConstructor;
+import de.enterprise.spring.boot.application.starter.tracing.TracingUtils;
+import io.micrometer.core.instrument.DistributionSummary;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Logging interceptor for RestTemplates. Inspired by Scott Bock, see link below.
+ * <p>
+ * The response body is not buffered: it is streamed through to the caller while the first bytes are kept for logging, the response is
+ * logged when it is closed.
  *
  * @author Jonas Keßler
  *
  * @see <a href="https://objectpartners.com/2018/03/01/log-your-resttemplate-request-and-response-without-destroying-the-body/">link</a>
  */
 @Slf4j(topic = "request-logger-outbound")
-@RequiredArgsConstructor
 public class RequestResponseLoggingInterceptor implements ClientHttpRequestInterceptor {
 
 	private static final String VALUE_SEPARATOR = "; ";
 
 	private final LoggingProperties loggingProperties;
 
+	private final DistributionSummary responseBodySize;
+
+	public RequestResponseLoggingInterceptor(LoggingProperties loggingProperties) {
+		this(loggingProperties, null);
+	}
+
+	/**
+	 * Creates a new interceptor.
+	 *
+	 * @param loggingProperties
+	 *            logging config
+	 * @param responseBodySize
+	 *            optional metric for the number of response body bytes read, may be <code>null</code>
+	 */
+	public RequestResponseLoggingInterceptor(LoggingProperties loggingProperties, DistributionSummary responseBodySize) {
+		this.loggingProperties = loggingProperties;
+		this.responseBodySize = responseBodySize;
+	}
+
 	@Override
 	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
-		String requestUuid = UUID.randomUUID().toString();
+		String requestUuid = TracingUtils.generateId();
 		String requestDetails = logRequest(requestUuid, request, body);
 		ClientHttpResponse response = execution.execute(request, body);
-		logResponse(requestUuid, requestDetails, response);
-		return response;
+		if (!log.isInfoEnabled() && this.responseBodySize == null) {
+			return response;
+		}
+		int maxPayloadLength = log.isInfoEnabled() && this.loggingProperties.isLogOutgoingRequestWithPayload()
+				? this.loggingProperties.getLogOutgoingRequestMaxPayloadLength()
+				: 0;
+		return new LoggingClientHttpResponse(response, maxPayloadLength,
+				loggingResponse -> this.responseClosed(requestUuid, requestDetails, loggingResponse));
+	}
+
+	private void responseClosed(String requestUuid, String requestDetails, LoggingClientHttpResponse response) {
+		if (this.responseBodySize != null) {
+			this.responseBodySize.record(response.getTotalLength());
+		}
+		try {
+			logResponse(requestUuid, requestDetails, response);
+		} catch (IOException | IllegalArgumentException e) {
+			log.warn("logging response with requestUuid={} failed", requestUuid, e);
+		}
 	}
 
 	private String logRequest(String requestUuid, HttpRequest request, byte[] body) throws IOException {
@@ -59,7 +99,8 @@ public class RequestResponseLoggingInterceptor implements ClientHttpRequestInter
 				boolean multipartBody = request.getHeaders().getContentType() != null
 						&& "multipart".equals(request.getHeaders().getContentType().getType());
 				if (!multipartBody && body.length > 0) {
-					msg.append(VALUE_SEPARATOR).append("requestBody=").append(new String(body, "UTF-8"));
+					int length = Math.min(body.length, this.loggingProperties.getLogOutgoingRequestMaxPayloadLength());
+					msg.append(VALUE_SEPARATOR).append("requestBody=").append(new String(body, 0, length, StandardCharsets.UTF_8));
 				}
 			}
 			log.info(msg.toString());
@@ -67,7 +108,7 @@ public class RequestResponseLoggingInterceptor implements ClientHttpRequestInter
 		return requestdetails;
 	}
 
-	private void logResponse(String requestUuid, String requestDetails, ClientHttpResponse response) throws IOException {
+	private void logResponse(String requestUuid, String requestDetails, LoggingClientHttpResponse response) throws IOException {
 		if (log.isInfoEnabled()) {
 			StringBuilder msg = new StringBuilder();
 			msg.append("Incoming REST response with requestUuid=").append(requestUuid).append(VALUE_SEPARATOR)
@@ -76,7 +117,7 @@ public class RequestResponseLoggingInterceptor implements ClientHttpRequestInter
 					.append("statusText=").append(response.getStatusText()).append(VALUE_SEPARATOR)
 					.append("headers=").append(response.getHeaders());
 			if (this.loggingProperties.isLogOutgoingRequestWithPayload()) {
-				String responseBody = StreamUtils.copyToString(response.getBody(), Charset.defaultCharset());
+				String responseBody = response.getCapturedPayload(getCharset(response.getHeaders()));
 				if (!StringUtils.isBlank(responseBody)) {
 					msg.append(VALUE_SEPARATOR).append("responseBody=").append(responseBody);
 				}
@@ -85,6 +126,19 @@ public class RequestResponseLoggingInterceptor implements ClientHttpRequestInter
 		}
 	}
 
+	private static Charset getCharset(HttpHeaders headers) {
+		MediaType contentType;
+		try {
+			contentType = headers.getContentType();
+		} catch (InvalidMediaTypeException e) {
+			contentType = null;
+		}
+		if (contentType != null && contentType.getCharset() != null) {
+			return contentType.getCharset();
+		}
+		return Charset.defaultCharset();
+	}
+
 	/**
 	 * Creates a copy of the incoming headers object, replacing all sensitive headers with stars. If list of sensitive header keys is empty,
 	 * the original object is returned.
@@ -0,0 +1,197 @@
+package de.enterprise.spring.boot.application.starter.httpclient;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.HttpServerErrorException;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+
+/**
+ * Protects outgoing rest template calls with resilience4j. Each part is optional, they are applied in the order of the resilience4j
+ * annotations: retry, circuit breaker, time limiter, bulkhead.
+ * <ul>
+ * <li>the retry repeats failed calls and, if the retry has a result predicate, responses matching the predicate</li>
+ * <li>the circuit breaker records exceptions and responses with a 5xx status as failures</li>
+ * <li>the semaphore bulkhead limits the number of concurrent calls of the calling threads</li>
+ * <li>the thread pool bulkhead executes calls on its own threads, the time limiter is only possible in combination with it</li>
+ * </ul>
+ * Retries execute the request again without the interceptors following this one, so it has to be the last interceptor of the rest
+ * template. Failures of the time limiter are thrown as {@link IOException}, so they are handled like read timeouts.
+ *
+ * @author Malte Geßner
+ *
+ */
+public class ResilienceClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+	private static final Object ABANDONED = new Object();
+
+	private final CircuitBreaker circuitBreaker;
+	private final Retry retry;
+	private final Bulkhead bulkhead;
+	private final ThreadPoolBulkhead threadPoolBulkhead;
+	private final TimeLimiter timeLimiter;
+
+	/**
+	 * Creates the interceptor, each part may be <code>null</code>.
+	 *
+	 * @param circuitBreaker
+	 *            circuit breaker
+	 * @param retry
+	 *            retry
+	 * @param bulkhead
+	 *            semaphore bulkhead
+	 * @param threadPoolBulkhead
+	 *            thread pool bulkhead
+	 * @param timeLimiter
+	 *            time limiter, requires a thread pool bulkhead
+	 */
+	public ResilienceClientHttpRequestInterceptor(CircuitBreaker circuitBreaker, Retry retry, Bulkhead bulkhead,
+			ThreadPoolBulkhead threadPoolBulkhead, TimeLimiter timeLimiter) {
+		if (timeLimiter != null && threadPoolBulkhead == null) {
+			throw new IllegalArgumentException("time limiter " + timeLimiter.getName() + " requires a thread pool bulkhead");
+		}
+		this.circuitBreaker = circuitBreaker;
+		this.retry = retry;
+		this.bulkhead = bulkhead;
+		this.threadPoolBulkhead = threadPoolBulkhead;
+		this.timeLimiter = timeLimiter;
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		if (this.retry == null) {
+			return this.executeWithCircuitBreaker(request, body, execution);
+		}
+		Retry.Context<ClientHttpResponse> context = this.retry.context();
+		while (true) {
+			ClientHttpResponse response;
+			try {
+				response = this.executeWithCircuitBreaker(request, body, execution);
+			} catch (IOException | RuntimeException e) {
+				// waits before the next attempt or throws the exception if it is not retried
+				onRetryError(context, e);
+				continue;
+			}
+			if (!context.onResult(response)) {
+				context.onComplete();
+				return response;
+			}
+			response.close();
+		}
+	}
+
+	private ClientHttpResponse executeWithCircuitBreaker(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+		if (this.circuitBreaker == null) {
+			return this.executeWithBulkhead(request, body, execution);
+		}
+		this.circuitBreaker.acquirePermission();
+		long startTime = System.nanoTime();
+		ClientHttpResponse response = null;
+		try {
+			response = this.executeWithBulkhead(request, body, execution);
+			int status = response.getRawStatusCode();
+			long duration = System.nanoTime() - startTime;
+			if (status >= 500) {
+				HttpStatus httpStatus = HttpStatus.resolve(status);
+				this.circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, new HttpServerErrorException(
+						httpStatus != null ? httpStatus : HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusText()));
+			} else {
+				this.circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+			}
+			return response;
+		} catch (IOException | RuntimeException e) {
+			this.circuitBreaker.onError(System.nanoTime() - startTime, TimeUnit.NANOSECONDS, e);
+			if (response != null) {
+				response.close();
+			}
+			throw e;
+		}
+	}
+
+	private ClientHttpResponse executeWithBulkhead(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+		if (this.bulkhead == null) {
+			return this.executeWithThreadPoolBulkhead(request, body, execution);
+		}
+		this.bulkhead.acquirePermission();
+		try {
+			return this.executeWithThreadPoolBulkhead(request, body, execution);
+		} finally {
+			this.bulkhead.onComplete();
+		}
+	}
+
+	private ClientHttpResponse executeWithThreadPoolBulkhead(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+		if (this.threadPoolBulkhead == null) {
+			return execution.execute(request, body);
+		}
+		// holds the response of the call or ABANDONED once the caller timed out, the time limiter cancels the future on timeout
+		AtomicReference<Object> result = new AtomicReference<>();
+		CompletableFuture<ClientHttpResponse> future = this.threadPoolBulkhead.executeCallable(() -> {
+			ClientHttpResponse response = execution.execute(request, body);
+			if (!result.compareAndSet(null, response)) {
+				// the call is not interrupted, close the response arriving after the timeout
+				response.close();
+			}
+			return response;
+		}).toCompletableFuture();
+		try {
+			if (this.timeLimiter != null) {
+				return this.timeLimiter.executeFutureSupplier(() -> future);
+			}
+			return future.get();
+		} catch (TimeoutException e) {
+			Object response = result.getAndSet(ABANDONED);
+			if (response instanceof ClientHttpResponse) {
+				((ClientHttpResponse) response).close();
+			}
+			throw new IOException("request " + request.getMethodValue() + " " + request.getURI() + " timed out", e);
+		} catch (ExecutionException e) {
+			throw rethrow(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while waiting for response");
+		} catch (Exception e) {
+			// the time limiter throws the cause of failed futures
+			throw rethrow(e);
+		}
+	}
+
+	private static void onRetryError(Retry.Context<ClientHttpResponse> context, Exception exception) throws IOException {
+		try {
+			context.onError(exception);
+		} catch (Exception e) {
+			throw rethrow(e);
+		}
+	}
+
+	private static IOException rethrow(Throwable throwable) {
+		if (throwable instanceof IOException) {
+			return (IOException) throwable;
+		}
+		if (throwable instanceof RuntimeException) {
+			throw (RuntimeException) throwable;
+		}
+		if (throwable instanceof Error) {
+			throw (Error) throwable;
+		}
+		return new IOException(throwable);
+	}
+}
@@ -1,68 +1,83 @@
 package de.enterprise.spring.boot.application.starter.httpclient.reactive;
 
-import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.boot.actuate.metrics.web.reactive.client.MetricsWebClientCustomizer;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ExchangeFunction;
 
 import de.enterprise.spring.boot.application.starter.logging.LoggingProperties;
+import de.enterprise.spring.boot.application.starter.logging.PayloadCapture;
+import de.enterprise.spring.boot.application.starter.tracing.TracingUtils;
+import de.enterprise.spring.boot.application.starter.tracing.reactive.ReactorTracing;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
-import reactor.util.context.Context;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.ContextView;
 
 /**
- * {@link ExchangeFilterFunction} applied via a {@link MetricsWebClientCustomizer} to record metrics.
+ * {@link ExchangeFilterFunction} applied via a {@link RequestResponseWebClientCustomizer} to log outgoing requests and their responses.
+ * <p>
+ * The response body is not consumed or buffered by the filter: the body of the returned response passes the buffers through to the caller
+ * while the first bytes are kept for logging. The response is logged with duration and size when the caller's subscription of the body
+ * terminates.
  *
- * @author Brian Clozel
- * @author Tadaya Tsuyukubo
- * @since 2.1.0
+ * @author Malte Geßner
  */
 @Slf4j(topic = "request-logger-outbound")
 @RequiredArgsConstructor
 public class RequestResponseWebClientFilterFunction implements ExchangeFilterFunction {
 	private static final String VALUE_SEPARATOR = "; ";
-	private static final String REQUEST_RESPONSE_WEBCLIENT_REQUEST_UUID = RequestResponseWebClientFilterFunction.class.getName()
-			+ ".REQUEST_UUID";
-	private static final String REQUEST_RESPONSE_WEBCLIENT_REQUEST_DETAILS = RequestResponseWebClientFilterFunction.class.getName()
-			+ ".REQUEST_DETAILS";
 
 	private final LoggingProperties loggingProperties;
 
 	@Override
 	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
-		String requestUuid = UUID.randomUUID().toString();
-		String requestDetails = logRequest(requestUuid, request, "".getBytes());
-
-		return next.exchange(request).doOnEach((signal) -> {
-			if (!signal.isOnComplete()) {
-				ClientResponse response = signal.get();
-				String localRequestUuid = signal.getContext().get(REQUEST_RESPONSE_WEBCLIENT_REQUEST_UUID);
-				String localRequestDetails = signal.getContext().get(REQUEST_RESPONSE_WEBCLIENT_REQUEST_DETAILS);
-
-				try {
-					logResponse(localRequestUuid, localRequestDetails, response);
-				} catch (IOException e) {
-					log.error("client response logging failed", e);
-				}
-			}
-		}).subscriberContext(context -> this.putRequestData(context, requestUuid, requestDetails));
+		if (!log.isInfoEnabled()) {
+			return next.exchange(request);
+		}
+		// per subscription, so a repeated exchange (e.g. by a retry) is logged as own request
+		return Mono.deferContextual(context -> {
+			String requestUuid = TracingUtils.generateId();
+			long startTime = System.nanoTime();
+			String requestDetails = ReactorTracing.withMdc(context, () -> logRequest(requestUuid, request, new byte[0]));
+			return next.exchange(request)
+					.map(response -> this.logOnBodyTermination(response, requestUuid, requestDetails, startTime, context));
+		});
 	}
 
-	private Context putRequestData(Context context, String requestUuid, String requestDetails) {
-
-		context = context.put(REQUEST_RESPONSE_WEBCLIENT_REQUEST_UUID, requestUuid);
-		return context.put(REQUEST_RESPONSE_WEBCLIENT_REQUEST_DETAILS, requestDetails);
+	private ClientResponse logOnBodyTermination(ClientResponse response, String requestUuid, String requestDetails, long startTime,
+			ContextView context) {
+		int maxPayloadLength = this.loggingProperties.isLogOutgoingRequestWithPayload()
+				? this.loggingProperties.getLogOutgoingRequestMaxPayloadLength()
+				: 0;
+		PayloadCapture bodyCapture = new PayloadCapture(maxPayloadLength);
+		return response.mutate()
+				.body(body -> body.doOnNext(bodyCapture::capture).doFinally(signal -> {
+					try {
+						long duration = System.nanoTime() - startTime;
+						ReactorTracing.withMdc(context,
+								() -> this.logResponse(requestUuid, requestDetails, response, bodyCapture, duration, signal));
+					} catch (RuntimeException e) {
+						log.warn("logging response with requestUuid={} failed", requestUuid, e);
+					} finally {
+						bodyCapture.release();
+					}
+				}))
+				.build();
 	}
 
 	private String logRequest(String requestUuid, ClientRequest request, byte[] body) {
@@ -94,24 +109,35 @@ public class RequestResponseWebClientFilterFunction implements ExchangeFilterFun
 		return requestDetails;
 	}
 
-	private void logResponse(String requestUuid, String requestDetails, ClientResponse response) throws IOException {
-		if (log.isInfoEnabled()) {
-			StringBuilder msg = new StringBuilder();
-			msg.append("Incoming REST response with requestUuid=").append(requestUuid).append(VALUE_SEPARATOR)
-					.append(requestDetails).append(VALUE_SEPARATOR)
-					.append("statusCode=").append(response.statusCode()).append(VALUE_SEPARATOR)
-					.append("headers=").append(response.headers());
-
-			response.toEntity(String.class).doOnNext(responseEntity -> {
-				if (this.loggingProperties.isLogOutgoingRequestWithPayload()) {
-					String responseBody = responseEntity.getBody();
-					if (!StringUtils.isBlank(responseBody)) {
-						msg.append(VALUE_SEPARATOR).append("responseBody=").append(responseBody);
-					}
-				}
-				log.info(msg.toString());
-			});
+	private void logResponse(String requestUuid, String requestDetails, ClientResponse response, PayloadCapture bodyCapture,
+			long durationNanos, SignalType bodySignal) {
+		StringBuilder msg = new StringBuilder();
+		msg.append("Incoming REST response with requestUuid=").append(requestUuid).append(VALUE_SEPARATOR)
+				.append(requestDetails).append(VALUE_SEPARATOR)
+				.append("statusCode=").append(response.rawStatusCode()).append(VALUE_SEPARATOR)
+				.append("headers=").append(response.headers().asHttpHeaders()).append(VALUE_SEPARATOR)
+				.append("durationMs=").append(TimeUnit.NANOSECONDS.toMillis(durationNanos)).append(VALUE_SEPARATOR)
+				.append("responseSize=").append(bodyCapture.getTotalLength());
+		if (bodySignal != SignalType.ON_COMPLETE) {
+			msg.append(VALUE_SEPARATOR).append("bodyTermination=").append(bodySignal);
+		}
+		if (this.loggingProperties.isLogOutgoingRequestWithPayload()) {
+			String responseBody = bodyCapture.getPayload(getCharset(response));
+			if (!StringUtils.isBlank(responseBody)) {
+				msg.append(VALUE_SEPARATOR).append("responseBody=").append(responseBody);
+			}
+		}
+		log.info(msg.toString());
+	}
+
+	private static Charset getCharset(ClientResponse response) {
+		Optional<MediaType> contentType;
+		try {
+			contentType = response.headers().contentType();
+		} catch (InvalidMediaTypeException e) {
+			contentType = Optional.empty();
 		}
+		return contentType.map(MediaType::getCharset).orElse(StandardCharsets.UTF_8);
 	}
 
 	/**
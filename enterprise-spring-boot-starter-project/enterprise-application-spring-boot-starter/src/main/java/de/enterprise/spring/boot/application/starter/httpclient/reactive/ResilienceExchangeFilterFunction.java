@@ -0,0 +1,152 @@
+package de.enterprise.spring.boot.application.starter.httpclient.reactive;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+
+/**
+ * Protects outgoing web client calls with resilience4j. Each part is optional, they are applied in the order of the resilience4j
+ * annotations: retry, circuit breaker, time limiter, bulkhead.
+ * <ul>
+ * <li>the retry repeats failed exchanges and, if the retry has a result predicate, responses matching the predicate</li>
+ * <li>the circuit breaker records errors and responses with a 5xx status as failures</li>
+ * <li>the bulkhead limits the number of concurrent exchanges</li>
+ * <li>the time limiter cancels exchanges without response within its timeout</li>
+ * </ul>
+ * All parts end with the response headers, the body is not covered. No thread is blocked, waiting between retries uses
+ * {@link Mono#delay(Duration)}.
+ *
+ * @author Malte Geßner
+ *
+ */
+public class ResilienceExchangeFilterFunction implements ExchangeFilterFunction {
+
+	private final CircuitBreaker circuitBreaker;
+	private final Retry retry;
+	private final Bulkhead bulkhead;
+	private final TimeLimiter timeLimiter;
+
+	/**
+	 * Creates the filter function, each part may be <code>null</code>.
+	 *
+	 * @param circuitBreaker
+	 *            circuit breaker
+	 * @param retry
+	 *            retry
+	 * @param bulkhead
+	 *            bulkhead
+	 * @param timeLimiter
+	 *            time limiter
+	 */
+	public ResilienceExchangeFilterFunction(CircuitBreaker circuitBreaker, Retry retry, Bulkhead bulkhead, TimeLimiter timeLimiter) {
+		this.circuitBreaker = circuitBreaker;
+		this.retry = retry;
+		this.bulkhead = bulkhead;
+		this.timeLimiter = timeLimiter;
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		Mono<ClientResponse> exchange = Mono.defer(() -> next.exchange(request));
+		if (this.bulkhead != null) {
+			exchange = this.withBulkhead(exchange);
+		}
+		if (this.timeLimiter != null) {
+			exchange = this.withTimeLimiter(exchange);
+		}
+		if (this.circuitBreaker != null) {
+			exchange = this.withCircuitBreaker(exchange);
+		}
+		if (this.retry != null) {
+			Mono<ClientResponse> attempt = exchange;
+			exchange = Mono.defer(() -> this.withRetry(attempt, this.retry.asyncContext()));
+		}
+		return exchange;
+	}
+
+	private Mono<ClientResponse> withBulkhead(Mono<ClientResponse> exchange) {
+		return Mono.defer(() -> {
+			if (!this.bulkhead.tryAcquirePermission()) {
+				return Mono.error(BulkheadFullException.createBulkheadFullException(this.bulkhead));
+			}
+			return exchange.doFinally(signal -> this.bulkhead.onComplete());
+		});
+	}
+
+	private Mono<ClientResponse> withTimeLimiter(Mono<ClientResponse> exchange) {
+		Duration timeout = this.timeLimiter.getTimeLimiterConfig().getTimeoutDuration();
+		return exchange
+				.timeout(timeout, Mono.error(() -> TimeLimiter.createdTimeoutExceptionWithName(this.timeLimiter.getName(), null)))
+				.doOnNext(response -> this.timeLimiter.onSuccess())
+				.doOnError(this.timeLimiter::onError);
+	}
+
+	private Mono<ClientResponse> withCircuitBreaker(Mono<ClientResponse> exchange) {
+		return Mono.defer(() -> {
+			if (!this.circuitBreaker.tryAcquirePermission()) {
+				return Mono.error(CallNotPermittedException.createCallNotPermittedException(this.circuitBreaker));
+			}
+			long startTime = System.nanoTime();
+			return exchange
+					.doOnNext(response -> {
+						long duration = System.nanoTime() - startTime;
+						if (response.rawStatusCode() >= 500) {
+							HttpStatus httpStatus = HttpStatus.resolve(response.rawStatusCode());
+							this.circuitBreaker.onError(duration, TimeUnit.NANOSECONDS,
+									WebClientResponseException.create(response.rawStatusCode(),
+											httpStatus != null ? httpStatus.getReasonPhrase() : "", response.headers().asHttpHeaders(),
+											null, null));
+						} else {
+							this.circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+						}
+					})
+					.doOnError(e -> this.circuitBreaker.onError(System.nanoTime() - startTime, TimeUnit.NANOSECONDS, e))
+					.doOnCancel(this.circuitBreaker::releasePermission);
+		});
+	}
+
+	private Mono<ClientResponse> withRetry(Mono<ClientResponse> exchange, Retry.AsyncContext<ClientResponse> context) {
+		return exchange.materialize().flatMap(signal -> {
+			if (signal.isOnComplete()) {
+				return Mono.empty();
+			}
+			long delay = this.nextRetryDelay(signal, context);
+			if (delay < 0) {
+				return signal.isOnNext() ? Mono.just(signal.get()) : Mono.error(signal.getThrowable());
+			}
+			Mono<Void> release = signal.isOnNext() ? signal.get().releaseBody() : Mono.empty();
+			return release
+					.then(Mono.delay(Duration.ofMillis(delay)))
+					.then(Mono.defer(() -> this.withRetry(exchange, context)));
+		});
+	}
+
+	/**
+	 * Returns the delay before the next attempt or -1 if the signal is the final one.
+	 */
+	private long nextRetryDelay(Signal<ClientResponse> signal, Retry.AsyncContext<ClientResponse> context) {
+		if (signal.isOnError()) {
+			return context.onError(signal.getThrowable());
+		}
+		long delay = context.onResult(signal.get());
+		if (delay < 0) {
+			context.onComplete();
+		}
+		return delay;
+	}
+}
@@ -1,15 +1,24 @@
 package de.enterprise.spring.boot.application.starter.httpclient.reactive;
 
+import java.time.Duration;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import io.netty.channel.ChannelOption;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 /**
  * Configuration parameters for http client configuration.
+ * <p>
+ * Web clients use a Reactor Netty connection pool named after the client, configured by the connection pool settings and the timeouts of
+ * the blocking clients. The pool is created once per configuration and disposed with it.
  *
  * @author Malte Geßner
  *
@@ -23,10 +32,69 @@ public class WebClientConfig extends de.enterprise.spring.boot.application.start
 	@Setter(AccessLevel.PRIVATE)
 	private WebClient.Builder webClientBuilder;
 
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private ConnectionProvider connectionProvider;
+
 	public WebClient.Builder createPreConfiguredWebClientBuilder() {
-		WebClient.Builder clonedBuilder = this.webClientBuilder;
+		// the builder is mutable and shared with other web clients
+		WebClient.Builder clonedBuilder = this.webClientBuilder.clone();
+		clonedBuilder = clonedBuilder.clientConnector(new ReactorClientHttpConnector(this.createHttpClient()));
+		if (this.resilience.isConfigured()) {
+			// added last, so retries only repeat the exchange and not the filters of the customizers
+			clonedBuilder = clonedBuilder.filter(new ResilienceExchangeFilterFunction(this.resolveCircuitBreaker(), this.resolveRetry(),
+					this.resolveBulkhead(), this.resolveTimeLimiter()));
+		}
 
 		return clonedBuilder.baseUrl(this.getBaseAddress());
 	}
 
+	/**
+	 * Creates the Reactor Netty http client with the connection pool of this client and the configured connect and read timeout.
+	 *
+	 * @return new http client
+	 */
+	protected HttpClient createHttpClient() {
+		return HttpClient.create(this.getConnectionProvider())
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, this.getConnectTimeout())
+				.responseTimeout(Duration.ofMillis(this.getReadTimeout()));
+	}
+
+	/**
+	 * Returns the connection pool of this client. Reactor Netty keeps a pool per remote address, so the maximum number of connections per
+	 * route applies, the maximum in total is not used. If a {@link io.micrometer.core.instrument.MeterRegistry} is available, pool metrics
+	 * are published as <code>reactor.netty.connection.provider.*</code> with the client name as tag <code>name</code>.
+	 *
+	 * @return connection pool
+	 */
+	protected synchronized ConnectionProvider getConnectionProvider() {
+		if (this.connectionProvider == null) {
+			ConnectionPool pool = this.getConnectionPool();
+			ConnectionProvider.Builder builder = ConnectionProvider.builder(this.getClientName())
+					.maxConnections(pool.getMaxPerRoute())
+					.pendingAcquireTimeout(Duration.ofMillis(this.getConnectionRequestTimeout()))
+					.metrics(this.meterRegistry != null);
+			if (pool.getMaxPendingAcquires() > 0) {
+				builder.pendingAcquireMaxCount(pool.getMaxPendingAcquires());
+			}
+			if (pool.getIdleTimeout() > 0) {
+				builder.maxIdleTime(Duration.ofMillis(pool.getIdleTimeout()))
+						.evictInBackground(Duration.ofMillis(pool.getIdleTimeout()));
+			}
+			if (pool.getTimeToLive() > 0) {
+				builder.maxLifeTime(Duration.ofMillis(pool.getTimeToLive()));
+			}
+			this.connectionProvider = builder.build();
+		}
+		return this.connectionProvider;
+	}
+
+	@Override
+	public synchronized void destroy() {
+		super.destroy();
+		if (this.connectionProvider != null) {
+			this.connectionProvider.dispose();
+			this.connectionProvider = null;
+		}
+	}
 }
@@ -0,0 +1,203 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.MDC;
+
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties.AsyncRequestLogging;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes request log events on a background thread. A fixed number of {@link RequestLogEvent} instances is allocated up front and
+ * circulates between a free pool and a pending queue, so the request thread only fills in values and never formats or writes the log line.
+ * <p>
+ * If all events are in use, the configured {@link RequestLogOverflowPolicy} decides whether the request thread waits or the event is
+ * dropped. Dropped events are counted and published as metric.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Slf4j(topic = "request-logger")
+public class AsyncRequestLogDispatcher implements MeterBinder {
+
+	private static final long POLL_TIMEOUT_MILLIS = 100;
+	private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+	private final BlockingQueue<RequestLogEvent> freeEvents;
+	private final BlockingQueue<RequestLogEvent> pendingEvents;
+	private final RequestLogOverflowPolicy overflowPolicy;
+	private final String[] mdcKeys;
+	// values of the writer thread, which has no MDC of its own
+	private final String[] emptyMdcValues;
+	private final RequestLogEventFormatter formatter;
+	private final AtomicLong droppedEvents = new AtomicLong();
+	private final AtomicLong writtenEvents = new AtomicLong();
+	// only accessed by the writer thread
+	private final StringBuilder messageBuilder = new StringBuilder(512);
+
+	private final Thread writerThread;
+	private volatile boolean running;
+
+	public AsyncRequestLogDispatcher(AsyncRequestLogging asyncProperties, RequestLogEventFormatter formatter) {
+		int capacity = asyncProperties.getQueueCapacity();
+		this.freeEvents = new ArrayBlockingQueue<>(capacity);
+		this.pendingEvents = new ArrayBlockingQueue<>(capacity);
+		for (int i = 0; i < capacity; i++) {
+			this.freeEvents.add(new RequestLogEvent());
+		}
+		this.overflowPolicy = asyncProperties.getOverflowPolicy();
+		List<String> configuredMdcKeys = asyncProperties.getMdcKeys();
+		this.mdcKeys = configuredMdcKeys != null ? configuredMdcKeys.toArray(new String[0]) : new String[0];
+		this.emptyMdcValues = new String[this.mdcKeys.length];
+		this.formatter = formatter;
+
+		this.writerThread = new Thread(this::writeEvents, "request-log-writer");
+		this.writerThread.setDaemon(true);
+	}
+
+	public void start() {
+		this.running = true;
+		this.writerThread.start();
+	}
+
+	/**
+	 * Stops the writer thread after all pending events are written. Events published afterwards are written by the publishing thread.
+	 */
+	public void destroy() {
+		this.running = false;
+		try {
+			this.writerThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Takes a free event from the pool.
+	 *
+	 * @return empty event, or <code>null</code> if no event is available and the event has to be dropped
+	 */
+	public RequestLogEvent acquire() {
+		RequestLogEvent event = this.freeEvents.poll();
+		if (event == null && this.overflowPolicy == RequestLogOverflowPolicy.BLOCK && this.running) {
+			try {
+				event = this.freeEvents.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (event == null) {
+			this.droppedEvents.incrementAndGet();
+		}
+		return event;
+	}
+
+	/**
+	 * Hands a filled event over to the writer thread. The configured MDC values of the calling thread are captured with the event.
+	 *
+	 * @param event
+	 *            event taken from {@link #acquire()}
+	 */
+	public void publish(RequestLogEvent event) {
+		String[] mdcValues = event.mdcValues(this.mdcKeys.length);
+		for (int i = 0; i < this.mdcKeys.length; i++) {
+			mdcValues[i] = MDC.get(this.mdcKeys[i]);
+		}
+		// can't fail, the number of events in circulation never exceeds the queue capacity
+		this.pendingEvents.offer(event);
+		if (!this.running) {
+			// the writer thread may have stopped already
+			this.writePendingEvents(new StringBuilder(512));
+		}
+	}
+
+	public long getDroppedEvents() {
+		return this.droppedEvents.get();
+	}
+
+	public long getWrittenEvents() {
+		return this.writtenEvents.get();
+	}
+
+	public int getPendingEvents() {
+		return this.pendingEvents.size();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("request.logging.async.dropped", this.droppedEvents, AtomicLong::doubleValue)
+				.description("request log events dropped because the async buffer was full").register(registry);
+		FunctionCounter.builder("request.logging.async.written", this.writtenEvents, AtomicLong::doubleValue)
+				.description("request log events written by the async writer").register(registry);
+		Gauge.builder("request.logging.async.pending", this.pendingEvents, BlockingQueue::size)
+				.description("request log events waiting to be written").register(registry);
+	}
+
+	private void writeEvents() {
+		while (this.running || !this.pendingEvents.isEmpty()) {
+			RequestLogEvent event;
+			try {
+				event = this.pendingEvents.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			if (event != null) {
+				this.writeAndRecycle(event, this.messageBuilder, this.emptyMdcValues);
+			}
+		}
+	}
+
+	private void writePendingEvents(StringBuilder target) {
+		// the events may have been published by other threads, the MDC of the publishing thread is restored afterwards
+		String[] callerMdcValues = new String[this.mdcKeys.length];
+		for (int i = 0; i < this.mdcKeys.length; i++) {
+			callerMdcValues[i] = MDC.get(this.mdcKeys[i]);
+		}
+		RequestLogEvent event;
+		while ((event = this.pendingEvents.poll()) != null) {
+			this.writeAndRecycle(event, target, callerMdcValues);
+		}
+	}
+
+	private void writeAndRecycle(RequestLogEvent event, StringBuilder target, String[] restoredMdcValues) {
+		try {
+			this.write(event, target, restoredMdcValues);
+		} catch (RuntimeException e) {
+			log.warn("writing request log event failed", e);
+		} finally {
+			event.reset();
+			this.freeEvents.offer(event);
+		}
+	}
+
+	private void write(RequestLogEvent event, StringBuilder target, String[] restoredMdcValues) {
+		this.applyMdc(event.getMdcValues());
+		try {
+			target.setLength(0);
+			this.formatter.format(event, target);
+			log.info(target.toString());
+			this.writtenEvents.incrementAndGet();
+		} finally {
+			this.applyMdc(restoredMdcValues);
+		}
+	}
+
+	private void applyMdc(String[] mdcValues) {
+		for (int i = 0; i < this.mdcKeys.length; i++) {
+			if (mdcValues[i] == null) {
+				MDC.remove(this.mdcKeys[i]);
+			} else {
+				MDC.put(this.mdcKeys[i], mdcValues[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats a {@link RequestLogEvent} in the same layout as the synchronous request logging filters, e.g.
+ * {@code request method=GET;uri=/foo, response status=200, duration=12}.
+ *
+ * @author Malte Geßner
+ *
+ */
+public class DefaultRequestLogEventFormatter implements RequestLogEventFormatter {
+
+	private final String beforeMessagePrefix;
+	private final String beforeMessageSuffix;
+	private final String afterMessagePrefix;
+	private final String afterMessageSuffix;
+
+	public DefaultRequestLogEventFormatter(String beforeMessagePrefix, String beforeMessageSuffix, String afterMessagePrefix,
+			String afterMessageSuffix) {
+		this.beforeMessagePrefix = beforeMessagePrefix;
+		this.beforeMessageSuffix = beforeMessageSuffix;
+		this.afterMessagePrefix = afterMessagePrefix;
+		this.afterMessageSuffix = afterMessageSuffix;
+	}
+
+	@Override
+	public void format(RequestLogEvent event, StringBuilder msg) {
+		msg.append(this.beforeMessagePrefix);
+		msg.append("method=").append(event.getMethod());
+		msg.append(";uri=").append(event.getUri());
+		if (event.getQueryString() != null) {
+			msg.append('?').append(event.getQueryString());
+		}
+		if (event.getClient() != null) {
+			msg.append(";client=").append(event.getClient());
+		}
+		if (event.getSession() != null) {
+			msg.append(";session=").append(event.getSession());
+		}
+		if (event.getUser() != null) {
+			msg.append(";user=").append(event.getUser());
+		}
+		if (event.hasRequestHeaders()) {
+			msg.append(";headers=");
+			appendHeaders(msg, event.getRequestHeaderNames(), event.getRequestHeaderValues());
+		}
+		msg.append(this.beforeMessageSuffix);
+
+		msg.append(", ").append(this.afterMessagePrefix);
+		msg.append("status=").append(event.getStatus());
+		if (event.hasResponseHeaders()) {
+			msg.append(", headers=");
+			appendHeaders(msg, event.getResponseHeaderNames(), event.getResponseHeaderValues());
+		}
+		if (event.getPayload() != null) {
+			msg.append(";requestPayload=").append(event.getPayload());
+		}
+		msg.append(this.afterMessageSuffix);
+
+		if (event.getDurationNanos() >= 0) {
+			msg.append(", duration=").append(TimeUnit.NANOSECONDS.toMillis(event.getDurationNanos()));
+		}
+	}
+
+	private static void appendHeaders(StringBuilder msg, List<String> names, List<String> values) {
+		msg.append('[');
+		for (int i = 0; i < names.size(); i++) {
+			if (i > 0) {
+				msg.append(", ");
+			}
+			msg.append(names.get(i)).append(":\"").append(values.get(i)).append('"');
+		}
+		msg.append(']');
+	}
+}
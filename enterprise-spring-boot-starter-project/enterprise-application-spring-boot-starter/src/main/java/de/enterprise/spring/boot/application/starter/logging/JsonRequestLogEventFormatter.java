@@ -0,0 +1,110 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a {@link RequestLogEvent} as single line JSON object, e.g.
+ * {@code {"method":"GET","uri":"/foo","status":200,"durationMs":12}}. Fields which were not captured are omitted. Headers are written as
+ * object with an array of values per header name.
+ *
+ * @author Malte Geßner
+ *
+ */
+public class JsonRequestLogEventFormatter implements RequestLogEventFormatter {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	@Override
+	public void format(RequestLogEvent event, StringBuilder json) {
+		json.append('{');
+		appendField(json, "method", event.getMethod(), false);
+		appendField(json, "uri", event.getUri(), true);
+		appendField(json, "query", event.getQueryString(), true);
+		appendField(json, "client", event.getClient(), true);
+		appendField(json, "session", event.getSession(), true);
+		appendField(json, "user", event.getUser(), true);
+		json.append(",\"status\":").append(event.getStatus());
+		if (event.getDurationNanos() >= 0) {
+			json.append(",\"durationMs\":").append(TimeUnit.NANOSECONDS.toMillis(event.getDurationNanos()));
+		}
+		if (event.hasRequestHeaders()) {
+			json.append(",\"requestHeaders\":");
+			appendHeaders(json, event.getRequestHeaderNames(), event.getRequestHeaderValues());
+		}
+		if (event.hasResponseHeaders()) {
+			json.append(",\"responseHeaders\":");
+			appendHeaders(json, event.getResponseHeaderNames(), event.getResponseHeaderValues());
+		}
+		appendField(json, "requestPayload", event.getPayload(), true);
+		json.append('}');
+	}
+
+	private static void appendField(StringBuilder json, String name, String value, boolean separator) {
+		if (value == null) {
+			return;
+		}
+		if (separator) {
+			json.append(',');
+		}
+		json.append('"').append(name).append("\":");
+		appendString(json, value);
+	}
+
+	/**
+	 * Header values of the same name are captured one after another, so consecutive names are grouped into one array.
+	 */
+	private static void appendHeaders(StringBuilder json, List<String> names, List<String> values) {
+		json.append('{');
+		String previousName = null;
+		for (int i = 0; i < names.size(); i++) {
+			String name = names.get(i);
+			if (name.equals(previousName)) {
+				json.append(',');
+			} else {
+				if (previousName != null) {
+					json.append("],");
+				}
+				appendString(json, name);
+				json.append(":[");
+			}
+			appendString(json, values.get(i));
+			previousName = name;
+		}
+		if (previousName != null) {
+			json.append(']');
+		}
+		json.append('}');
+	}
+
+	static void appendString(StringBuilder json, String value) {
+		json.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				json.append("\\\"");
+				break;
+			case '\\':
+				json.append("\\\\");
+				break;
+			case '\n':
+				json.append("\\n");
+				break;
+			case '\r':
+				json.append("\\r");
+				break;
+			case '\t':
+				json.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					json.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+				} else {
+					json.append(c);
+				}
+			}
+		}
+		json.append('"');
+	}
+}
@@ -1,7 +1,13 @@
 package de.enterprise.spring.boot.application.starter.logging;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -45,15 +51,157 @@ public class LoggingProperties {
 	private boolean logIncomingRequestWithHeaders;
 	private List<String> sensitiveIncomingHeaders;
 	private boolean logIncomingRequestWithClientInfo;
+	@NotNull
+	private RequestLogFormat logIncomingRequestFormat = RequestLogFormat.PLAIN;
 	private int filterOrder = OrderedFilter.REQUEST_WRAPPER_FILTER_MAX_ORDER - 102;
+	@Valid
+	private AsyncRequestLogging async = new AsyncRequestLogging();
+	@Valid
+	private RequestLogSampling sampling = new RequestLogSampling();
+	@Valid
+	private RequestMetrics metrics = new RequestMetrics();
 
 	/*
 	 * Outgoing Requests (RestTemplate)
 	 */
 	private boolean logOutgoingRequestDetailsEnabled = false;
 	private boolean logOutgoingRequestWithPayload;
+	/**
+	 * Maximum number of request and response body bytes which are logged, the response body is streamed to the caller anyway.
+	 */
+	@Min(0)
+	private int logOutgoingRequestMaxPayloadLength = 10 * 1024;
 	private List<String> sensitiveRequestParameters;
 	private List<String> sensitiveOutgoingHeaders;
 
+	/**
+	 * Config values for writing incoming request log lines on a background thread.
+	 *
+	 * @author Malte Geßner
+	 *
+	 */
+	@Getter
+	@Setter
+	@Validated
+	public static class AsyncRequestLogging {
+		/**
+		 * Whether request log events are handed to a bounded buffer and written by a background thread instead of the request thread.
+		 */
+		private boolean enabled;
+		/**
+		 * Number of pooled log events, which is also the maximum number of events waiting to be written.
+		 */
+		@Min(1)
+		private int queueCapacity = 1024;
+		/**
+		 * What to do with a new log event if all pooled events are in use.
+		 */
+		@NotNull
+		private RequestLogOverflowPolicy overflowPolicy = RequestLogOverflowPolicy.DROP;
+		/**
+		 * MDC keys which are copied from the request thread and restored while the log line is written.
+		 */
+		private List<String> mdcKeys = List.of("traceId", "sessionId");
+	}
+
+	/**
+	 * Config values for sampling and rate limiting of incoming request log lines.
+	 *
+	 * @author Malte Geßner
+	 *
+	 */
+	@Getter
+	@Setter
+	@Validated
+	public static class RequestLogSampling {
+		/**
+		 * Whether request log lines are sampled and rate limited. If disabled, every request is logged.
+		 */
+		private boolean enabled;
+		/**
+		 * Fraction of requests which are logged if no route matches (0.0 - 1.0).
+		 */
+		@DecimalMin("0.0")
+		@DecimalMax("1.0")
+		private double defaultRate = 1.0;
+		/**
+		 * Sampling rates per path pattern (e.g. <code>/health/**</code>), the first matching pattern wins.
+		 */
+		@Valid
+		private List<RouteSampling> routes = new ArrayList<>();
+		/**
+		 * Responses with this status or above are always logged, regardless of the sampling rate. 0 disables this rule.
+		 */
+		@Min(0)
+		private int alwaysLogStatus = 400;
+		/**
+		 * Requests taking longer are always logged, regardless of the sampling rate. If not set, the duration is not considered.
+		 */
+		private Duration alwaysLogSlowerThan;
+		/**
+		 * Upper limit of request log lines per second (including always logged requests). 0 means unlimited.
+		 */
+		@Min(0)
+		private int maxLinesPerSecond;
+	}
+
+	/**
+	 * Sampling rate for requests matching a path pattern.
+	 *
+	 * @author Malte Geßner
+	 *
+	 */
+	@Getter
+	@Setter
+	@Validated
+	public static class RouteSampling {
+		/**
+		 * Path pattern in {@link org.springframework.web.util.pattern.PathPattern} syntax, relative to the context path.
+		 */
+		@NotNull
+		private String pattern;
+		/**
+		 * Fraction of matching requests which are logged (0.0 - 1.0).
+		 */
+		@DecimalMin("0.0")
+		@DecimalMax("1.0")
+		private double rate = 1.0;
+	}
+
+	/**
+	 * Config values for the latency metrics of incoming requests.
+	 *
+	 * @author Malte Geßner
+	 *
+	 */
+	@Getter
+	@Setter
+	@Validated
+	public static class RequestMetrics {
+		/**
+		 * Whether the request logging filter records a timer per route, method and status class.
+		 */
+		private boolean enabled;
+		/**
+		 * Whether a percentile histogram is published, e.g. for Prometheus.
+		 */
+		private boolean percentileHistogram;
+		/**
+		 * Percentiles calculated in the application (e.g. 0.5, 0.95, 0.99).
+		 */
+		@NotNull
+		private List<Double> percentiles = new ArrayList<>();
+		/**
+		 * Service level objectives (e.g. 100ms, 500ms), each is published as histogram bucket.
+		 */
+		@NotNull
+		private List<Duration> slo = new ArrayList<>();
+		/**
+		 * Maximum number of distinct routes, requests of further routes are recorded with the route <code>OTHER</code>.
+		 */
+		@Min(1)
+		private int maxRoutes = 100;
+	}
+
 	// TODO: Struktur einführen, um Properties für RestTemplate und Controller besser unterscheiden zu können
 }
@@ -5,10 +5,16 @@ import java.util.Map;
 import org.slf4j.MDC;
 import org.springframework.core.task.TaskDecorator;
 
+import de.enterprise.spring.boot.application.starter.tracing.ContextPropagatingTaskDecorator;
+
 /**
- * @author Malte Geßner
+ * Copies the complete {@link MDC} of the submitting thread to the task, the previous {@link MDC} of the executing thread is restored
+ * afterwards.
  *
+ * @author Malte Geßner
+ * @deprecated use the {@link ContextPropagatingTaskDecorator}, which copies only the configured keys and the current span
  */
+@Deprecated
 public class MdcTaskDecorator implements TaskDecorator {
 	@Override
 	public Runnable decorate(Runnable runnable) {
@@ -16,6 +22,7 @@ public class MdcTaskDecorator implements TaskDecorator {
 		// (Grab the current thread MDC data)
 		Map<String, String> contextMap = MDC.getCopyOfContextMap();
 		return () -> {
+			Map<String, String> previous = MDC.getCopyOfContextMap();
 			try {
 				// Right now: @Async thread context !
 				// (Restore the Web thread context's MDC data)
@@ -24,7 +31,11 @@ public class MdcTaskDecorator implements TaskDecorator {
 				}
 				runnable.run();
 			} finally {
-				MDC.clear();
+				if (previous != null) {
+					MDC.setContextMap(previous);
+				} else {
+					MDC.clear();
+				}
 			}
 		};
 	}
@@ -0,0 +1,90 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * Keeps the first bytes of a reactive request or response body for logging while the body is consumed and counts all bytes. The buffers
+ * are not copied: only a retained slice of the still missing bytes is kept, the buffers themselves are passed on unchanged, so
+ * backpressure of the body stream is not affected.
+ * <p>
+ * The retained slices are copied into a string only if the payload is actually logged and must be released with {@link #release()} when
+ * the body is completed.
+ *
+ * @author Malte Geßner
+ *
+ */
+public class PayloadCapture {
+
+	private final int maxPayloadLength;
+	private final List<DataBuffer> capturedBuffers = new ArrayList<>(2);
+	private int capturedLength;
+	private long totalLength;
+	private boolean released;
+
+	public PayloadCapture(int maxPayloadLength) {
+		this.maxPayloadLength = maxPayloadLength;
+	}
+
+	/**
+	 * Captures the still missing bytes of a passing buffer.
+	 *
+	 * @param buffer
+	 *            buffer of the body, its read position is not changed
+	 */
+	public synchronized void capture(DataBuffer buffer) {
+		this.totalLength += buffer.readableByteCount();
+		int length = Math.min(buffer.readableByteCount(), this.maxPayloadLength - this.capturedLength);
+		if (this.released || length <= 0) {
+			return;
+		}
+		this.capturedBuffers.add(buffer.retainedSlice(buffer.readPosition(), length));
+		this.capturedLength += length;
+	}
+
+	/**
+	 * Returns the captured beginning of the body.
+	 *
+	 * @param charset
+	 *            charset of the body
+	 * @return captured payload, or <code>null</code> if nothing was captured
+	 */
+	public synchronized String getPayload(Charset charset) {
+		if (this.capturedLength == 0) {
+			return null;
+		}
+		byte[] payload = new byte[this.capturedLength];
+		int offset = 0;
+		for (DataBuffer capturedBuffer : this.capturedBuffers) {
+			int length = capturedBuffer.readableByteCount();
+			capturedBuffer.slice(capturedBuffer.readPosition(), length).read(payload, offset, length);
+			offset += length;
+		}
+		return new String(payload, charset);
+	}
+
+	/**
+	 * Returns the number of body bytes passed.
+	 *
+	 * @return number of bytes
+	 */
+	public synchronized long getTotalLength() {
+		return this.totalLength;
+	}
+
+	/**
+	 * Releases the captured buffers. Bytes arriving afterwards are counted, but not captured anymore.
+	 */
+	public synchronized void release() {
+		this.released = true;
+		for (DataBuffer capturedBuffer : this.capturedBuffers) {
+			DataBufferUtils.release(capturedBuffer);
+		}
+		this.capturedBuffers.clear();
+		this.capturedLength = 0;
+	}
+}
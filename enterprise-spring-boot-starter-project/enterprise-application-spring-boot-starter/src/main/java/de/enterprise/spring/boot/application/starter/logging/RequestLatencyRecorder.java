@@ -0,0 +1,137 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.http.HttpMethod;
+
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties.RequestMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records the latency of incoming requests as {@link Timer} per route template, method and status class. Used by the servlet and the
+ * reactive request logging filter.
+ * <p>
+ * The route is the best matching pattern of the handler (e.g. <code>/orders/{id}</code>), so path variables don't end up as tag values.
+ * The number of distinct routes is limited, further routes are recorded with the route tag {@value #OVERFLOW_ROUTE}. Timers are cached per
+ * route, so recording a request does not allocate.
+ *
+ * @author Malte Geßner
+ *
+ */
+public class RequestLatencyRecorder {
+
+	/**
+	 * Name of the recorded timers.
+	 */
+	public static final String METRIC_NAME = "request.logging.latency";
+	/**
+	 * Route tag for requests beyond the maximum number of routes.
+	 */
+	public static final String OVERFLOW_ROUTE = "OTHER";
+
+	private static final String[] STATUS_CLASSES = { "1xx", "2xx", "3xx", "4xx", "5xx", "UNKNOWN" };
+	private static final HttpMethod[] METHODS = HttpMethod.values();
+
+	private final MeterRegistry registry;
+	private final int maxRoutes;
+	private final boolean percentileHistogram;
+	private final double[] percentiles;
+	private final Duration[] serviceLevelObjectives;
+
+	private final Map<String, AtomicReferenceArray<Timer>> timersByRoute = new ConcurrentHashMap<>();
+	private final LongAdder overflowedRequests = new LongAdder();
+
+	public RequestLatencyRecorder(RequestMetrics metricsProperties, MeterRegistry registry) {
+		this.registry = registry;
+		this.maxRoutes = metricsProperties.getMaxRoutes();
+		this.percentileHistogram = metricsProperties.isPercentileHistogram();
+		List<Double> configuredPercentiles = metricsProperties.getPercentiles();
+		this.percentiles = configuredPercentiles.stream().mapToDouble(Double::doubleValue).toArray();
+		this.serviceLevelObjectives = metricsProperties.getSlo().toArray(new Duration[0]);
+
+		FunctionCounter.builder(METRIC_NAME + ".overflow", this.overflowedRequests, LongAdder::doubleValue)
+				.description("requests recorded with route " + OVERFLOW_ROUTE + " because the maximum number of routes was reached")
+				.register(registry);
+	}
+
+	/**
+	 * Records the duration of a processed request.
+	 *
+	 * @param route
+	 *            best matching pattern of the handler, or <code>null</code> if no handler was found
+	 * @param method
+	 *            request method
+	 * @param status
+	 *            response status code
+	 * @param durationNanos
+	 *            duration of the request in nanoseconds
+	 */
+	public void record(String route, String method, int status, long durationNanos) {
+		String routeTag = route != null ? route : unmatchedRoute(status);
+		AtomicReferenceArray<Timer> timers = this.timersByRoute.get(routeTag);
+		if (timers == null) {
+			if (this.timersByRoute.size() >= this.maxRoutes) {
+				this.overflowedRequests.increment();
+				routeTag = OVERFLOW_ROUTE;
+			}
+			timers = this.timersByRoute.computeIfAbsent(routeTag,
+					key -> new AtomicReferenceArray<>((METHODS.length + 1) * STATUS_CLASSES.length));
+		}
+
+		int methodIndex = methodIndex(method);
+		int statusIndex = statusIndex(status);
+		int index = methodIndex * STATUS_CLASSES.length + statusIndex;
+		Timer timer = timers.get(index);
+		if (timer == null) {
+			timer = this.createTimer(routeTag, methodIndex < METHODS.length ? METHODS[methodIndex].name() : "OTHER",
+					STATUS_CLASSES[statusIndex]);
+			// concurrent creation is harmless, the registry returns the same timer
+			timers.set(index, timer);
+		}
+		timer.record(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private Timer createTimer(String route, String method, String statusClass) {
+		return Timer.builder(METRIC_NAME)
+				.description("duration of incoming requests")
+				.tag("route", route)
+				.tag("method", method)
+				.tag("status", statusClass)
+				.publishPercentileHistogram(this.percentileHistogram)
+				.publishPercentiles(this.percentiles)
+				.serviceLevelObjectives(this.serviceLevelObjectives)
+				.register(this.registry);
+	}
+
+	private static String unmatchedRoute(int status) {
+		if (status == 404) {
+			return "NOT_FOUND";
+		}
+		if (status >= 300 && status < 400) {
+			return "REDIRECTION";
+		}
+		return "UNKNOWN";
+	}
+
+	private static int methodIndex(String method) {
+		for (int i = 0; i < METHODS.length; i++) {
+			if (METHODS[i].name().equals(method)) {
+				return i;
+			}
+		}
+		return METHODS.length;
+	}
+
+	private static int statusIndex(int status) {
+		int statusClass = status / 100;
+		return statusClass >= 1 && statusClass <= 5 ? statusClass - 1 : STATUS_CLASSES.length - 1;
+	}
+}
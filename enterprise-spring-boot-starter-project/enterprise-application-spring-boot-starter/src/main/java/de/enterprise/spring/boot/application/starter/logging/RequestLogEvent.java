@@ -0,0 +1,93 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Mutable holder for the details of one incoming request and its response. Instances are pooled and reused by the
+ * {@link AsyncRequestLogDispatcher}, so they must not be referenced after they have been published.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Getter
+@Setter
+public class RequestLogEvent {
+
+	/**
+	 * Replacement for values of sensitive headers.
+	 */
+	public static final String MASKED_VALUE = "**********";
+
+	private String method;
+	private String uri;
+	private String queryString;
+	private String client;
+	private String session;
+	private String user;
+	private int status;
+	private String payload;
+	/**
+	 * Duration between start of the request and end of the response in nanoseconds, or a negative value if the duration is not recorded.
+	 */
+	private long durationNanos = -1;
+
+	private final List<String> requestHeaderNames = new ArrayList<>();
+	private final List<String> requestHeaderValues = new ArrayList<>();
+	private final List<String> responseHeaderNames = new ArrayList<>();
+	private final List<String> responseHeaderValues = new ArrayList<>();
+
+	@Setter(AccessLevel.NONE)
+	private String[] mdcValues = new String[0];
+
+	public void addRequestHeader(String name, String value) {
+		this.requestHeaderNames.add(name);
+		this.requestHeaderValues.add(value);
+	}
+
+	public void addResponseHeader(String name, String value) {
+		this.responseHeaderNames.add(name);
+		this.responseHeaderValues.add(value);
+	}
+
+	public boolean hasRequestHeaders() {
+		return !this.requestHeaderNames.isEmpty();
+	}
+
+	public boolean hasResponseHeaders() {
+		return !this.responseHeaderNames.isEmpty();
+	}
+
+	String[] mdcValues(int size) {
+		if (this.mdcValues.length != size) {
+			this.mdcValues = new String[size];
+		}
+		return this.mdcValues;
+	}
+
+	/**
+	 * Clears all captured values, so the instance can be reused for the next request.
+	 */
+	public void reset() {
+		this.method = null;
+		this.uri = null;
+		this.queryString = null;
+		this.client = null;
+		this.session = null;
+		this.user = null;
+		this.status = 0;
+		this.payload = null;
+		this.durationNanos = -1;
+		this.requestHeaderNames.clear();
+		this.requestHeaderValues.clear();
+		this.responseHeaderNames.clear();
+		this.responseHeaderValues.clear();
+		for (int i = 0; i < this.mdcValues.length; i++) {
+			this.mdcValues[i] = null;
+		}
+	}
+}
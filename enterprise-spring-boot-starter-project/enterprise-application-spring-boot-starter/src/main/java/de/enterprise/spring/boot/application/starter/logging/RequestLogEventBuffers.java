@@ -0,0 +1,56 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+/**
+ * Thread bound {@link RequestLogEvent} and message buffer for writing request log lines on the request thread without allocating new
+ * builders per request.
+ *
+ * @author Malte Geßner
+ *
+ */
+public final class RequestLogEventBuffers {
+
+	/**
+	 * Buffers which grew beyond this size (e.g. because of a large payload) are not kept for the next request.
+	 */
+	private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+	private static final int INITIAL_CAPACITY = 512;
+
+	private static final ThreadLocal<RequestLogEvent> EVENT = ThreadLocal.withInitial(RequestLogEvent::new);
+	private static final ThreadLocal<StringBuilder> MESSAGE = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_CAPACITY));
+
+	private RequestLogEventBuffers() {
+
+	}
+
+	/**
+	 * @return the cleared event of the current thread
+	 */
+	public static RequestLogEvent threadLocalEvent() {
+		RequestLogEvent event = EVENT.get();
+		event.reset();
+		return event;
+	}
+
+	/**
+	 * Formats the event into the message buffer of the current thread and clears the event afterwards.
+	 *
+	 * @param event
+	 *            captured request/response details
+	 * @param formatter
+	 *            formatter to render the event
+	 * @return the log message
+	 */
+	public static String format(RequestLogEvent event, RequestLogEventFormatter formatter) {
+		StringBuilder msg = MESSAGE.get();
+		try {
+			msg.setLength(0);
+			formatter.format(event, msg);
+			return msg.toString();
+		} finally {
+			event.reset();
+			if (msg.capacity() > MAX_RETAINED_CAPACITY) {
+				MESSAGE.set(new StringBuilder(INITIAL_CAPACITY));
+			}
+		}
+	}
+}
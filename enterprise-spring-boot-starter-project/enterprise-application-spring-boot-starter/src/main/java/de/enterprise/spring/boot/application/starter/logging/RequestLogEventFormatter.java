@@ -0,0 +1,21 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+/**
+ * Renders a captured {@link RequestLogEvent} into a log message.
+ *
+ * @author Malte Geßner
+ *
+ */
+@FunctionalInterface
+public interface RequestLogEventFormatter {
+
+	/**
+	 * Appends the message for the given event to the target.
+	 *
+	 * @param event
+	 *            captured request/response details
+	 * @param target
+	 *            builder which receives the message, it is cleared by the caller before each event
+	 */
+	void format(RequestLogEvent event, StringBuilder target);
+}
@@ -0,0 +1,18 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+/**
+ * Output format of the incoming request log lines.
+ *
+ * @author Malte Geßner
+ *
+ */
+public enum RequestLogFormat {
+	/**
+	 * Human readable line, e.g. {@code request method=GET;uri=/foo, response status=200}.
+	 */
+	PLAIN,
+	/**
+	 * One JSON object per request, written by the {@link JsonRequestLogEventFormatter}.
+	 */
+	JSON
+}
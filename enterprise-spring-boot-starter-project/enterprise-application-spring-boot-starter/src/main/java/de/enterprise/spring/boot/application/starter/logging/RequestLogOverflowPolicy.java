@@ -0,0 +1,18 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+/**
+ * Behavior of the {@link AsyncRequestLogDispatcher} if no free log event is available.
+ *
+ * @author Malte Geßner
+ *
+ */
+public enum RequestLogOverflowPolicy {
+	/**
+	 * Discard the log event and count it as dropped. The request thread never waits.
+	 */
+	DROP,
+	/**
+	 * Wait on the request thread until the background writer has freed a log event.
+	 */
+	BLOCK
+}
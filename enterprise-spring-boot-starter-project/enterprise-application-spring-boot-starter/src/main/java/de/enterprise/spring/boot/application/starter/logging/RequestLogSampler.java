@@ -0,0 +1,160 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties.RequestLogSampling;
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties.RouteSampling;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Decides after a request has been processed whether its log line is written. The decision is shared by the servlet and the reactive
+ * request logging filter:
+ * <ol>
+ * <li>responses with an error status or a duration above the configured threshold are always logged (not sampled)</li>
+ * <li>otherwise the rate of the first matching route pattern (or the default rate) decides randomly</li>
+ * <li>finally a token bucket caps the total number of log lines per second</li>
+ * </ol>
+ * Route patterns are parsed once on creation, so a decision only costs the pattern matching and a random number. Skipped log lines are
+ * counted and published as metric.
+ *
+ * @author Malte Geßner
+ *
+ */
+public class RequestLogSampler implements MeterBinder {
+
+	private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final PathPattern[] routePatterns;
+	private final double[] routeRates;
+	private final double defaultRate;
+	private final int alwaysLogStatus;
+	private final long alwaysLogDurationNanos;
+
+	private final long tokenIntervalNanos;
+	private final long burstNanos;
+	// theoretical arrival time of the next log line (generic cell rate algorithm), only used if lines per second are limited
+	private final AtomicLong nextTokenTime = new AtomicLong(System.nanoTime());
+
+	private final LongAdder sampledOut = new LongAdder();
+	private final LongAdder rateLimited = new LongAdder();
+
+	public RequestLogSampler(RequestLogSampling samplingProperties) {
+		List<RouteSampling> routes = samplingProperties.getRoutes();
+		this.routePatterns = new PathPattern[routes.size()];
+		this.routeRates = new double[routes.size()];
+		PathPatternParser parser = new PathPatternParser();
+		for (int i = 0; i < routes.size(); i++) {
+			this.routePatterns[i] = parser.parse(routes.get(i).getPattern());
+			this.routeRates[i] = routes.get(i).getRate();
+		}
+		this.defaultRate = samplingProperties.getDefaultRate();
+		this.alwaysLogStatus = samplingProperties.getAlwaysLogStatus();
+		this.alwaysLogDurationNanos = samplingProperties.getAlwaysLogSlowerThan() != null
+				? samplingProperties.getAlwaysLogSlowerThan().toNanos()
+				: Long.MAX_VALUE;
+
+		int maxLinesPerSecond = samplingProperties.getMaxLinesPerSecond();
+		this.tokenIntervalNanos = maxLinesPerSecond > 0 ? NANOS_PER_SECOND / maxLinesPerSecond : 0;
+		// allow a burst of one second worth of log lines
+		this.burstNanos = NANOS_PER_SECOND - this.tokenIntervalNanos;
+	}
+
+	/**
+	 * Decides whether the log line of a processed request is written.
+	 *
+	 * @param path
+	 *            request path within the application (without context path)
+	 * @param status
+	 *            response status code
+	 * @param durationNanos
+	 *            duration of the request in nanoseconds
+	 * @return <code>true</code> if the log line should be written
+	 */
+	public boolean sample(String path, int status, long durationNanos) {
+		if (this.routePatterns.length == 0 || this.isAlwaysLogged(status, durationNanos)) {
+			return this.sample((PathContainer) null, status, durationNanos);
+		}
+		return this.sample(PathContainer.parsePath(path), status, durationNanos);
+	}
+
+	/**
+	 * Decides whether the log line of a processed request is written.
+	 *
+	 * @param path
+	 *            parsed request path within the application, may be <code>null</code> if no route patterns are configured
+	 * @param status
+	 *            response status code
+	 * @param durationNanos
+	 *            duration of the request in nanoseconds
+	 * @return <code>true</code> if the log line should be written
+	 */
+	public boolean sample(PathContainer path, int status, long durationNanos) {
+		if (!this.isAlwaysLogged(status, durationNanos)) {
+			double rate = this.rateFor(path);
+			if (rate < 1.0 && (rate <= 0.0 || ThreadLocalRandom.current().nextDouble() >= rate)) {
+				this.sampledOut.increment();
+				return false;
+			}
+		}
+		if (this.tokenIntervalNanos > 0 && !this.tryAcquireToken()) {
+			this.rateLimited.increment();
+			return false;
+		}
+		return true;
+	}
+
+	public long getSampledOut() {
+		return this.sampledOut.sum();
+	}
+
+	public long getRateLimited() {
+		return this.rateLimited.sum();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("request.logging.skipped", this.sampledOut, LongAdder::doubleValue)
+				.description("request log lines skipped by sampling or rate limiting").tag("reason", "sampling").register(registry);
+		FunctionCounter.builder("request.logging.skipped", this.rateLimited, LongAdder::doubleValue)
+				.description("request log lines skipped by sampling or rate limiting").tag("reason", "rate-limit").register(registry);
+	}
+
+	private boolean isAlwaysLogged(int status, long durationNanos) {
+		return this.alwaysLogStatus > 0 && status >= this.alwaysLogStatus || durationNanos >= this.alwaysLogDurationNanos;
+	}
+
+	private double rateFor(PathContainer path) {
+		if (path != null) {
+			for (int i = 0; i < this.routePatterns.length; i++) {
+				if (this.routePatterns[i].matches(path)) {
+					return this.routeRates[i];
+				}
+			}
+		}
+		return this.defaultRate;
+	}
+
+	private boolean tryAcquireToken() {
+		long now = System.nanoTime();
+		while (true) {
+			long tokenTime = this.nextTokenTime.get();
+			long earliest = tokenTime - now > 0 ? tokenTime : now;
+			if (earliest - now > this.burstNanos) {
+				return false;
+			}
+			if (this.nextTokenTime.compareAndSet(tokenTime, earliest + this.tokenIntervalNanos)) {
+				return true;
+			}
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package de.enterprise.spring.boot.application.starter.logging.reactive;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
@@ -7,7 +8,12 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import de.enterprise.spring.boot.application.starter.logging.JsonRequestLogEventFormatter;
 import de.enterprise.spring.boot.application.starter.logging.LoggingProperties;
+import de.enterprise.spring.boot.application.starter.logging.RequestLatencyRecorder;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogFormat;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogSampler;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Configuration class for to auto configure the log web request handling.
@@ -31,7 +37,9 @@ public class LoggingAutoConfiguration {
 	public static class WebLoggingEnabled {
 
 		@Bean
-		public RequestLoggingFilter requestLoggingFilter(LoggingProperties loggingProperties) {
+		public RequestLoggingFilter requestLoggingFilter(LoggingProperties loggingProperties,
+				ObjectProvider<RequestLogSampler> requestLogSampler,
+				ObjectProvider<RequestLatencyRecorder> requestLatencyRecorder) {
 			RequestLoggingFilter requestLoggingFilter = new RequestLoggingFilter();
 			requestLoggingFilter.setBeforeMessagePrefix("request ");
 			requestLoggingFilter.setBeforeMessageSuffix("");
@@ -43,8 +51,25 @@ public class LoggingAutoConfiguration {
 			requestLoggingFilter.setIncludeHeaders(loggingProperties.isLogIncomingRequestWithHeaders());
 			requestLoggingFilter.setSensitiveHeaders(loggingProperties.getSensitiveIncomingHeaders());
 			requestLoggingFilter.setIncludeClientInfo(loggingProperties.isLogIncomingRequestWithClientInfo());
+			requestLoggingFilter.setRequestLogSampler(requestLogSampler.getIfAvailable());
+			requestLoggingFilter.setRequestLatencyRecorder(requestLatencyRecorder.getIfAvailable());
+			if (loggingProperties.getLogIncomingRequestFormat() == RequestLogFormat.JSON) {
+				requestLoggingFilter.setRequestLogEventFormatter(new JsonRequestLogEventFormatter());
+			}
 
 			return requestLoggingFilter;
 		}
+
+		@Bean
+		@ConditionalOnProperty(prefix = "enterprise-application.logging.sampling", name = "enabled", havingValue = "true")
+		public RequestLogSampler requestLogSampler(LoggingProperties loggingProperties) {
+			return new RequestLogSampler(loggingProperties.getSampling());
+		}
+
+		@Bean
+		@ConditionalOnProperty(prefix = "enterprise-application.logging.metrics", name = "enabled", havingValue = "true")
+		public RequestLatencyRecorder requestLatencyRecorder(LoggingProperties loggingProperties, MeterRegistry meterRegistry) {
+			return new RequestLatencyRecorder(loggingProperties.getMetrics(), meterRegistry);
+		}
 	}
 }
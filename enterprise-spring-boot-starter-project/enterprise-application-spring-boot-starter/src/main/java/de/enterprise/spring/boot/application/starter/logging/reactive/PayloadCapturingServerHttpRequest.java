@@ -0,0 +1,64 @@
+package de.enterprise.spring.boot.application.starter.logging.reactive;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+
+import de.enterprise.spring.boot.application.starter.logging.PayloadCapture;
+import reactor.core.publisher.Flux;
+
+/**
+ * Request decorator which keeps the first bytes of the request body for logging with a {@link PayloadCapture} while the body is consumed
+ * by the handler. The captured bytes must be released with {@link #release()} when the exchange is completed.
+ *
+ * @author Malte Geßner
+ *
+ */
+class PayloadCapturingServerHttpRequest extends ServerHttpRequestDecorator {
+
+	private final PayloadCapture payloadCapture;
+
+	PayloadCapturingServerHttpRequest(ServerHttpRequest delegate, int maxPayloadLength) {
+		super(delegate);
+		this.payloadCapture = new PayloadCapture(maxPayloadLength);
+	}
+
+	@Override
+	public Flux<DataBuffer> getBody() {
+		return super.getBody().doOnNext(this.payloadCapture::capture);
+	}
+
+	/**
+	 * Returns the captured beginning of the request body.
+	 *
+	 * @return captured payload, or <code>null</code> if no body was read
+	 */
+	String getPayload() {
+		return this.payloadCapture.getPayload(this.getCharset());
+	}
+
+	/**
+	 * Releases the captured buffers. Bytes arriving afterwards are not captured anymore.
+	 */
+	void release() {
+		this.payloadCapture.release();
+	}
+
+	private Charset getCharset() {
+		MediaType contentType;
+		try {
+			contentType = this.getHeaders().getContentType();
+		} catch (InvalidMediaTypeException e) {
+			contentType = null;
+		}
+		if (contentType != null && contentType.getCharset() != null) {
+			return contentType.getCharset();
+		}
+		return StandardCharsets.UTF_8;
+	}
+}
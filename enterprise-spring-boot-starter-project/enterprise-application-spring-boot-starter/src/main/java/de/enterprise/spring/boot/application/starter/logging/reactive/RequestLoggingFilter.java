@@ -1,7 +1,9 @@
 package de.enterprise.spring.boot.application.starter.logging.reactive;
 
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -15,13 +17,20 @@ import org.springframework.jmx.export.annotation.ManagedOperationParameter;
 import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
-import org.springframework.util.StopWatch;
 import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
-
+import org.springframework.web.util.pattern.PathPattern;
+
+import de.enterprise.spring.boot.application.starter.logging.RequestLatencyRecorder;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogEvent;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogEventBuffers;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogEventFormatter;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogSampler;
+import de.enterprise.spring.boot.application.starter.tracing.reactive.ReactorTracing;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
@@ -77,6 +86,12 @@ public class RequestLoggingFilter implements WebFilter, Ordered {
 
 	private List<String> sensitiveHeaders;
 
+	private RequestLogEventFormatter requestLogEventFormatter;
+
+	private RequestLogSampler requestLogSampler;
+
+	private RequestLatencyRecorder requestLatencyRecorder;
+
 	@Override
 	public int getOrder() {
 		return this.order;
@@ -92,51 +107,172 @@ public class RequestLoggingFilter implements WebFilter, Ordered {
 	 */
 	@Override
 	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		if (this.requestLatencyRecorder == null) {
+			return this.filterWithPayloadCapture(exchange, chain);
+		}
 
-		ServerHttpRequest requestToUse = exchange.getRequest();
+		long startTime = System.nanoTime();
+		return this.filterWithPayloadCapture(exchange, chain)
+				.doOnSuccess(t -> this.recordLatency(exchange, exchange.getResponse().getRawStatusCode(), startTime))
+				.doOnError(ex -> this.recordLatency(exchange, responseStatusOf(ex, exchange.getResponse()), startTime));
+	}
 
-		// if (this.isIncludePayload() && !(request instanceof ContentCachingRequestWrapper)) {
-		// requestToUse = new ContentCachingRequestWrapper(request, this.getMaxPayloadLength());
-		// }
+	private void recordLatency(ServerWebExchange exchange, Integer responseStatus, long startTime) {
+		PathPattern route = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		this.requestLatencyRecorder.record(route != null ? route.getPatternString() : null, exchange.getRequest().getMethodValue(),
+				responseStatus != null ? responseStatus : HttpStatus.OK.value(), System.nanoTime() - startTime);
+	}
 
-		boolean shouldLog = this.shouldLog(requestToUse);
-		final String requestMessage = shouldLog ? getBeforeMessage(exchange) : "";
+	private Mono<Void> filterWithPayloadCapture(ServerWebExchange exchange, WebFilterChain chain) {
+		if (!this.isIncludePayload() || this.getMaxPayloadLength() <= 0 || !this.shouldLog(exchange.getRequest())) {
+			return this.filterAndLog(exchange, chain);
+		}
 
-		final StopWatch requestResponseTime = this.recordDuration ? new StopWatch() : null;
+		PayloadCapturingServerHttpRequest payloadCapturingRequest = new PayloadCapturingServerHttpRequest(exchange.getRequest(),
+				this.getMaxPayloadLength());
+		// release the captured buffers after the log line is written, or if the exchange is cancelled
+		return this.filterAndLog(exchange.mutate().request(payloadCapturingRequest).build(), chain)
+				.doFinally(signalType -> payloadCapturingRequest.release());
+	}
 
-		if (requestResponseTime != null) {
-			requestResponseTime.start();
+	private Mono<Void> filterAndLog(ServerWebExchange exchange, WebFilterChain chain) {
+
+		if (this.requestLogEventFormatter != null) {
+			return this.filterWithEventLogging(exchange, chain);
 		}
 
-		return chain.filter(exchange).doOnSuccess(t -> {
-			String requestResponseDuration = "";
-			if (requestResponseTime != null) {
-				requestResponseTime.stop();
-				requestResponseDuration = ", duration=" + requestResponseTime.getTotalTimeMillis();
+		ServerHttpRequest requestToUse = exchange.getRequest();
+
+		boolean shouldLog = this.shouldLog(requestToUse);
+		// with sampling the request message is only created if the request is actually logged
+		final String requestMessage = shouldLog && this.requestLogSampler == null ? getBeforeMessage(exchange) : "";
+
+		long startTime = System.nanoTime();
+
+		if (!shouldLog) {
+			return chain.filter(exchange);
+		}
+		// logged with the MDC entries of the trace context in the Reactor context
+		return chain.filter(exchange).doOnEach(signal -> {
+			if (signal.isOnComplete() || signal.isOnError()) {
+				Integer rawStatus = responseStatusOf(signal.getThrowable(), exchange.getResponse());
+				HttpStatus responseStatus = rawStatus != null ? HttpStatus.resolve(rawStatus) : null;
+				ReactorTracing.withMdc(signal.getContextView(), () -> this.logPlain(exchange, requestMessage, responseStatus, startTime));
 			}
-			if (shouldLog) {
-				afterRequest(requestMessage + ", "
-						+ getAfterMessage(requestToUse, exchange.getResponse().getStatusCode(), exchange.getResponse())
-						+ requestResponseDuration);
+		});
+
+	}
+
+	private void logPlain(ServerWebExchange exchange, String requestMessage, HttpStatus responseStatus, long startTime) {
+		long duration = System.nanoTime() - startTime;
+		if (!this.isSampled(exchange, responseStatus != null ? responseStatus.value() : HttpStatus.OK.value(), duration)) {
+			return;
+		}
+		String message = this.requestLogSampler != null ? getBeforeMessage(exchange) : requestMessage;
+		String requestResponseDuration = "";
+		if (this.recordDuration) {
+			requestResponseDuration = ", duration=" + TimeUnit.NANOSECONDS.toMillis(duration);
+		}
+		afterRequest(message + ", " + getAfterMessage(exchange.getRequest(), responseStatus, exchange.getResponse())
+				+ requestResponseDuration);
+	}
+
+	/**
+	 * Errors not handled by the error handling of the application are answered with 500, so they are logged and sampled as such instead of
+	 * with the not yet committed status of the response.
+	 */
+	private static Integer responseStatusOf(@Nullable Throwable error, ServerHttpResponse response) {
+		if (error == null) {
+			return response.getRawStatusCode();
+		}
+		if (error instanceof ResponseStatusException) {
+			return ((ResponseStatusException) error).getRawStatusCode();
+		}
+		return HttpStatus.INTERNAL_SERVER_ERROR.value();
+	}
+
+	private boolean isSampled(ServerWebExchange exchange, int status, long durationNanos) {
+		return this.requestLogSampler == null
+				|| this.requestLogSampler.sample(exchange.getRequest().getPath().pathWithinApplication(), status, durationNanos);
+	}
+
+	/**
+	 * Variant of {@link #filter} which captures the request/response details into a reusable {@link RequestLogEvent} and renders it with the
+	 * {@link RequestLogEventFormatter} instead of concatenating message strings.
+	 */
+	private Mono<Void> filterWithEventLogging(ServerWebExchange exchange, WebFilterChain chain) {
+		if (!this.shouldLog(exchange.getRequest())) {
+			return chain.filter(exchange);
+		}
+
+		long startTime = System.nanoTime();
+		return chain.filter(exchange).doOnEach(signal -> {
+			if (signal.isOnComplete() || signal.isOnError()) {
+				Integer responseStatus = responseStatusOf(signal.getThrowable(), exchange.getResponse());
+				ReactorTracing.withMdc(signal.getContextView(), () -> this.logEvent(exchange, responseStatus, startTime));
 			}
-		}).doOnError(ex -> {
-			String requestResponseDuration = "";
-			if (requestResponseTime != null) {
-				requestResponseTime.stop();
-				requestResponseDuration = ", duration=" + requestResponseTime.getTotalTimeMillis();
+		});
+	}
+
+	private void logEvent(ServerWebExchange exchange, Integer responseStatus, long startTime) {
+		long duration = System.nanoTime() - startTime;
+		if (!this.isSampled(exchange, responseStatus != null ? responseStatus : HttpStatus.OK.value(), duration)) {
+			return;
+		}
+		RequestLogEvent event = RequestLogEventBuffers.threadLocalEvent();
+		if (this.recordDuration) {
+			event.setDurationNanos(duration);
+		}
+		this.captureRequest(event, exchange.getRequest());
+		this.captureResponse(event, responseStatus, exchange.getResponse());
+		this.afterRequest(RequestLogEventBuffers.format(event, this.requestLogEventFormatter));
+	}
+
+	protected void captureRequest(RequestLogEvent event, ServerHttpRequest request) {
+		event.setMethod(request.getMethodValue());
+		event.setUri(request.getURI().getRawPath());
+
+		if (this.isIncludeQueryString()) {
+			event.setQueryString(request.getURI().getRawQuery());
+		}
+
+		if (this.isIncludeClientInfo()) {
+			InetSocketAddress remoteAddress = request.getRemoteAddress();
+			if (remoteAddress != null) {
+				event.setClient(remoteAddress.getHostString());
 			}
-			if (shouldLog) {
-				HttpStatus responseStatus = exchange.getResponse().getStatusCode();
-				if (ex instanceof ResponseStatusException) {
-					responseStatus = ((ResponseStatusException) ex).getStatus();
+		}
+
+		if (this.isIncludeHeaders()) {
+			request.getHeaders().forEach((name, values) -> {
+				if (this.sensitiveHeaders != null && this.sensitiveHeaders.contains(name)) {
+					event.addRequestHeader(name, RequestLogEvent.MASKED_VALUE);
+				} else {
+					for (String value : values) {
+						event.addRequestHeader(name, value);
+					}
 				}
+			});
+		}
+		if (this.isIncludePayload()) {
+			event.setPayload(this.extractPayload(request));
+		}
+	}
 
-				afterRequest(requestMessage + ", "
-						+ getAfterMessage(requestToUse, responseStatus, exchange.getResponse())
-						+ requestResponseDuration);
-			}
-		});
+	protected void captureResponse(RequestLogEvent event, Integer responseStatus, ServerHttpResponse response) {
+		event.setStatus(responseStatus != null ? responseStatus : HttpStatus.OK.value());
 
+		if (this.isIncludeHeaders()) {
+			response.getHeaders().forEach((name, values) -> {
+				if (this.sensitiveHeaders != null && this.sensitiveHeaders.contains(name)) {
+					event.addResponseHeader(name, RequestLogEvent.MASKED_VALUE);
+				} else {
+					for (String value : values) {
+						event.addResponseHeader(name, value);
+					}
+				}
+			});
+		}
 	}
 
 	protected void afterRequest(String message) {
@@ -155,28 +291,18 @@ public class RequestLoggingFilter implements WebFilter, Ordered {
 			String suffix) {
 		StringBuilder msg = new StringBuilder();
 		msg.append(prefix);
-		msg.append("status=").append(responseStatus.value());
+		msg.append("status=").append(responseStatus != null ? responseStatus.value() : HttpStatus.OK.value());
 
 		if (this.isIncludeHeaders()) {
 			msg.append(", headers=").append(createHeaders(response.getHeaders()));
 		}
 
-		// if (this.isIncludePayload()) {
-		// ContentCachingRequestWrapper wrapper = WebUtils.getNativeRequest(request, ContentCachingRequestWrapper.class);
-		// if (wrapper != null) {
-		// byte[] buf = wrapper.getContentAsByteArray();
-		// if (buf.length > 0) {
-		// int length = Math.min(buf.length, this.getMaxPayloadLength());
-		// String payload;
-		// try {
-		// payload = new String(buf, 0, length, wrapper.getCharacterEncoding());
-		// } catch (UnsupportedEncodingException ex) {
-		// payload = "[unknown]";
-		// }
-		// msg.append(";requestPayload=").append(payload);
-		// }
-		// }
-		// }
+		if (this.isIncludePayload()) {
+			String payload = this.extractPayload(request);
+			if (payload != null) {
+				msg.append(";requestPayload=").append(payload);
+			}
+		}
 
 		msg.append(suffix);
 		return msg.toString();
@@ -234,6 +360,13 @@ public class RequestLoggingFilter implements WebFilter, Ordered {
 		return msg.toString();
 	}
 
+	private String extractPayload(ServerHttpRequest request) {
+		if (request instanceof PayloadCapturingServerHttpRequest) {
+			return ((PayloadCapturingServerHttpRequest) request).getPayload();
+		}
+		return null;
+	}
+
 	private String createHeaders(HttpHeaders headers) {
 		List<String> resultList = new ArrayList<>();
 		headers.forEach((key, value) -> {
@@ -346,4 +479,35 @@ public class RequestLoggingFilter implements WebFilter, Ordered {
 	public List<String> getSensitiveHeaders() {
 		return this.sensitiveHeaders;
 	}
+
+	/**
+	 * Sets the formatter for the log lines, e.g. JSON for structured output. If <code>null</code>, the plain message format built by
+	 * {@link #createRequestMessage} and {@link #createResponseMessage} is used.
+	 *
+	 * @param requestLogEventFormatter
+	 *            formatter for captured request log events
+	 */
+	public void setRequestLogEventFormatter(RequestLogEventFormatter requestLogEventFormatter) {
+		this.requestLogEventFormatter = requestLogEventFormatter;
+	}
+
+	/**
+	 * Enables sampling and rate limiting of the log lines. If <code>null</code>, every request is logged.
+	 *
+	 * @param requestLogSampler
+	 *            sampler which decides whether a processed request is logged
+	 */
+	public void setRequestLogSampler(RequestLogSampler requestLogSampler) {
+		this.requestLogSampler = requestLogSampler;
+	}
+
+	/**
+	 * Enables latency metrics per route, method and status class. If <code>null</code>, no metrics are recorded.
+	 *
+	 * @param requestLatencyRecorder
+	 *            recorder for the request durations
+	 */
+	public void setRequestLatencyRecorder(RequestLatencyRecorder requestLatencyRecorder) {
+		this.requestLatencyRecorder = requestLatencyRecorder;
+	}
 }
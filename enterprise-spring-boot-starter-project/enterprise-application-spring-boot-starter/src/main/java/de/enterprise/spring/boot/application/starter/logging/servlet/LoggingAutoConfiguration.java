@@ -1,5 +1,6 @@
 package de.enterprise.spring.boot.application.starter.logging.servlet;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
@@ -7,8 +8,15 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
+import de.enterprise.spring.boot.application.starter.logging.AsyncRequestLogDispatcher;
+import de.enterprise.spring.boot.application.starter.logging.JsonRequestLogEventFormatter;
 import de.enterprise.spring.boot.application.starter.logging.LoggingProperties;
+import de.enterprise.spring.boot.application.starter.logging.RequestLatencyRecorder;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogFormat;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogSampler;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Configuration class for to auto configure the log web request handling.
@@ -32,7 +40,8 @@ public class LoggingAutoConfiguration {
 	public static class WebLoggingEnabled {
 
 		@Bean
-		public RequestLoggingFilter requestLoggingFilter(LoggingProperties loggingProperties) {
+		public RequestLoggingFilter requestLoggingFilter(LoggingProperties loggingProperties,
+				ObjectProvider<RequestLogSampler> requestLogSampler, ObjectProvider<RequestLatencyRecorder> requestLatencyRecorder) {
 			RequestLoggingFilter requestLoggingFilter = new RequestLoggingFilter();
 			requestLoggingFilter.setBeforeMessagePrefix("request ");
 			requestLoggingFilter.setBeforeMessageSuffix("");
@@ -44,10 +53,29 @@ public class LoggingAutoConfiguration {
 			requestLoggingFilter.setIncludeHeaders(loggingProperties.isLogIncomingRequestWithHeaders());
 			requestLoggingFilter.setSensitiveHeaders(loggingProperties.getSensitiveIncomingHeaders());
 			requestLoggingFilter.setIncludeClientInfo(loggingProperties.isLogIncomingRequestWithClientInfo());
+			requestLoggingFilter.setRequestLogSampler(requestLogSampler.getIfAvailable());
+			requestLoggingFilter.setRequestLatencyRecorder(requestLatencyRecorder.getIfAvailable());
+			if (loggingProperties.getLogIncomingRequestFormat() == RequestLogFormat.JSON) {
+				requestLoggingFilter.setRequestLogEventFormatter(new JsonRequestLogEventFormatter());
+			}
 
 			return requestLoggingFilter;
 		}
 
+		// attaches itself to the filter and formats like it, not lazy as nothing depends on the dispatcher
+		@Bean(destroyMethod = "destroy")
+		@Lazy(false)
+		@ConditionalOnProperty(prefix = "enterprise-application.logging.async", name = "enabled", havingValue = "true")
+		public AsyncRequestLogDispatcher asyncRequestLogDispatcher(LoggingProperties loggingProperties,
+				RequestLoggingFilter requestLoggingFilter) {
+			AsyncRequestLogDispatcher dispatcher = new AsyncRequestLogDispatcher(loggingProperties.getAsync(),
+					requestLoggingFilter.createRequestLogEventFormatter());
+			dispatcher.start();
+			requestLoggingFilter.setAsyncRequestLogDispatcher(dispatcher);
+
+			return dispatcher;
+		}
+
 		@Bean
 		public FilterRegistrationBean<RequestLoggingFilter> logFilterRegistrationBean(LoggingProperties loggingProperties,
 				RequestLoggingFilter requestLoggingFilter) {
@@ -58,5 +86,17 @@ public class LoggingAutoConfiguration {
 
 			return filterRegistrationBean;
 		}
+
+		@Bean
+		@ConditionalOnProperty(prefix = "enterprise-application.logging.sampling", name = "enabled", havingValue = "true")
+		public RequestLogSampler requestLogSampler(LoggingProperties loggingProperties) {
+			return new RequestLogSampler(loggingProperties.getSampling());
+		}
+
+		@Bean
+		@ConditionalOnProperty(prefix = "enterprise-application.logging.metrics", name = "enabled", havingValue = "true")
+		public RequestLatencyRecorder requestLatencyRecorder(LoggingProperties loggingProperties, MeterRegistry meterRegistry) {
+			return new RequestLatencyRecorder(loggingProperties.getMetrics(), meterRegistry);
+		}
 	}
 }
@@ -5,6 +5,7 @@ import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -16,12 +17,19 @@ import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.jmx.export.annotation.ManagedOperation;
 import org.springframework.jmx.export.annotation.ManagedOperationParameter;
 import org.springframework.jmx.export.annotation.ManagedResource;
-import org.springframework.util.StopWatch;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.AbstractRequestLoggingFilter;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.util.ContentCachingRequestWrapper;
 import org.springframework.web.util.WebUtils;
 
+import de.enterprise.spring.boot.application.starter.logging.AsyncRequestLogDispatcher;
+import de.enterprise.spring.boot.application.starter.logging.DefaultRequestLogEventFormatter;
+import de.enterprise.spring.boot.application.starter.logging.RequestLatencyRecorder;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogEvent;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogEventBuffers;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogEventFormatter;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogSampler;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -32,6 +40,11 @@ import lombok.extern.slf4j.Slf4j;
 @ManagedResource(objectName = "de.enterprise.spring.boot.application:name=RequestLoggingFilter", description = "manage request logging filter")
 public class RequestLoggingFilter extends AbstractRequestLoggingFilter {
 
+	/**
+	 * Request attribute holding the start time of an asynchronously processed request until its final dispatch.
+	 */
+	public static final String START_TIME_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".START_TIME";
+
 	private String beforeMessagePrefix = DEFAULT_BEFORE_MESSAGE_PREFIX;
 	private String beforeMessageSuffix = DEFAULT_BEFORE_MESSAGE_SUFFIX;
 	private String afterMessagePrefix = DEFAULT_AFTER_MESSAGE_PREFIX;
@@ -41,6 +54,14 @@ public class RequestLoggingFilter extends AbstractRequestLoggingFilter {
 
 	private List<String> sensitiveHeaders;
 
+	private AsyncRequestLogDispatcher asyncRequestLogDispatcher;
+
+	private RequestLogEventFormatter requestLogEventFormatter;
+
+	private RequestLogSampler requestLogSampler;
+
+	private RequestLatencyRecorder requestLatencyRecorder;
+
 	@ManagedOperation
 	public boolean isRecordDuration() {
 		return this.recordDuration;
@@ -69,36 +90,164 @@ public class RequestLoggingFilter extends AbstractRequestLoggingFilter {
 			requestToUse = new ContentCachingRequestWrapper(request, this.getMaxPayloadLength());
 		}
 
+		if (this.asyncRequestLogDispatcher != null || this.requestLogEventFormatter != null) {
+			this.doFilterWithEventLogging(requestToUse, response, filterChain);
+			return;
+		}
+
 		String requestMessage = "";
 
 		boolean shouldLog = this.shouldLog(requestToUse);
-		if (shouldLog && isFirstRequest) {
+		// with sampling the request message is only created if the request is actually logged
+		if (shouldLog && isFirstRequest && this.requestLogSampler == null) {
 			requestMessage = this.getBeforeMessage(requestToUse);
 		}
 
-		StopWatch requestResponseTime = null;
-		if (this.recordDuration) {
-			requestResponseTime = new StopWatch();
-		}
-
+		long startTime = this.startTime(requestToUse, isFirstRequest);
 		try {
-			if (this.recordDuration && requestResponseTime != null) {
-				requestResponseTime.start();
-			}
 			filterChain.doFilter(requestToUse, response);
 		} finally {
-			String requestResponseDuration = "";
-			if (this.recordDuration && requestResponseTime != null) {
-				requestResponseTime.stop();
-				requestResponseDuration = ", duration=" + requestResponseTime.getTotalTimeMillis();
-			}
-			if (shouldLog && !this.isAsyncStarted(requestToUse)) {
+			long duration = this.durationSince(requestToUse, startTime);
+			this.recordLatency(requestToUse, response, duration);
+			if (shouldLog && !this.isAsyncStarted(requestToUse) && this.isSampled(requestToUse, response, duration)) {
+				if (this.requestLogSampler != null && isFirstRequest) {
+					requestMessage = this.getBeforeMessage(requestToUse);
+				}
+				String requestResponseDuration = "";
+				if (this.recordDuration) {
+					requestResponseDuration = ", duration=" + TimeUnit.NANOSECONDS.toMillis(duration);
+				}
 				this.afterRequest(requestToUse,
 						requestMessage + ", " + this.getAfterMessage(requestToUse, response) + requestResponseDuration);
 			}
 		}
 	}
 
+	/**
+	 * Variant of {@link #doFilterInternal} which captures the request/response details into a reusable {@link RequestLogEvent} instead of
+	 * concatenating message strings. The event is either handed to the {@link AsyncRequestLogDispatcher} or directly rendered by the
+	 * {@link RequestLogEventFormatter}.
+	 */
+	private void doFilterWithEventLogging(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		long startTime = this.startTime(request, !this.isAsyncDispatch(request));
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			long duration = this.durationSince(request, startTime);
+			this.recordLatency(request, response, duration);
+			if (this.shouldLog(request) && !this.isAsyncStarted(request) && this.isSampled(request, response, duration)) {
+				RequestLogEvent event = this.asyncRequestLogDispatcher != null ? this.asyncRequestLogDispatcher.acquire()
+						: RequestLogEventBuffers.threadLocalEvent();
+				if (event != null) {
+					if (this.recordDuration) {
+						event.setDurationNanos(duration);
+					}
+					this.captureRequest(event, request);
+					this.captureResponse(event, request, response);
+					if (this.asyncRequestLogDispatcher != null) {
+						this.asyncRequestLogDispatcher.publish(event);
+					} else {
+						this.afterRequest(request, RequestLogEventBuffers.format(event, this.requestLogEventFormatter));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Asynchronously processed requests pass the filter on the initial and the final dispatch, so their duration is measured from the
+	 * start of the initial dispatch.
+	 */
+	private long startTime(HttpServletRequest request, boolean isFirstRequest) {
+		if (!isFirstRequest) {
+			Object startTime = request.getAttribute(START_TIME_ATTRIBUTE);
+			if (startTime instanceof Long) {
+				return (Long) startTime;
+			}
+		}
+		return System.nanoTime();
+	}
+
+	private long durationSince(HttpServletRequest request, long startTime) {
+		if (this.isAsyncStarted(request)) {
+			request.setAttribute(START_TIME_ATTRIBUTE, startTime);
+		}
+		return System.nanoTime() - startTime;
+	}
+
+	private void recordLatency(HttpServletRequest request, HttpServletResponse response, long durationNanos) {
+		if (this.requestLatencyRecorder != null && !this.isAsyncStarted(request)) {
+			Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+			this.requestLatencyRecorder.record(route != null ? route.toString() : null, request.getMethod(), response.getStatus(),
+					durationNanos);
+		}
+	}
+
+	private boolean isSampled(HttpServletRequest request, HttpServletResponse response, long durationNanos) {
+		if (this.requestLogSampler == null) {
+			return true;
+		}
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		return this.requestLogSampler.sample(path, response.getStatus(), durationNanos);
+	}
+
+	protected void captureRequest(RequestLogEvent event, HttpServletRequest request) {
+		event.setMethod(request.getMethod());
+		event.setUri(request.getRequestURI());
+
+		if (this.isIncludeQueryString()) {
+			event.setQueryString(request.getQueryString());
+		}
+
+		if (this.isIncludeClientInfo()) {
+			String client = request.getRemoteAddr();
+			if (StringUtils.hasLength(client)) {
+				event.setClient(client);
+			}
+			HttpSession session = request.getSession(false);
+			if (session != null) {
+				event.setSession(session.getId());
+			}
+			event.setUser(request.getRemoteUser());
+		}
+
+		if (this.isIncludeHeaders()) {
+			Enumeration<String> headerNames = request.getHeaderNames();
+			while (headerNames.hasMoreElements()) {
+				String headerName = headerNames.nextElement();
+				if (this.sensitiveHeaders != null && this.sensitiveHeaders.contains(headerName)) {
+					event.addRequestHeader(headerName, RequestLogEvent.MASKED_VALUE);
+				} else {
+					Enumeration<String> headers = request.getHeaders(headerName);
+					while (headers.hasMoreElements()) {
+						event.addRequestHeader(headerName, headers.nextElement());
+					}
+				}
+			}
+		}
+	}
+
+	protected void captureResponse(RequestLogEvent event, HttpServletRequest request, HttpServletResponse response) {
+		event.setStatus(response.getStatus());
+
+		if (this.isIncludeHeaders()) {
+			for (String headerName : response.getHeaderNames()) {
+				if (this.sensitiveHeaders != null && this.sensitiveHeaders.contains(headerName)) {
+					event.addResponseHeader(headerName, RequestLogEvent.MASKED_VALUE);
+				} else {
+					for (String headerValue : response.getHeaders(headerName)) {
+						event.addResponseHeader(headerName, headerValue);
+					}
+				}
+			}
+		}
+
+		if (this.isIncludePayload()) {
+			event.setPayload(this.extractPayload(request));
+		}
+	}
+
 	protected String getBeforeMessage(HttpServletRequest request) {
 		return this.createRequestMessage(request, this.beforeMessagePrefix, this.beforeMessageSuffix);
 	}
@@ -186,19 +335,9 @@ public class RequestLoggingFilter extends AbstractRequestLoggingFilter {
 		}
 
 		if (this.isIncludePayload()) {
-			ContentCachingRequestWrapper wrapper = WebUtils.getNativeRequest(request, ContentCachingRequestWrapper.class);
-			if (wrapper != null) {
-				byte[] buf = wrapper.getContentAsByteArray();
-				if (buf.length > 0) {
-					int length = Math.min(buf.length, this.getMaxPayloadLength());
-					String payload;
-					try {
-						payload = new String(buf, 0, length, wrapper.getCharacterEncoding());
-					} catch (UnsupportedEncodingException ex) {
-						payload = "[unknown]";
-					}
-					msg.append(";requestPayload=").append(payload);
-				}
+			String payload = this.extractPayload(request);
+			if (payload != null) {
+				msg.append(";requestPayload=").append(payload);
 			}
 		}
 
@@ -206,6 +345,22 @@ public class RequestLoggingFilter extends AbstractRequestLoggingFilter {
 		return msg.toString();
 	}
 
+	private String extractPayload(HttpServletRequest request) {
+		ContentCachingRequestWrapper wrapper = WebUtils.getNativeRequest(request, ContentCachingRequestWrapper.class);
+		if (wrapper != null) {
+			byte[] buf = wrapper.getContentAsByteArray();
+			if (buf.length > 0) {
+				int length = Math.min(buf.length, this.getMaxPayloadLength());
+				try {
+					return new String(buf, 0, length, wrapper.getCharacterEncoding());
+				} catch (UnsupportedEncodingException ex) {
+					return "[unknown]";
+				}
+			}
+		}
+		return null;
+	}
+
 	@Override
 	protected boolean shouldLog(HttpServletRequest request) {
 		return log.isInfoEnabled() && !request.getRequestURI().startsWith("/manage/");
@@ -310,4 +465,59 @@ public class RequestLoggingFilter extends AbstractRequestLoggingFilter {
 		return this.sensitiveHeaders;
 	}
 
+	/**
+	 * Enables asynchronous writing of the request log lines through the given dispatcher. If <code>null</code>, log lines are written on
+	 * the request thread.
+	 *
+	 * @param asyncRequestLogDispatcher
+	 *            dispatcher which writes the captured log events
+	 */
+	public void setAsyncRequestLogDispatcher(AsyncRequestLogDispatcher asyncRequestLogDispatcher) {
+		this.asyncRequestLogDispatcher = asyncRequestLogDispatcher;
+	}
+
+	/**
+	 * Sets the formatter for log lines written on the request thread, e.g. JSON for structured output. If
+	 * <code>null</code>, the plain message format built by {@link #createRequestMessage} and {@link #createResponseMessage} is used.
+	 *
+	 * @param requestLogEventFormatter
+	 *            formatter for captured request log events
+	 */
+	public void setRequestLogEventFormatter(RequestLogEventFormatter requestLogEventFormatter) {
+		this.requestLogEventFormatter = requestLogEventFormatter;
+	}
+
+	/**
+	 * Returns the formatter for log lines written from captured events by other threads, e.g. by the {@link AsyncRequestLogDispatcher}.
+	 *
+	 * @return the configured formatter, or the plain message format with the configured message prefixes and suffixes
+	 */
+	public RequestLogEventFormatter createRequestLogEventFormatter() {
+		if (this.requestLogEventFormatter != null) {
+			return this.requestLogEventFormatter;
+		}
+		return new DefaultRequestLogEventFormatter(this.beforeMessagePrefix, this.beforeMessageSuffix, this.afterMessagePrefix,
+				this.afterMessageSuffix);
+	}
+
+	/**
+	 * Enables sampling and rate limiting of the log lines. If <code>null</code>, every request is logged.
+	 *
+	 * @param requestLogSampler
+	 *            sampler which decides whether a processed request is logged
+	 */
+	public void setRequestLogSampler(RequestLogSampler requestLogSampler) {
+		this.requestLogSampler = requestLogSampler;
+	}
+
+	/**
+	 * Enables latency metrics per route, method and status class. If <code>null</code>, no metrics are recorded.
+	 *
+	 * @param requestLatencyRecorder
+	 *            recorder for the request durations
+	 */
+	public void setRequestLatencyRecorder(RequestLatencyRecorder requestLatencyRecorder) {
+		this.requestLatencyRecorder = requestLatencyRecorder;
+	}
+
 }
@@ -0,0 +1,121 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects ended spans in a bounded queue and passes them in batches to a {@link SpanExporter} on a background thread, so ending a span
+ * never blocks. Spans are dropped if the queue is full or the export fails, exported and dropped spans are published as metric.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Slf4j
+public class BatchingSpanProcessor implements MeterBinder {
+
+	private final SpanExporter exporter;
+	private final int batchSize;
+	private final BlockingQueue<Span> queue;
+	private final ScheduledExecutorService executor;
+
+	private final LongAdder exportedSpans = new LongAdder();
+	private final LongAdder droppedSpans = new LongAdder();
+
+	/**
+	 * Creates the processor and starts its background thread.
+	 *
+	 * @param exporter
+	 *            exporter of the spans
+	 * @param maxQueueSize
+	 *            maximum number of spans waiting for the export
+	 * @param batchSize
+	 *            maximum number of spans per export
+	 * @param exportInterval
+	 *            delay between exports
+	 */
+	public BatchingSpanProcessor(SpanExporter exporter, int maxQueueSize, int batchSize, Duration exportInterval) {
+		this.exporter = exporter;
+		this.batchSize = batchSize;
+		this.queue = new ArrayBlockingQueue<>(maxQueueSize);
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "span-exporter");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.executor.scheduleWithFixedDelay(this::flush, exportInterval.toMillis(), exportInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Queues the ended span for the next export.
+	 *
+	 * @param span
+	 *            ended span
+	 */
+	public void onEnd(Span span) {
+		if (!this.queue.offer(span)) {
+			this.droppedSpans.increment();
+		}
+	}
+
+	/**
+	 * Exports all queued spans on the calling thread.
+	 */
+	public synchronized void flush() {
+		List<Span> batch = new ArrayList<>(this.batchSize);
+		while (this.queue.drainTo(batch, this.batchSize) > 0) {
+			try {
+				this.exporter.export(batch);
+				this.exportedSpans.add(batch.size());
+			} catch (RuntimeException e) {
+				log.warn("export of {} spans failed", batch.size(), e);
+				this.droppedSpans.add(batch.size());
+			}
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Stops the background thread and exports the remaining spans.
+	 */
+	public void shutdown() {
+		this.executor.shutdown();
+		try {
+			this.executor.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.flush();
+	}
+
+	public long getExportedSpans() {
+		return this.exportedSpans.sum();
+	}
+
+	public long getDroppedSpans() {
+		return this.droppedSpans.sum();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registerCounter(registry, this.exportedSpans, "exported");
+		this.registerCounter(registry, this.droppedSpans, "dropped");
+	}
+
+	private void registerCounter(MeterRegistry registry, LongAdder spans, String result) {
+		FunctionCounter.builder("tracing.spans", spans, LongAdder::doubleValue)
+				.description("ended spans passed to the exporter or dropped because the queue was full or the export failed")
+				.tag("result", result).register(registry);
+	}
+}
@@ -0,0 +1,66 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Default {@link IdGenerator} creating 128 bit ids of the current time, a node tag and random bits, encoded as 22 characters.
+ * <ul>
+ * <li>48 bits of milliseconds since epoch, so ids are sorted by creation time</li>
+ * <li>24 bits of node tag, chosen once per instance with {@link SecureRandom} if not given</li>
+ * <li>56 random bits of {@link ThreadLocalRandom}, so creating ids neither blocks nor contends between threads</li>
+ * </ul>
+ * The alphabet <code>-0-9A-Z_a-z</code> is url safe and keeps the ascii order of the encoded bits.
+ *
+ * @author Malte Geßner
+ *
+ */
+public class CompactIdGenerator implements IdGenerator {
+
+	private static final char[] ALPHABET = "-0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ_abcdefghijklmnopqrstuvwxyz".toCharArray();
+	private static final int NODE_BITS = 24;
+	private static final int RANDOM_BITS = 56;
+	private static final int CHARS_PER_LONG = 11;
+
+	private final int node;
+
+	/**
+	 * Creates the generator with a random node tag.
+	 */
+	public CompactIdGenerator() {
+		this(new SecureRandom().nextInt());
+	}
+
+	/**
+	 * Creates the generator with the given node tag.
+	 *
+	 * @param node
+	 *            node tag, only the lower 24 bits are used
+	 */
+	public CompactIdGenerator(int node) {
+		this.node = node & ((1 << NODE_BITS) - 1);
+	}
+
+	@Override
+	public String generateId() {
+		long random = ThreadLocalRandom.current().nextLong() >>> (Long.SIZE - RANDOM_BITS);
+		long high = System.currentTimeMillis() << (NODE_BITS - 8) | this.node >>> 8;
+		long low = (long) (this.node & 0xFF) << RANDOM_BITS | random;
+
+		char[] id = new char[2 * CHARS_PER_LONG];
+		encode(high, id, 0);
+		encode(low, id, CHARS_PER_LONG);
+		return new String(id);
+	}
+
+	/**
+	 * Encodes the 64 bits as 11 characters of 6 bits, most significant first.
+	 */
+	private static void encode(long value, char[] target, int offset) {
+		long remaining = value;
+		for (int i = offset + CHARS_PER_LONG - 1; i >= offset; i--) {
+			target[i] = ALPHABET[(int) (remaining & 0x3F)];
+			remaining >>>= 6;
+		}
+	}
+}
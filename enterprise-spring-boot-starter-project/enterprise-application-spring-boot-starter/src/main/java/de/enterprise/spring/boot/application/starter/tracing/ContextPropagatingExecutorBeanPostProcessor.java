@@ -0,0 +1,106 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.Callable;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+
+import de.enterprise.spring.boot.application.starter.clustering.scheduling.NamedTask;
+
+/**
+ * Decorates all {@link ThreadPoolTaskExecutor} and {@link TaskScheduler} beans with the {@link ContextPropagatingTaskDecorator}, so
+ * <code>@Async</code> methods and scheduled tasks keep the trace context of the caller.
+ * <p>
+ * An existing task decorator of an executor is kept and runs inside the trace context. Task schedulers are proxied, only tasks running
+ * once are decorated: periodic tasks would run every execution in the trace context of their registration. The tasks of
+ * <code>@Scheduled</code> methods are not decorated as they are registered without trace context, a {@link NamedTask} keeps its name.
+ *
+ * @author Malte Geßner
+ *
+ */
+public class ContextPropagatingExecutorBeanPostProcessor implements BeanPostProcessor {
+
+	private final ObjectProvider<ContextPropagatingTaskDecorator> taskDecorator;
+
+	public ContextPropagatingExecutorBeanPostProcessor(ObjectProvider<ContextPropagatingTaskDecorator> taskDecorator) {
+		this.taskDecorator = taskDecorator;
+	}
+
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName) {
+		if (bean instanceof ThreadPoolTaskExecutor) {
+			// the decorator must be set before the executor is initialized
+			ThreadPoolTaskExecutor taskExecutor = (ThreadPoolTaskExecutor) bean;
+			ContextPropagatingTaskDecorator contextDecorator = this.taskDecorator.getObject();
+			TaskDecorator existing = (TaskDecorator) new DirectFieldAccessor(taskExecutor).getPropertyValue("taskDecorator");
+			if (existing == null || existing instanceof ContextPropagatingTaskDecorator) {
+				taskExecutor.setTaskDecorator(contextDecorator);
+			} else {
+				taskExecutor.setTaskDecorator(runnable -> contextDecorator.decorate(existing.decorate(runnable)));
+			}
+		}
+		return bean;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof TaskScheduler && !AopUtils.isAopProxy(bean)) {
+			ProxyFactory proxyFactory = new ProxyFactory(bean);
+			proxyFactory.setProxyTargetClass(true);
+			proxyFactory.addAdvice(this.createInterceptor());
+			return proxyFactory.getProxy(bean.getClass().getClassLoader());
+		}
+		return bean;
+	}
+
+	@SuppressWarnings("unchecked")
+	private MethodInterceptor createInterceptor() {
+		return invocation -> {
+			if (!isOneShot(invocation.getMethod())) {
+				return invocation.proceed();
+			}
+			Object[] arguments = invocation.getArguments();
+			for (int i = 0; i < arguments.length; i++) {
+				if (arguments[i] instanceof ScheduledMethodRunnable) {
+					continue;
+				}
+				if (arguments[i] instanceof NamedTask) {
+					// keep the name for the cluster coordination
+					NamedTask namedTask = (NamedTask) arguments[i];
+					arguments[i] = NamedTask.of(namedTask.getTaskName(), this.taskDecorator.getObject().decorate(namedTask));
+				} else if (arguments[i] instanceof Runnable) {
+					arguments[i] = this.taskDecorator.getObject().decorate((Runnable) arguments[i]);
+				} else if (arguments[i] instanceof Callable) {
+					arguments[i] = this.taskDecorator.getObject().decorateCallable((Callable<Object>) arguments[i]);
+				}
+			}
+			return invocation.proceed();
+		};
+	}
+
+	private static boolean isOneShot(Method method) {
+		switch (method.getName()) {
+		case "execute":
+		case "submit":
+		case "submitListenable":
+			return true;
+		case "schedule":
+			// schedule(Runnable, Trigger) reschedules the task
+			Class<?>[] parameterTypes = method.getParameterTypes();
+			return parameterTypes.length == 2 && (parameterTypes[1] == Date.class || parameterTypes[1] == Instant.class);
+		default:
+			return false;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Passes the trace context of the submitting thread to the task: only the configured {@link MDC} keys and the current span are copied,
+ * the previous context of the executing thread is restored after the task.
+ * <p>
+ * {@link java.util.concurrent.CompletableFuture} chains keep the context with a wrapped executor:
+ *
+ * <pre>
+ * CompletableFuture.supplyAsync(supplier, taskDecorator.wrap(executor))
+ * </pre>
+ *
+ * @author Malte Geßner
+ *
+ */
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+	private final String[] mdcKeys;
+
+	public ContextPropagatingTaskDecorator(TracingProperties tracingProperties) {
+		Set<String> keys = new LinkedHashSet<>();
+		keys.add(tracingProperties.getMdcKey());
+		keys.add(tracingProperties.getSpanIdMdcKey());
+		keys.add(tracingProperties.getSessionIdKey());
+		keys.add(tracingProperties.getRequestIdMdcKey());
+		keys.addAll(tracingProperties.getPropagatedMdcKeys());
+		this.mdcKeys = keys.toArray(new String[0]);
+	}
+
+	@Override
+	public Runnable decorate(Runnable runnable) {
+		return ContextSnapshot.capture(this.mdcKeys).wrap(runnable);
+	}
+
+	/**
+	 * Decorates the callable like {@link #decorate(Runnable)}.
+	 *
+	 * @param <V>
+	 *            result type
+	 * @param callable
+	 *            callable to decorate
+	 * @return decorated callable
+	 */
+	public <V> Callable<V> decorateCallable(Callable<V> callable) {
+		return ContextSnapshot.capture(this.mdcKeys).wrap(callable);
+	}
+
+	/**
+	 * Wraps the executor to decorate each command.
+	 *
+	 * @param executor
+	 *            executor to wrap
+	 * @return executor passing the trace context
+	 */
+	public Executor wrap(Executor executor) {
+		return command -> executor.execute(this.decorate(command));
+	}
+}
@@ -0,0 +1,96 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.util.concurrent.Callable;
+
+import org.slf4j.MDC;
+
+/**
+ * Snapshot of the trace context of a thread: the values of some {@link MDC} keys and the current span. A task wrapped by the snapshot
+ * runs with this context on another thread, the previous context of that thread is restored afterwards.
+ *
+ * @author Malte Geßner
+ *
+ */
+public final class ContextSnapshot {
+
+	private final String[] keys;
+	private final String[] values;
+	private final Span span;
+
+	private ContextSnapshot(String[] keys, String[] values, Span span) {
+		this.keys = keys;
+		this.values = values;
+		this.span = span;
+	}
+
+	/**
+	 * Captures the trace context of the current thread.
+	 *
+	 * @param keys
+	 *            {@link MDC} keys to capture
+	 * @return snapshot of the current context
+	 */
+	public static ContextSnapshot capture(String... keys) {
+		String[] values = new String[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			values[i] = MDC.get(keys[i]);
+		}
+		return new ContextSnapshot(keys, values, TracingUtils.currentSpan());
+	}
+
+	/**
+	 * Wraps the task to run with the captured context.
+	 *
+	 * @param task
+	 *            task to wrap
+	 * @return wrapped task
+	 */
+	public Runnable wrap(Runnable task) {
+		return () -> {
+			ContextSnapshot previous = this.apply();
+			try {
+				task.run();
+			} finally {
+				previous.apply();
+			}
+		};
+	}
+
+	/**
+	 * Wraps the task to run with the captured context.
+	 *
+	 * @param <V>
+	 *            result type
+	 * @param task
+	 *            task to wrap
+	 * @return wrapped task
+	 */
+	public <V> Callable<V> wrap(Callable<V> task) {
+		return () -> {
+			ContextSnapshot previous = this.apply();
+			try {
+				return task.call();
+			} finally {
+				previous.apply();
+			}
+		};
+	}
+
+	/**
+	 * Applies the captured context to the current thread.
+	 *
+	 * @return snapshot of the replaced context
+	 */
+	ContextSnapshot apply() {
+		ContextSnapshot previous = capture(this.keys);
+		for (int i = 0; i < this.keys.length; i++) {
+			if (this.values[i] == null) {
+				MDC.remove(this.keys[i]);
+			} else {
+				MDC.put(this.keys[i], this.values[i]);
+			}
+		}
+		TracingUtils.setCurrentSpan(this.span);
+		return previous;
+	}
+}
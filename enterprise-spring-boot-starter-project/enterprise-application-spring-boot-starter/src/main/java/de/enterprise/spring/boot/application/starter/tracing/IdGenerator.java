@@ -0,0 +1,21 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+/**
+ * Generates the ids correlating log entries, e.g. the trace ids and the ids of logged outgoing requests. Implementations are called on
+ * every request, so they have to be thread safe and should neither block nor contend.
+ * <p>
+ * The generator is set via {@link TracingUtils#setIdGenerator(IdGenerator)} or as bean, the default is {@link CompactIdGenerator}.
+ *
+ * @author Malte Geßner
+ *
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+	/**
+	 * Generates a new id.
+	 *
+	 * @return id, unique at least for the running application
+	 */
+	String generateId();
+}
@@ -0,0 +1,52 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * {@link SpanExporter} keeping the last exported spans in memory, e.g. for tests or to inspect spans without a tracing backend.
+ *
+ * @author Malte Geßner
+ *
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+	private final int capacity;
+	private final Deque<Span> spans;
+
+	/**
+	 * Creates the exporter.
+	 *
+	 * @param capacity
+	 *            maximum number of spans kept, older spans are discarded
+	 */
+	public InMemorySpanExporter(int capacity) {
+		this.capacity = capacity;
+		this.spans = new ArrayDeque<>(capacity);
+	}
+
+	@Override
+	public synchronized void export(List<Span> exportedSpans) {
+		for (Span span : exportedSpans) {
+			if (this.spans.size() == this.capacity) {
+				this.spans.removeFirst();
+			}
+			this.spans.addLast(span);
+		}
+	}
+
+	/**
+	 * Returns the kept spans, oldest first.
+	 *
+	 * @return copy of the kept spans
+	 */
+	public synchronized List<Span> getSpans() {
+		return new ArrayList<>(this.spans);
+	}
+
+	public synchronized void clear() {
+		this.spans.clear();
+	}
+}
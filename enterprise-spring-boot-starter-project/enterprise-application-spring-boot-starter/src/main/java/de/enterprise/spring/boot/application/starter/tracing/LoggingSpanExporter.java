@@ -0,0 +1,50 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link SpanExporter} writing one line per span to the logger <code>span-logger</code>, the default exporter if spans are enabled.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Slf4j(topic = "span-logger")
+public class LoggingSpanExporter implements SpanExporter {
+
+	private static final String VALUE_SEPARATOR = "; ";
+
+	@Override
+	public void export(List<Span> spans) {
+		if (!log.isInfoEnabled()) {
+			return;
+		}
+		for (Span span : spans) {
+			log.info(format(span));
+		}
+	}
+
+	static String format(Span span) {
+		TraceContext context = span.getContext();
+		StringBuilder line = new StringBuilder(256);
+		line.append("traceId=").append(context.getTraceId()).append(VALUE_SEPARATOR)
+				.append("spanId=").append(context.getSpanId()).append(VALUE_SEPARATOR);
+		if (context.getParentSpanId() != null) {
+			line.append("parentSpanId=").append(context.getParentSpanId()).append(VALUE_SEPARATOR);
+		}
+		line.append("name=").append(span.getName()).append(VALUE_SEPARATOR)
+				.append("kind=").append(span.getKind()).append(VALUE_SEPARATOR)
+				.append("startEpochMicros=").append(span.getStartEpochMicros()).append(VALUE_SEPARATOR)
+				.append("durationMicros=").append(TimeUnit.NANOSECONDS.toMicros(span.getDurationNanos()));
+		for (Map.Entry<String, String> tag : span.getTags().entrySet()) {
+			line.append(VALUE_SEPARATOR).append(tag.getKey()).append('=').append(tag.getValue());
+		}
+		if (span.getError() != null) {
+			line.append(VALUE_SEPARATOR).append("error=").append(span.getError());
+		}
+		return line.toString();
+	}
+}
@@ -0,0 +1,25 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+/**
+ * Determines how the servlet tracing filter puts the id of the HTTP session into the MDC.
+ *
+ * @author Malte Geßner
+ *
+ */
+public enum SessionIdMode {
+
+	/**
+	 * Creates a session for every request if none exists, the behavior of former versions.
+	 */
+	CREATE,
+
+	/**
+	 * Uses an existing session only, a session created while the request is processed is added as soon as it is created.
+	 */
+	EXISTING,
+
+	/**
+	 * Like {@link #EXISTING}, in addition every request gets a generated request id in the MDC, which does not need a session or cookie.
+	 */
+	REQUEST_ID
+}
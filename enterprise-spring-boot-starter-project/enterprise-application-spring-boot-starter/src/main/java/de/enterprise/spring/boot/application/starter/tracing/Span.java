@@ -0,0 +1,116 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Timed unit of work of a trace, e.g. an incoming request, an outgoing call or a scheduled task. A span is started by the {@link Tracer}
+ * and handed to its exporter when it is ended. Tags and the error have to be set by the thread owning the span before it is ended.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Getter
+public class Span {
+
+	/**
+	 * Role of the span in the trace.
+	 */
+	public enum Kind {
+		/**
+		 * Handles an incoming request.
+		 */
+		SERVER,
+		/**
+		 * Executes an outgoing call.
+		 */
+		CLIENT,
+		/**
+		 * Processes a received message.
+		 */
+		CONSUMER,
+		/**
+		 * Work without remote parent or child, e.g. a scheduled task.
+		 */
+		INTERNAL
+	}
+
+	private final String name;
+	private final Kind kind;
+	private final TraceContext context;
+	private final long startEpochMicros;
+	private final Map<String, String> tags = new LinkedHashMap<>();
+	private String error;
+	private long durationNanos = -1;
+
+	@Getter(AccessLevel.NONE)
+	private final long startNanos;
+	@Getter(AccessLevel.NONE)
+	private final Tracer tracer;
+	@Getter(AccessLevel.NONE)
+	private final AtomicBoolean ended = new AtomicBoolean();
+	// context of the thread before the span became its current span
+	@Getter(AccessLevel.PACKAGE)
+	@Setter(AccessLevel.PACKAGE)
+	private ContextSnapshot previousContext;
+
+	Span(String name, Kind kind, TraceContext context, Tracer tracer) {
+		this.name = name;
+		this.kind = kind;
+		this.context = context;
+		this.tracer = tracer;
+		this.startEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Adds a tag to the span.
+	 *
+	 * @param key
+	 *            key of the tag
+	 * @param value
+	 *            value of the tag
+	 * @return this span
+	 */
+	public Span tag(String key, Object value) {
+		this.tags.put(key, String.valueOf(value));
+		return this;
+	}
+
+	/**
+	 * Marks the span as failed.
+	 *
+	 * @param throwable
+	 *            cause of the failure
+	 * @return this span
+	 */
+	public Span error(Throwable throwable) {
+		this.error = throwable.getClass().getName() + (throwable.getMessage() != null ? ": " + throwable.getMessage() : "");
+		return this;
+	}
+
+	public Map<String, String> getTags() {
+		return Collections.unmodifiableMap(this.tags);
+	}
+
+	/**
+	 * Ends the span and hands it to the exporter of the tracer, further calls are ignored.
+	 */
+	public void end() {
+		if (this.ended.compareAndSet(false, true)) {
+			this.durationNanos = System.nanoTime() - this.startNanos;
+			this.tracer.onEnd(this);
+		}
+	}
+
+	public boolean isEnded() {
+		return this.ended.get();
+	}
+}
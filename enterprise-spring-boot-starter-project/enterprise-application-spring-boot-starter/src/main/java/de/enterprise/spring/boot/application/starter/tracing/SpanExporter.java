@@ -0,0 +1,22 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.util.List;
+
+/**
+ * Exports ended spans, e.g. to a log or a tracing backend. The exporter is called by the {@link BatchingSpanProcessor} from a single
+ * background thread with batches of spans, so it may block while sending them.
+ *
+ * @author Malte Geßner
+ *
+ */
+@FunctionalInterface
+public interface SpanExporter {
+
+	/**
+	 * Exports the spans.
+	 *
+	 * @param spans
+	 *            ended spans
+	 */
+	void export(List<Span> spans);
+}
@@ -0,0 +1,104 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.Value;
+
+/**
+ * Identifies a span within a trace: the trace id shared by all spans of the trace, the id of the span and the id of its parent span. The
+ * sampled flag and the vendor specific trace state are propagated unchanged to child spans.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Value
+public class TraceContext {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	String traceId;
+	String spanId;
+	String parentSpanId;
+	boolean sampled;
+	String traceState;
+
+	/**
+	 * Creates the context of a new span without parent in the given trace.
+	 *
+	 * @param traceId
+	 *            id of the trace
+	 * @return context of the root span
+	 */
+	public static TraceContext newRoot(String traceId) {
+		return new TraceContext(traceId, newSpanId(), null, true, null);
+	}
+
+	/**
+	 * Creates the context of a new child span of this span.
+	 *
+	 * @return context of the child span
+	 */
+	public TraceContext newChild() {
+		return new TraceContext(this.traceId, newSpanId(), this.spanId, this.sampled, this.traceState);
+	}
+
+	/**
+	 * Checks if the trace id can be propagated with W3C or B3 headers, which require 32 lower case hex digits.
+	 *
+	 * @return <code>true</code> if the trace id is a 128 bit hex id
+	 */
+	public boolean hasHexTraceId() {
+		return isHexId(this.traceId, 32);
+	}
+
+	/**
+	 * Generates a random 128 bit trace id of 32 hex digits.
+	 *
+	 * @return trace id
+	 */
+	public static String newTraceId() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		return toHex(random.nextLong(), random.nextLong());
+	}
+
+	/**
+	 * Generates a random 64 bit span id of 16 hex digits.
+	 *
+	 * @return span id
+	 */
+	public static String newSpanId() {
+		long id;
+		do {
+			id = ThreadLocalRandom.current().nextLong();
+		} while (id == 0);
+		return toHex(id);
+	}
+
+	static boolean isHexId(String id, int length) {
+		if (id == null || id.length() != length) {
+			return false;
+		}
+		boolean zero = true;
+		for (int i = 0; i < length; i++) {
+			char c = id.charAt(i);
+			if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+				return false;
+			}
+			zero &= c == '0';
+		}
+		// an id of zeros is invalid
+		return !zero;
+	}
+
+	private static String toHex(long... values) {
+		char[] hex = new char[values.length * 16];
+		for (int i = 0; i < values.length; i++) {
+			long value = values[i];
+			for (int j = i * 16 + 15; j >= i * 16; j--) {
+				hex[j] = HEX_DIGITS[(int) (value & 0xF)];
+				value >>>= 4;
+			}
+		}
+		return new String(hex);
+	}
+}
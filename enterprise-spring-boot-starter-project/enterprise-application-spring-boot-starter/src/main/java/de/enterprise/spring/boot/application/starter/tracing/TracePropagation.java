@@ -0,0 +1,20 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+/**
+ * Header formats to read and write the trace context of incoming and outgoing calls, in addition to the trace id header.
+ *
+ * @author Malte Geßner
+ *
+ */
+public enum TracePropagation {
+
+	/**
+	 * W3C Trace Context: <code>traceparent</code> and <code>tracestate</code>.
+	 */
+	W3C,
+
+	/**
+	 * B3 of Zipkin: reads the single <code>b3</code> header and the <code>X-B3-*</code> headers, writes the <code>X-B3-*</code> headers.
+	 */
+	B3
+}
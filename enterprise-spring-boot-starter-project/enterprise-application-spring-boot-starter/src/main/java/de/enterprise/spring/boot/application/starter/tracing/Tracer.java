@@ -0,0 +1,194 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Starts spans and reads and writes their trace context in the configured {@link TracePropagation} formats. Ended spans are passed to the
+ * {@link BatchingSpanProcessor}, without processor spans are only used to propagate the trace context.
+ *
+ * @author Malte Geßner
+ *
+ */
+public class Tracer {
+
+	static final String TRACEPARENT = "traceparent";
+	static final String TRACESTATE = "tracestate";
+	static final String B3 = "b3";
+	static final String B3_TRACE_ID = "X-B3-TraceId";
+	static final String B3_SPAN_ID = "X-B3-SpanId";
+	static final String B3_PARENT_SPAN_ID = "X-B3-ParentSpanId";
+	static final String B3_SAMPLED = "X-B3-Sampled";
+	static final String B3_FLAGS = "X-B3-Flags";
+
+	private final List<TracePropagation> propagation;
+	private final BatchingSpanProcessor spanProcessor;
+
+	/**
+	 * Creates the tracer.
+	 *
+	 * @param propagation
+	 *            formats to read and write, the first readable format of an incoming call is used
+	 * @param spanProcessor
+	 *            processor of ended spans, may be <code>null</code>
+	 */
+	public Tracer(Collection<TracePropagation> propagation, BatchingSpanProcessor spanProcessor) {
+		this.propagation = new ArrayList<>(propagation);
+		this.spanProcessor = spanProcessor;
+	}
+
+	/**
+	 * Checks if trace contexts are propagated in W3C or B3 format, which requires hex trace ids.
+	 *
+	 * @return <code>true</code> if at least one format is configured
+	 */
+	public boolean isPropagating() {
+		return !this.propagation.isEmpty();
+	}
+
+	/**
+	 * Starts a span.
+	 *
+	 * @param name
+	 *            name of the span
+	 * @param kind
+	 *            kind of the span
+	 * @param parent
+	 *            context of the local or remote parent span, may be <code>null</code>
+	 * @param rootTraceId
+	 *            trace id used if the span has no parent
+	 * @return started span
+	 */
+	public Span startSpan(String name, Span.Kind kind, TraceContext parent, String rootTraceId) {
+		TraceContext context = parent != null ? parent.newChild() : TraceContext.newRoot(rootTraceId);
+		return new Span(name, kind, context, this);
+	}
+
+	void onEnd(Span span) {
+		if (this.spanProcessor != null && span.getContext().isSampled()) {
+			this.spanProcessor.onEnd(span);
+		}
+	}
+
+	/**
+	 * Reads the trace context of an incoming call.
+	 *
+	 * @param headers
+	 *            returns the value of a header or <code>null</code>
+	 * @return context of the remote parent span or <code>null</code> if no configured format is present or valid
+	 */
+	public TraceContext extract(UnaryOperator<String> headers) {
+		for (TracePropagation format : this.propagation) {
+			TraceContext context = format == TracePropagation.W3C ? extractW3c(headers) : extractB3(headers);
+			if (context != null) {
+				return context;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the trace context to an outgoing call, contexts without hex trace id are skipped.
+	 *
+	 * @param context
+	 *            context of the span executing the call
+	 * @param headers
+	 *            sets a header
+	 */
+	public void inject(TraceContext context, BiConsumer<String, String> headers) {
+		if (!context.hasHexTraceId()) {
+			return;
+		}
+		for (TracePropagation format : this.propagation) {
+			if (format == TracePropagation.W3C) {
+				headers.accept(TRACEPARENT, "00-" + context.getTraceId() + "-" + context.getSpanId() + (context.isSampled() ? "-01" : "-00"));
+				if (context.getTraceState() != null) {
+					headers.accept(TRACESTATE, context.getTraceState());
+				}
+			} else {
+				headers.accept(B3_TRACE_ID, context.getTraceId());
+				headers.accept(B3_SPAN_ID, context.getSpanId());
+				if (context.getParentSpanId() != null) {
+					headers.accept(B3_PARENT_SPAN_ID, context.getParentSpanId());
+				}
+				headers.accept(B3_SAMPLED, context.isSampled() ? "1" : "0");
+			}
+		}
+	}
+
+	/**
+	 * Parses <code>version-traceid-parentid-flags</code>, versions above 00 may append fields.
+	 */
+	private static TraceContext extractW3c(UnaryOperator<String> headers) {
+		String traceparent = headers.apply(TRACEPARENT);
+		if (traceparent == null) {
+			return null;
+		}
+		String[] parts = StringUtils.split(traceparent.trim(), '-');
+		if (parts.length < 4 || !isHex(parts[0], 2) || "ff".equals(parts[0])
+				|| !TraceContext.isHexId(parts[1], 32) || !TraceContext.isHexId(parts[2], 16) || !isHex(parts[3], 2)) {
+			return null;
+		}
+		if ("00".equals(parts[0]) && parts.length != 4) {
+			return null;
+		}
+		boolean sampled = (Integer.parseInt(parts[3], 16) & 1) == 1;
+		return new TraceContext(parts[1], parts[2], null, sampled, StringUtils.trimToNull(headers.apply(TRACESTATE)));
+	}
+
+	/**
+	 * Parses the single header <code>traceid-spanid-sampled-parentspanid</code> or the <code>X-B3-*</code> headers, 64 bit trace ids are
+	 * padded to 128 bit.
+	 */
+	private static TraceContext extractB3(UnaryOperator<String> headers) {
+		String single = headers.apply(B3);
+		String traceId;
+		String spanId;
+		String sampled;
+		if (single != null) {
+			String[] parts = StringUtils.split(single.trim(), '-');
+			if (parts.length < 2) {
+				// only a sampling decision
+				return null;
+			}
+			traceId = parts[0];
+			spanId = parts[1];
+			sampled = parts.length > 2 ? parts[2] : null;
+		} else {
+			traceId = headers.apply(B3_TRACE_ID);
+			spanId = headers.apply(B3_SPAN_ID);
+			sampled = "1".equals(headers.apply(B3_FLAGS)) ? "d" : headers.apply(B3_SAMPLED);
+		}
+		if (traceId == null || spanId == null) {
+			return null;
+		}
+		traceId = traceId.trim().toLowerCase(Locale.ROOT);
+		spanId = spanId.trim().toLowerCase(Locale.ROOT);
+		if (traceId.length() == 16) {
+			traceId = "0000000000000000" + traceId;
+		}
+		if (!TraceContext.isHexId(traceId, 32) || !TraceContext.isHexId(spanId, 16)) {
+			return null;
+		}
+		return new TraceContext(traceId, spanId, null, !"0".equals(sampled) && !"false".equalsIgnoreCase(sampled), null);
+	}
+
+	private static boolean isHex(String value, int length) {
+		return value.length() == length && StringUtils.containsOnly(value, "0123456789abcdef");
+	}
+
+	/**
+	 * Exports all ended spans and stops the span processor.
+	 */
+	public void shutdown() {
+		if (this.spanProcessor != null) {
+			this.spanProcessor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration of the {@link Tracer} shared by the servlet and reactive tracing auto configurations. The tracer and the
+ * {@link IdGenerator} bean, if present, are set in the {@link TracingUtils}. Task executors and schedulers are decorated to pass the
+ * trace context to their tasks.
+ *
+ * @author Malte Geßner
+ *
+ */
+@Configuration(proxyBeanMethods = false)
+public class TracerConfiguration {
+
+	@Autowired(required = false)
+	void configureIdGenerator(IdGenerator idGenerator) {
+		TracingUtils.setIdGenerator(idGenerator);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean(SpanExporter.class)
+	@ConditionalOnProperty(prefix = "enterprise-application.tracing.spans", name = "enabled", havingValue = "true")
+	public LoggingSpanExporter loggingSpanExporter() {
+		return new LoggingSpanExporter();
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	@ConditionalOnMissingBean
+	public Tracer tracer(TracingProperties tracingProperties, ObjectProvider<SpanExporter> spanExporter,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		BatchingSpanProcessor spanProcessor = null;
+		TracingProperties.Spans spans = tracingProperties.getSpans();
+		if (spans.isEnabled() && spanExporter.getIfAvailable() != null) {
+			spanProcessor = new BatchingSpanProcessor(spanExporter.getIfAvailable(), spans.getMaxQueueSize(), spans.getBatchSize(),
+					spans.getExportInterval());
+			meterRegistry.ifAvailable(spanProcessor::bindTo);
+		}
+		Tracer tracer = new Tracer(tracingProperties.getPropagation(), spanProcessor);
+		TracingUtils.setTracer(tracer);
+		return tracer;
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "enterprise-application.tracing", name = "decorate-executors", havingValue = "true", matchIfMissing = true)
+	public ContextPropagatingTaskDecorator contextPropagatingTaskDecorator(TracingProperties tracingProperties) {
+		return new ContextPropagatingTaskDecorator(tracingProperties);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "enterprise-application.tracing", name = "decorate-executors", havingValue = "true", matchIfMissing = true)
+	public static ContextPropagatingExecutorBeanPostProcessor contextPropagatingExecutorBeanPostProcessor(
+			ObjectProvider<ContextPropagatingTaskDecorator> taskDecorator) {
+		return new ContextPropagatingExecutorBeanPostProcessor(taskDecorator);
+	}
+}
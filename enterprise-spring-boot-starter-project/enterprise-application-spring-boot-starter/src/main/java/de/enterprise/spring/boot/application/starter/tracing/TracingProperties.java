@@ -1,5 +1,12 @@
 package de.enterprise.spring.boot.application.starter.tracing;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.web.servlet.filter.OrderedFilter;
 import org.springframework.validation.annotation.Validated;
@@ -23,5 +30,43 @@ public class TracingProperties {
 	private String mdcKey = "traceId";
 	private String applicationName;
 	private String sessionIdKey = "sessionId";
+	/**
+	 * Whether the servlet filter creates sessions to log their id, by default only existing sessions are used.
+	 */
+	@NotNull
+	private SessionIdMode sessionIdMode = SessionIdMode.EXISTING;
+	private String requestIdMdcKey = "requestId";
 	private int filterOrder = OrderedFilter.REQUEST_WRAPPER_FILTER_MAX_ORDER - 103;
+	private String spanIdMdcKey = "spanId";
+	/**
+	 * Further {@link org.slf4j.MDC} keys passed to tasks of executors, the trace id, span id, session id and request id keys are always passed.
+	 */
+	private List<String> propagatedMdcKeys = new ArrayList<>();
+	/**
+	 * Decorates the task executor and task scheduler beans to pass the trace context to their tasks.
+	 */
+	private boolean decorateExecutors = true;
+	/**
+	 * Header formats of the trace context read and written in addition to the trace id header, trace ids become 32 hex digits if set.
+	 */
+	private List<TracePropagation> propagation = new ArrayList<>();
+	@Valid
+	@NotNull
+	private Spans spans = new Spans();
+
+	/**
+	 * Recording and export of spans.
+	 */
+	@Getter
+	@Setter
+	public static class Spans {
+		/**
+		 * Records spans and passes them to the span exporter, the logging exporter is used if no other exporter bean exists.
+		 */
+		private boolean enabled;
+		private int maxQueueSize = 2048;
+		private int batchSize = 512;
+		@NotNull
+		private Duration exportInterval = Duration.ofSeconds(5);
+	}
 }
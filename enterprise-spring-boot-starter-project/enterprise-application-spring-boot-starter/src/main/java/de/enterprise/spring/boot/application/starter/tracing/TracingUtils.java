@@ -1,9 +1,12 @@
 package de.enterprise.spring.boot.application.starter.tracing;
 
-import java.util.UUID;
+import java.util.Collections;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 import org.slf4j.MDC;
+import org.springframework.util.Assert;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -15,7 +18,13 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public final class TracingUtils {
 
-	private static Function<String, String> uuidGeneratorFunction = applicationName -> applicationName + "-" + UUID.randomUUID().toString();
+	private static volatile IdGenerator idGenerator = new CompactIdGenerator();
+
+	private static Function<String, String> uuidGeneratorFunction = applicationName -> applicationName + "-" + generateId();
+
+	private static volatile Tracer tracer = new Tracer(Collections.emptyList(), null);
+
+	private static final ThreadLocal<Span> CURRENT_SPAN = new ThreadLocal<>();
 
 	private TracingUtils() {
 
@@ -25,6 +34,235 @@ public final class TracingUtils {
 		TracingUtils.uuidGeneratorFunction = uuidGeneratorFunction;
 	}
 
+	public static IdGenerator getIdGenerator() {
+		return idGenerator;
+	}
+
+	/**
+	 * Replaces the generator of trace ids and request ids.
+	 *
+	 * @param idGenerator
+	 *            new generator
+	 */
+	public static void setIdGenerator(IdGenerator idGenerator) {
+		Assert.notNull(idGenerator, "idGenerator must not be null");
+		TracingUtils.idGenerator = idGenerator;
+	}
+
+	/**
+	 * Generates a new id with the configured {@link IdGenerator}.
+	 *
+	 * @return new id
+	 */
+	public static String generateId() {
+		return idGenerator.generateId();
+	}
+
+	public static Tracer getTracer() {
+		return tracer;
+	}
+
+	/**
+	 * Replaces the tracer starting the spans.
+	 *
+	 * @param tracer
+	 *            new tracer
+	 */
+	public static void setTracer(Tracer tracer) {
+		Assert.notNull(tracer, "tracer must not be null");
+		TracingUtils.tracer = tracer;
+	}
+
+	/**
+	 * Starts a span and makes it the current span of the thread: its ids are put into the {@link MDC} and outgoing calls become its child
+	 * spans. The trace context is read from the headers of an incoming call, a new trace is started without trace context. Without headers
+	 * the span becomes a child of the current span of the thread.
+	 *
+	 * @param tracingProperties
+	 *            tracing config
+	 * @param name
+	 *            name of the span
+	 * @param kind
+	 *            kind of the span
+	 * @param headers
+	 *            returns the value of an incoming header, may be <code>null</code>
+	 * @return started span or <code>null</code> if tracing is disabled
+	 */
+	public static Span startSpan(TracingProperties tracingProperties, String name, Span.Kind kind, UnaryOperator<String> headers) {
+		return makeCurrent(tracingProperties, createSpan(tracingProperties, name, kind, headers));
+	}
+
+	/**
+	 * Starts a span as child of the given trace context and makes it the current span of the thread like
+	 * {@link #startSpan(TracingProperties, String, Span.Kind, UnaryOperator)}, e.g. for a task executed on behalf of another thread.
+	 *
+	 * @param tracingProperties
+	 *            tracing config
+	 * @param name
+	 *            name of the span
+	 * @param kind
+	 *            kind of the span
+	 * @param parent
+	 *            trace context of the parent span, a new trace is started if <code>null</code>
+	 * @return started span or <code>null</code> if tracing is disabled
+	 */
+	public static Span startChildSpan(TracingProperties tracingProperties, String name, Span.Kind kind, TraceContext parent) {
+		if (tracingProperties == null || !tracingProperties.isEnabled()) {
+			return null;
+		}
+		return makeCurrent(tracingProperties, createSpan(tracingProperties, name, kind, parent, null));
+	}
+
+	/**
+	 * Starts a span like {@link #startSpan(TracingProperties, String, Span.Kind, UnaryOperator)} without making it the current span of the
+	 * thread, e.g. for reactive requests carrying the trace context in the Reactor context.
+	 *
+	 * @param tracingProperties
+	 *            tracing config
+	 * @param name
+	 *            name of the span
+	 * @param kind
+	 *            kind of the span
+	 * @param headers
+	 *            returns the value of an incoming header, may be <code>null</code>
+	 * @return started span or <code>null</code> if tracing is disabled
+	 */
+	public static Span createSpan(TracingProperties tracingProperties, String name, Span.Kind kind, UnaryOperator<String> headers) {
+		if (tracingProperties == null || !tracingProperties.isEnabled()) {
+			return null;
+		}
+		if (headers == null) {
+			return createSpan(tracingProperties, name, kind, currentTraceContext(tracingProperties), null);
+		}
+		return createSpan(tracingProperties, name, kind, tracer.extract(headers), headers.apply(tracingProperties.getRequestHeaderName()));
+	}
+
+	private static Span createSpan(TracingProperties tracingProperties, String name, Span.Kind kind, TraceContext parent,
+			String traceIdHeader) {
+		Tracer currentTracer = tracer;
+		String rootTraceId = null;
+		if (parent == null) {
+			rootTraceId = currentTracer.isPropagating() && !TraceContext.isHexId(traceIdHeader, 32)
+					? TraceContext.newTraceId()
+					: retrieveOrCreate(traceIdHeader, tracingProperties.getApplicationName());
+		}
+		return currentTracer.startSpan(name, kind, parent, rootTraceId);
+	}
+
+	private static Span makeCurrent(TracingProperties tracingProperties, Span span) {
+		if (span != null) {
+			// restored by endSpan, a nested span must not end the context of the enclosing one
+			span.setPreviousContext(ContextSnapshot.capture(tracingProperties.getMdcKey(), tracingProperties.getSpanIdMdcKey()));
+			CURRENT_SPAN.set(span);
+			MDC.put(tracingProperties.getMdcKey(), span.getContext().getTraceId());
+			MDC.put(tracingProperties.getSpanIdMdcKey(), span.getContext().getSpanId());
+		}
+		return span;
+	}
+
+	/**
+	 * Ends a span started by {@link #startSpan(TracingProperties, String, Span.Kind, UnaryOperator)} and restores the span and the trace
+	 * context in the {@link MDC} which were current when it was started.
+	 *
+	 * @param tracingProperties
+	 *            tracing config
+	 * @param span
+	 *            span to end, may be <code>null</code>
+	 */
+	public static void endSpan(TracingProperties tracingProperties, Span span) {
+		if (span == null) {
+			return;
+		}
+		span.end();
+		ContextSnapshot previousContext = span.getPreviousContext();
+		if (previousContext != null) {
+			span.setPreviousContext(null);
+			previousContext.apply();
+		}
+	}
+
+	/**
+	 * Starts a span of an outgoing call as child of the current trace context, the span does not become the current span.
+	 *
+	 * @param tracingProperties
+	 *            tracing config
+	 * @param name
+	 *            name of the span
+	 * @return started span
+	 */
+	public static Span startClientSpan(TracingProperties tracingProperties, String name) {
+		return startClientSpan(tracingProperties, name, currentTraceContext(tracingProperties));
+	}
+
+	/**
+	 * Starts a span of an outgoing call as child of the given trace context.
+	 *
+	 * @param tracingProperties
+	 *            tracing config
+	 * @param name
+	 *            name of the span
+	 * @param parent
+	 *            trace context of the parent span, a new trace is started if <code>null</code>
+	 * @return started span
+	 */
+	public static Span startClientSpan(TracingProperties tracingProperties, String name, TraceContext parent) {
+		Tracer currentTracer = tracer;
+		String rootTraceId = null;
+		if (parent == null) {
+			rootTraceId = currentTracer.isPropagating()
+					? TraceContext.newTraceId()
+					: retrieveOrCreate(null, tracingProperties.getApplicationName());
+		}
+		return currentTracer.startSpan(name, Span.Kind.CLIENT, parent, rootTraceId);
+	}
+
+	/**
+	 * Returns the trace context of the current span, or a context of the trace and span ids in the {@link MDC} if the thread has no current
+	 * span.
+	 *
+	 * @param tracingProperties
+	 *            tracing config
+	 * @return current trace context or <code>null</code>
+	 */
+	public static TraceContext currentTraceContext(TracingProperties tracingProperties) {
+		Span span = CURRENT_SPAN.get();
+		if (span != null) {
+			return span.getContext();
+		}
+		String traceId = MDC.get(tracingProperties.getMdcKey());
+		if (traceId == null) {
+			return null;
+		}
+		return new TraceContext(traceId, MDC.get(tracingProperties.getSpanIdMdcKey()), null, true, null);
+	}
+
+	static Span currentSpan() {
+		return CURRENT_SPAN.get();
+	}
+
+	static void setCurrentSpan(Span span) {
+		if (span == null) {
+			CURRENT_SPAN.remove();
+		} else {
+			CURRENT_SPAN.set(span);
+		}
+	}
+
+	/**
+	 * Writes the trace id header and the configured trace context formats of the span to an outgoing call.
+	 *
+	 * @param tracingProperties
+	 *            tracing config
+	 * @param context
+	 *            context of the span executing the call
+	 * @param headers
+	 *            sets a header
+	 */
+	public static void injectHeaders(TracingProperties tracingProperties, TraceContext context, BiConsumer<String, String> headers) {
+		headers.accept(tracingProperties.getRequestHeaderName(), context.getTraceId());
+		tracer.inject(context, headers);
+	}
+
 	public static String retrieveOrCreate(String traceValue, String applicationName) {
 		String traceId = traceValue;
 
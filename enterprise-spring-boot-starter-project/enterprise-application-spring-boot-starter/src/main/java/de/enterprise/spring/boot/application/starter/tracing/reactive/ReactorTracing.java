@@ -0,0 +1,156 @@
+package de.enterprise.spring.boot.application.starter.tracing.reactive;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.MDC;
+
+import de.enterprise.spring.boot.application.starter.tracing.TraceContext;
+import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
+import reactor.core.publisher.Signal;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Carries the trace context of reactive requests in the Reactor {@link Context} instead of the thread bound {@link MDC}, so it follows the
+ * request across thread hops. The {@link MDC} is only filled around log statements:
+ *
+ * <pre>
+ * mono.doOnEach(ReactorTracing.logOnNext(value -&gt; log.info("received {}", value)))
+ * </pre>
+ *
+ * @author Malte Geßner
+ *
+ */
+public final class ReactorTracing {
+
+	/**
+	 * Context key of the {@link TraceContext} of the current span.
+	 */
+	public static final Class<TraceContext> TRACE_CONTEXT_KEY = TraceContext.class;
+
+	/**
+	 * Context key of the {@link MDC} entries of the current span.
+	 */
+	public static final String MDC_CONTEXT_KEY = ReactorTracing.class.getName() + ".mdc";
+
+	private ReactorTracing() {
+
+	}
+
+	/**
+	 * Adds the trace context and its {@link MDC} entries to the Reactor context.
+	 *
+	 * @param context
+	 *            Reactor context
+	 * @param tracingProperties
+	 *            tracing config with the {@link MDC} keys
+	 * @param traceContext
+	 *            trace context of the current span
+	 * @return context with the trace context
+	 */
+	public static Context withTraceContext(Context context, TracingProperties tracingProperties, TraceContext traceContext) {
+		Map<String, String> mdc = new HashMap<>(4);
+		mdc.put(tracingProperties.getMdcKey(), traceContext.getTraceId());
+		mdc.put(tracingProperties.getSpanIdMdcKey(), traceContext.getSpanId());
+		return context.put(TRACE_CONTEXT_KEY, traceContext).put(MDC_CONTEXT_KEY, mdc);
+	}
+
+	/**
+	 * Returns the trace context of the current span.
+	 *
+	 * @param context
+	 *            Reactor context
+	 * @return trace context or <code>null</code>
+	 */
+	public static TraceContext getTraceContext(ContextView context) {
+		return context.getOrDefault(TRACE_CONTEXT_KEY, null);
+	}
+
+	/**
+	 * Runs the action with the {@link MDC} entries of the context, the previous entries are restored afterwards.
+	 *
+	 * @param context
+	 *            Reactor context
+	 * @param action
+	 *            e.g. a log statement
+	 */
+	public static void withMdc(ContextView context, Runnable action) {
+		withMdc(context, () -> {
+			action.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Calls the supplier with the {@link MDC} entries of the context, the previous entries are restored afterwards.
+	 *
+	 * @param <T>
+	 *            result type
+	 * @param context
+	 *            Reactor context
+	 * @param supplier
+	 *            e.g. a log statement
+	 * @return result of the supplier
+	 */
+	public static <T> T withMdc(ContextView context, Supplier<T> supplier) {
+		Map<String, String> mdc = context.getOrDefault(MDC_CONTEXT_KEY, null);
+		if (mdc == null) {
+			return supplier.get();
+		}
+		Map<String, String> previous = new HashMap<>(4);
+		mdc.forEach((key, value) -> {
+			previous.put(key, MDC.get(key));
+			MDC.put(key, value);
+		});
+		try {
+			return supplier.get();
+		} finally {
+			previous.forEach((key, value) -> {
+				if (value == null) {
+					MDC.remove(key);
+				} else {
+					MDC.put(key, value);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Creates a consumer for {@link reactor.core.publisher.Mono#doOnEach(Consumer)} running the log statement for each value with the
+	 * {@link MDC} entries of the signal context.
+	 *
+	 * @param <T>
+	 *            value type
+	 * @param logStatement
+	 *            log statement
+	 * @return signal consumer
+	 */
+	public static <T> Consumer<Signal<T>> logOnNext(Consumer<T> logStatement) {
+		return signal -> {
+			if (signal.isOnNext()) {
+				withMdc(signal.getContextView(), () -> logStatement.accept(signal.get()));
+			}
+		};
+	}
+
+	/**
+	 * Creates a consumer for {@link reactor.core.publisher.Mono#doOnEach(Consumer)} running the log statement for an error with the
+	 * {@link MDC} entries of the signal context.
+	 *
+	 * @param <T>
+	 *            value type
+	 * @param logStatement
+	 *            log statement
+	 * @return signal consumer
+	 */
+	public static <T> Consumer<Signal<T>> logOnError(Consumer<Throwable> logStatement) {
+		return signal -> {
+			if (signal.isOnError()) {
+				withMdc(signal.getContextView(), () -> logStatement.accept(signal.getThrowable()));
+			}
+		};
+	}
+}
@@ -6,7 +6,9 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplicat
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
+import de.enterprise.spring.boot.application.starter.tracing.TracerConfiguration;
 import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
 import de.enterprise.spring.boot.application.starter.tracing.TracingRestTemplateCustomizer;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +22,7 @@ import lombok.extern.slf4j.Slf4j;
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnWebApplication(type = Type.REACTIVE)
 @EnableConfigurationProperties(TracingProperties.class)
+@Import(TracerConfiguration.class)
 @ConditionalOnProperty(prefix = "enterprise-application.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
 @Slf4j
 public class TracingAutoConfiguration {
@@ -37,4 +40,9 @@ public class TracingAutoConfiguration {
 		return new TracingHeaderWebFilter(tracingProperties);
 	}
 
+	@Bean
+	TracingWebClientCustomizer tracingWebClientCustomizer(TracingProperties tracingProperties) {
+		return new TracingWebClientCustomizer(tracingProperties);
+	}
+
 }
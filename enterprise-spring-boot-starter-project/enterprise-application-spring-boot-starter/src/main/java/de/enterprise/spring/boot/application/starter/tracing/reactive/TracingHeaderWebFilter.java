@@ -1,12 +1,12 @@
 package de.enterprise.spring.boot.application.starter.tracing.reactive;
 
-import org.slf4j.MDC;
 import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
-import org.springframework.web.server.WebSession;
 
+import de.enterprise.spring.boot.application.starter.tracing.Span;
 import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
 import de.enterprise.spring.boot.application.starter.tracing.TracingUtils;
 import reactor.core.publisher.Mono;
@@ -31,24 +31,22 @@ public class TracingHeaderWebFilter implements WebFilter, Ordered {
 
 	@Override
 	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-		this.addSessionId(exchange.getSession());
-		TracingUtils.addMdcTraceContext(this.tracingProperties,
-				exchange.getRequest().getHeaders().getFirst(this.tracingProperties.getRequestHeaderName()));
-
-		String mdcKey = this.tracingProperties.getMdcKey();
-		String sessionIdKey = this.tracingProperties.getSessionIdKey();
-
-		return chain.filter(exchange).doOnSuccess(t -> {
-			MDC.remove(sessionIdKey);
-			MDC.remove(mdcKey);
-		}).doOnError(ex -> {
-			MDC.remove(sessionIdKey);
-			MDC.remove(mdcKey);
-		});
+		ServerHttpRequest request = exchange.getRequest();
+		Span span = TracingUtils.createSpan(this.tracingProperties, request.getMethodValue() + " " + request.getPath().value(),
+				Span.Kind.SERVER, request.getHeaders()::getFirst);
+		if (span == null) {
+			return chain.filter(exchange);
+		}
+
+		// the trace context follows the request in the Reactor context instead of the MDC of the subscribing thread
+		return chain.filter(exchange)
+				.doOnError(span::error)
+				.doFinally(signal -> {
+					if (exchange.getResponse().getRawStatusCode() != null) {
+						span.tag("http.status_code", exchange.getResponse().getRawStatusCode());
+					}
+					span.end();
+				})
+				.contextWrite(context -> ReactorTracing.withTraceContext(context, this.tracingProperties, span.getContext()));
 	}
-
-	private void addSessionId(Mono<WebSession> session) {
-		session.doOnNext(webSession -> MDC.put(this.tracingProperties.getSessionIdKey(), webSession.getId()));
-	}
-
 }
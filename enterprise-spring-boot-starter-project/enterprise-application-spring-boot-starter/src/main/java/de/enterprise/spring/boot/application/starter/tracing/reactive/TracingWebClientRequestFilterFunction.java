@@ -1,19 +1,20 @@
 package de.enterprise.spring.boot.application.starter.tracing.reactive;
 
-import org.slf4j.MDC;
-import org.springframework.boot.actuate.metrics.web.reactive.client.MetricsWebClientCustomizer;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ExchangeFunction;
 
+import de.enterprise.spring.boot.application.starter.tracing.Span;
+import de.enterprise.spring.boot.application.starter.tracing.TraceContext;
 import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
 import de.enterprise.spring.boot.application.starter.tracing.TracingUtils;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Mono;
 
 /**
- * {@link ExchangeFilterFunction} applied via a {@link MetricsWebClientCustomizer} to record metrics.
+ * {@link ExchangeFilterFunction} applied via a {@link TracingWebClientCustomizer} to add tracing header to calls. Each exchange is recorded
+ * as client span up to the response headers.
  *
  * @author Brian Clozel
  * @author Tadaya Tsuyukubo
@@ -26,13 +27,22 @@ public class TracingWebClientRequestFilterFunction implements ExchangeFilterFunc
 
 	@Override
 	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
-		request.headers().add(
-				this.tracingProperties.getRequestHeaderName(),
-				TracingUtils.retrieveOrCreate(
-						MDC.get(this.tracingProperties.getMdcKey()),
-						this.tracingProperties.getApplicationName()));
-
-		return next.exchange(request);
+		// per subscription, so a repeated exchange (e.g. by a retry) is recorded as own span
+		return Mono.deferContextual(context -> {
+			// without trace context in the Reactor context the caller is not reactive, e.g. a blocking call of a servlet request
+			TraceContext parent = ReactorTracing.getTraceContext(context);
+			if (parent == null) {
+				parent = TracingUtils.currentTraceContext(this.tracingProperties);
+			}
+			Span span = TracingUtils.startClientSpan(this.tracingProperties, request.method() + " " + request.url().getHost(), parent)
+					.tag("http.url", request.url());
+			ClientRequest tracedRequest = ClientRequest.from(request)
+					.headers(headers -> TracingUtils.injectHeaders(this.tracingProperties, span.getContext(), headers::set))
+					.build();
+			return next.exchange(tracedRequest)
+					.doOnNext(response -> span.tag("http.status_code", response.rawStatusCode()))
+					.doOnError(span::error)
+					.doFinally(signal -> span.end());
+		});
 	}
-
 }
@@ -7,7 +7,9 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
+import de.enterprise.spring.boot.application.starter.tracing.TracerConfiguration;
 import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
 import de.enterprise.spring.boot.application.starter.tracing.TracingRestTemplateCustomizer;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +23,7 @@ import lombok.extern.slf4j.Slf4j;
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnWebApplication(type = Type.SERVLET)
 @EnableConfigurationProperties(TracingProperties.class)
+@Import(TracerConfiguration.class)
 @ConditionalOnProperty(prefix = "enterprise-application.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
 @Slf4j
 public class TracingAutoConfiguration {
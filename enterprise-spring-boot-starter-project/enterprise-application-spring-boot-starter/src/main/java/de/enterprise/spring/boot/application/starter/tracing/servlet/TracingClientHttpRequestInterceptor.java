@@ -2,18 +2,19 @@ package de.enterprise.spring.boot.application.starter.tracing.servlet;
 
 import java.io.IOException;
 
-import org.slf4j.MDC;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
 
+import de.enterprise.spring.boot.application.starter.tracing.Span;
 import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
 import de.enterprise.spring.boot.application.starter.tracing.TracingRestTemplateCustomizer;
 import de.enterprise.spring.boot.application.starter.tracing.TracingUtils;
 
 /**
- * {@link ClientHttpRequestInterceptor} applied via a {@link TracingRestTemplateCustomizer} to add tracing header to calls.
+ * {@link ClientHttpRequestInterceptor} applied via a {@link TracingRestTemplateCustomizer} to add tracing header to calls. Each call is
+ * recorded as client span up to the response headers.
  *
  * @author Malte Geßner
  */
@@ -28,12 +29,19 @@ public class TracingClientHttpRequestInterceptor implements ClientHttpRequestInt
 	@Override
 	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
 			throws IOException {
-		request.getHeaders().add(
-				this.tracingProperties.getRequestHeaderName(),
-				TracingUtils.retrieveOrCreate(
-						MDC.get(this.tracingProperties.getMdcKey()),
-						this.tracingProperties.getApplicationName()));
-
-		return execution.execute(request, body);
+		Span span = TracingUtils.startClientSpan(this.tracingProperties, request.getMethodValue() + " " + request.getURI().getHost())
+				.tag("http.url", request.getURI());
+		TracingUtils.injectHeaders(this.tracingProperties, span.getContext(), request.getHeaders()::set);
+
+		try {
+			ClientHttpResponse response = execution.execute(request, body);
+			span.tag("http.status_code", response.getRawStatusCode());
+			return response;
+		} catch (IOException | RuntimeException e) {
+			span.error(e);
+			throw e;
+		} finally {
+			span.end();
+		}
 	}
 }
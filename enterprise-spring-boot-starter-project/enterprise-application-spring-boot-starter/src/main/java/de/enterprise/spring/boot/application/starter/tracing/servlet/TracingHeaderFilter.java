@@ -5,17 +5,23 @@ import java.io.IOException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
 import org.slf4j.MDC;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import de.enterprise.spring.boot.application.starter.tracing.SessionIdMode;
+import de.enterprise.spring.boot.application.starter.tracing.Span;
 import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
 import de.enterprise.spring.boot.application.starter.tracing.TracingUtils;
 
 /**
- * Servlet Filter implementation to add tracing info to {@link MDC} thread local context.
+ * Servlet Filter implementation to add tracing info to {@link MDC} thread local context and to record a server span per request.
+ * <p>
+ * Unless the {@link SessionIdMode} is {@link SessionIdMode#CREATE}, the filter never creates a HTTP session, so stateless requests stay
+ * without session and cookie.
  *
  * @author Malte Geßner
  *
@@ -27,31 +33,76 @@ public class TracingHeaderFilter extends OncePerRequestFilter {
 
 	public TracingHeaderFilter(TracingProperties tracingProperties) {
 		this.tracingProperties = tracingProperties;
-		this.sessionIdKey = "sessionId";
+		this.sessionIdKey = tracingProperties.getSessionIdKey();
 	}
 
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
-		String sessionId = this.retrieveSessionId(request);
-		MDC.put(this.sessionIdKey, sessionId);
-		TracingUtils.addMdcTraceContext(this.tracingProperties,
-				request.getHeader(this.tracingProperties.getRequestHeaderName()));
-		filterChain.doFilter(request, response);
-		TracingUtils.removeMdcTraceContext(this.tracingProperties);
-		MDC.remove(this.sessionIdKey);
-	}
-
-	private String retrieveSessionId(HttpServletRequest request) {
-		HttpSession session = request.getSession();
-		if (session != null) {
-			return session.getId();
+		HttpServletRequest requestToUse = request;
+		SessionIdMode sessionIdMode = this.tracingProperties.getSessionIdMode();
+		if (sessionIdMode == SessionIdMode.CREATE) {
+			MDC.put(this.sessionIdKey, request.getSession().getId());
+		} else {
+			HttpSession session = request.getSession(false);
+			if (session != null) {
+				MDC.put(this.sessionIdKey, session.getId());
+			} else {
+				// a session created later while processing the request is added when it is created
+				requestToUse = new SessionIdResolvingRequestWrapper(request);
+			}
+			if (sessionIdMode == SessionIdMode.REQUEST_ID) {
+				MDC.put(this.tracingProperties.getRequestIdMdcKey(), TracingUtils.generateId());
+			}
+		}
+		Span span = TracingUtils.startSpan(this.tracingProperties, request.getMethod() + " " + request.getRequestURI(), Span.Kind.SERVER,
+				request::getHeader);
+		try {
+			filterChain.doFilter(requestToUse, response);
+		} catch (IOException | ServletException | RuntimeException e) {
+			if (span != null) {
+				span.error(e);
+			}
+			throw e;
+		} finally {
+			if (span != null) {
+				span.tag("http.status_code", response.getStatus());
+			}
+			TracingUtils.endSpan(this.tracingProperties, span);
+			MDC.remove(this.sessionIdKey);
+			MDC.remove(this.tracingProperties.getRequestIdMdcKey());
 		}
-		return null;
 	}
 
 	@Override
 	public void destroy() {
 		// nothing to do here
 	}
+
+	/**
+	 * Puts the id of a session into the {@link MDC} as soon as it is created.
+	 */
+	private class SessionIdResolvingRequestWrapper extends HttpServletRequestWrapper {
+
+		private boolean sessionIdResolved;
+
+		SessionIdResolvingRequestWrapper(HttpServletRequest request) {
+			super(request);
+		}
+
+		@Override
+		public HttpSession getSession() {
+			return this.getSession(true);
+		}
+
+		@Override
+		public HttpSession getSession(boolean create) {
+			HttpSession session = super.getSession(create);
+			if (session != null && !this.sessionIdResolved) {
+				MDC.put(TracingHeaderFilter.this.sessionIdKey, session.getId());
+				this.sessionIdResolved = true;
+			}
+			return session;
+		}
+	}
 }
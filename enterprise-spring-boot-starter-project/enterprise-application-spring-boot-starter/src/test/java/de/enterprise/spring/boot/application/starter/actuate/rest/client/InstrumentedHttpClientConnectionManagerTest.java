@@ -0,0 +1,96 @@
+package de.enterprise.spring.boot.application.starter.actuate.rest.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InstrumentedHttpClientConnectionManagerTest {
+
+	@Test
+	public void recordsWaitAndLeaseTimeAndTimeouts() throws Exception {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		InstrumentedHttpClientConnectionManager connectionManager = new InstrumentedHttpClientConnectionManager(meterRegistry, "test");
+		connectionManager.setDefaultMaxPerRoute(1);
+		HttpRoute route = new HttpRoute(new HttpHost("localhost", 8080));
+
+		HttpClientConnection connection = connectionManager.requestConnection(route, null).get(1, TimeUnit.SECONDS);
+		Assertions.assertThatThrownBy(() -> connectionManager.requestConnection(route, null).get(10, TimeUnit.MILLISECONDS))
+				.isInstanceOf(ConnectionPoolTimeoutException.class);
+		connectionManager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+
+		Assertions.assertThat(meterRegistry.get("httpclientconnection.wait").tag("httpClientName", "test").timer().count()).isEqualTo(1);
+		Assertions.assertThat(meterRegistry.get("httpclientconnection.lease").timer().count()).isEqualTo(1);
+		Assertions.assertThat(meterRegistry.get("httpclientconnection.timeouts").counter().count()).isEqualTo(1);
+		Assertions.assertThat(meterRegistry.get("httpclientconnection.route.timeouts").tag("route", "http://localhost:8080").counter().count())
+				.isEqualTo(1);
+		connectionManager.shutdown();
+	}
+
+	@Test
+	public void registersRouteGaugesWhileRouteIsInUse() throws Exception {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		InstrumentedHttpClientConnectionManager connectionManager = new InstrumentedHttpClientConnectionManager(meterRegistry, "test");
+		connectionManager.setMaxRoutes(1);
+		HttpRoute route = new HttpRoute(new HttpHost("localhost", 8080));
+		HttpRoute otherRoute = new HttpRoute(new HttpHost("localhost", 8081));
+
+		HttpClientConnection connection = connectionManager.requestConnection(route, null).get(1, TimeUnit.SECONDS);
+		HttpClientConnection otherConnection = connectionManager.requestConnection(otherRoute, null).get(1, TimeUnit.SECONDS);
+		Assertions.assertThat(meterRegistry.get("httpclientconnection.route.leased-connections").tag("route", "http://localhost:8080")
+				.gauge().value()).isEqualTo(1);
+		Assertions.assertThat(meterRegistry.get("httpclientconnection.route.wait").tag("route", "other").timer().count()).isEqualTo(1);
+		Assertions.assertThat(meterRegistry.find("httpclientconnection.route.leased-connections").tag("route", "http://localhost:8081")
+				.gauge()).isNull();
+
+		connectionManager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+		connectionManager.releaseConnection(otherConnection, null, 0, TimeUnit.MILLISECONDS);
+		connectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+
+		Assertions.assertThat(meterRegistry.find("httpclientconnection.route.leased-connections").gauge()).isNull();
+		Assertions.assertThat(meterRegistry.find("httpclientconnection.route.wait").tag("route", "http://localhost:8080").timer()).isNull();
+		connectionManager.shutdown();
+	}
+
+	@Test
+	public void keepsRouteMetersWhileRequestIsInProgress() throws Exception {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		InstrumentedHttpClientConnectionManager connectionManager = new InstrumentedHttpClientConnectionManager(meterRegistry, "test");
+		HttpRoute route = new HttpRoute(new HttpHost("localhost", 8080));
+
+		ConnectionRequest connectionRequest = connectionManager.requestConnection(route, null);
+		connectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+		HttpClientConnection connection = connectionRequest.get(1, TimeUnit.SECONDS);
+
+		Assertions.assertThat(meterRegistry.get("httpclientconnection.route.wait").tag("route", "http://localhost:8080").timer().count())
+				.isEqualTo(1);
+		connectionManager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+		connectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+		Assertions.assertThat(meterRegistry.find("httpclientconnection.route.wait").timer()).isNull();
+		connectionManager.shutdown();
+	}
+
+	@Test
+	public void removesAllMetersOnShutdown() throws Exception {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		InstrumentedHttpClientConnectionManager connectionManager = new InstrumentedHttpClientConnectionManager(meterRegistry, "test");
+		connectionManager.setMaxRoutes(1);
+		HttpClientConnection connection = connectionManager.requestConnection(new HttpRoute(new HttpHost("localhost", 8080)), null)
+				.get(1, TimeUnit.SECONDS);
+		HttpClientConnection otherConnection = connectionManager.requestConnection(new HttpRoute(new HttpHost("localhost", 8081)), null)
+				.get(1, TimeUnit.SECONDS);
+		connectionManager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+		connectionManager.releaseConnection(otherConnection, null, 0, TimeUnit.MILLISECONDS);
+
+		connectionManager.shutdown();
+
+		Assertions.assertThat(meterRegistry.getMeters()).isEmpty();
+	}
+}
@@ -0,0 +1,63 @@
+package de.enterprise.spring.boot.application.starter.clustering;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizeConfig;
+
+import de.enterprise.spring.boot.application.starter.clustering.discovery.HazelcastDiscoveryConfigurer;
+import de.enterprise.spring.boot.application.starter.clustering.discovery.HazelcastDiscoveryType;
+import de.enterprise.spring.boot.application.starter.clustering.scheduling.InstrumentedThreadPoolTaskExecutor;
+import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
+
+public class HazelcastAutoConfigurationTest {
+
+	@Test
+	public void boundsHttpCacheMapsUnlessConfigured() {
+		HazelcastProperties hazelcastProperties = new HazelcastProperties();
+		hazelcastProperties.setGroupName("test");
+		hazelcastProperties.setCaches(List.of(new MapConfig("http-cache-booking")
+				.setMaxSizeConfig(new MaxSizeConfig(100, MaxSizeConfig.MaxSizePolicy.PER_NODE))));
+
+		Config config = new HazelcastAutoConfiguration().hazelcastConfig(hazelcastProperties, List.of(new HazelcastDiscoveryConfigurer() {
+			@Override
+			public HazelcastDiscoveryType supportedDiscoveryType() {
+				return HazelcastDiscoveryType.Tcp;
+			}
+
+			@Override
+			public void configure(Config hazelcastConfig) {
+				// no discovery
+			}
+		}));
+
+		MapConfig defaultMapConfig = config.findMapConfig("http-cache-search");
+		Assertions.assertThat(defaultMapConfig.getEvictionPolicy()).isEqualTo(EvictionPolicy.LRU);
+		Assertions.assertThat(defaultMapConfig.getMaxSizeConfig().getSize()).isEqualTo(HazelcastAutoConfiguration.DEFAULT_HTTP_CACHE_MAX_SIZE);
+		Assertions.assertThat(config.findMapConfig("http-cache-booking").getMaxSizeConfig().getSize()).isEqualTo(100);
+	}
+
+	@Test
+	public void keepsMdcInTaskExecutorWithoutTracing() throws Exception {
+		// tracing disabled: no ContextPropagatingExecutorBeanPostProcessor decorates the executor
+		InstrumentedThreadPoolTaskExecutor taskExecutor = new HazelcastAutoConfiguration.HazelcastSchedulingAutoConfiguration()
+				.taskExecutor(new HazelcastProperties(), new TracingProperties());
+		taskExecutor.initialize();
+		try {
+			MDC.put("traceId", "trace-1");
+			String traceId = taskExecutor.submit(() -> MDC.get("traceId")).get(5, TimeUnit.SECONDS);
+
+			Assertions.assertThat(traceId).isEqualTo("trace-1");
+		} finally {
+			MDC.remove("traceId");
+			taskExecutor.destroy();
+		}
+	}
+}
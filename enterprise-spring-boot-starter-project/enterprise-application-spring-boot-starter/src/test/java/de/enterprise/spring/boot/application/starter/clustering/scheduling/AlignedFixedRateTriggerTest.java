@@ -0,0 +1,52 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+public class AlignedFixedRateTriggerTest {
+
+	@Test
+	public void alignsFirstExecutionToPeriod() {
+		AlignedFixedRateTrigger trigger = new AlignedFixedRateTrigger(1000, 0);
+
+		// members started at different times share the execution times
+		Assertions.assertThat(trigger.nextExecutionTime(this.contextAt(10_100)).getTime()).isEqualTo(11_000);
+		Assertions.assertThat(trigger.nextExecutionTime(this.contextAt(10_900)).getTime()).isEqualTo(11_000);
+		Assertions.assertThat(trigger.nextExecutionTime(this.contextAt(11_000)).getTime()).isEqualTo(11_000);
+	}
+
+	@Test
+	public void startsNotBeforeStartTime() {
+		AlignedFixedRateTrigger trigger = new AlignedFixedRateTrigger(1000, 15_500);
+
+		Assertions.assertThat(trigger.nextExecutionTime(this.contextAt(10_100)).getTime()).isEqualTo(16_000);
+	}
+
+	@Test
+	public void lateExecutionDoesNotDrift() {
+		AlignedFixedRateTrigger trigger = new AlignedFixedRateTrigger(1000, 0);
+		SimpleTriggerContext triggerContext = this.contextAt(11_300);
+		triggerContext.update(new Date(11_000), new Date(11_200), new Date(11_300));
+
+		Assertions.assertThat(trigger.nextExecutionTime(triggerContext).getTime()).isEqualTo(12_000);
+	}
+
+	@Test
+	public void skipsSlotsMissedByLongExecution() {
+		AlignedFixedRateTrigger trigger = new AlignedFixedRateTrigger(1000, 0);
+		SimpleTriggerContext triggerContext = this.contextAt(13_500);
+		triggerContext.update(new Date(11_000), new Date(11_000), new Date(13_500));
+
+		Assertions.assertThat(trigger.nextExecutionTime(triggerContext).getTime()).isEqualTo(14_000);
+	}
+
+	private SimpleTriggerContext contextAt(long millis) {
+		return new SimpleTriggerContext(Clock.fixed(Instant.ofEpochMilli(millis), ZoneOffset.UTC));
+	}
+}
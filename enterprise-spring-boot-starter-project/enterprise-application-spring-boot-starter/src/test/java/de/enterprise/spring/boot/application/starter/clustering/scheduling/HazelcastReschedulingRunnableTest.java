@@ -0,0 +1,157 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.TaskUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class HazelcastReschedulingRunnableTest extends HazelcastTestSupport {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ScheduledTaskExecutionProtocol scheduledTaskExecutionProtocol = new ScheduledTaskExecutionProtocol(hazelcastInstance,
+			new ScheduledTaskLoggingProperties(), this.registry);
+
+	@Test
+	public void firesMissedExecutionsUpToLimit() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		this.missedExecutionsSince("FireAll-run", 30);
+
+		this.catchUpMisfires("FireAll-run", executions::incrementAndGet, MisfirePolicy.FIRE_ALL);
+
+		Assertions.assertThat(executions.get()).isEqualTo(5);
+		Assertions.assertThat(this.misfires("FireAll-run", MisfirePolicy.FIRE_ALL)).isBetween(29.0, 30.0);
+	}
+
+	@Test
+	public void firesOnceForMissedExecutions() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		this.missedExecutionsSince("FireOnce-run", 30);
+
+		this.catchUpMisfires("FireOnce-run", executions::incrementAndGet, MisfirePolicy.FIRE_ONCE);
+
+		Assertions.assertThat(executions.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void countsSkippedExecutionsOnce() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		this.missedExecutionsSince("Skip-run", 30);
+
+		this.catchUpMisfires("Skip-run", executions::incrementAndGet, MisfirePolicy.SKIP);
+		// another member starting later does not count the same misfires
+		this.catchUpMisfires("Skip-run", executions::incrementAndGet, MisfirePolicy.SKIP);
+
+		Assertions.assertThat(executions.get()).isZero();
+		Assertions.assertThat(this.misfires("Skip-run", MisfirePolicy.SKIP)).isBetween(29.0, 30.0);
+	}
+
+	@Test
+	public void doesNotRepeatFailedExecutions() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		this.missedExecutionsSince("Failed-run", 30);
+		long lastFailedExecution = System.currentTimeMillis() / 1000 * 1000 - 3 * 1000L;
+		hazelcastInstance.getAtomicLong("lastFailedExecution-Failed-run").set(lastFailedExecution);
+
+		this.catchUpMisfires("Failed-run", executions::incrementAndGet, MisfirePolicy.FIRE_ALL);
+
+		// the next second may start while catching up
+		Assertions.assertThat(executions.get()).isBetween(2, 4);
+		Assertions.assertThat(this.misfires("Failed-run", MisfirePolicy.FIRE_ALL)).isBetween(2.0, 4.0);
+	}
+
+	@Test
+	public void catchesUpOnlyAsOwner() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		this.missedExecutionsSince("NotOwner-run", 30);
+		// another member executes the task
+		Thread owner = new Thread(() -> hazelcastInstance.getLock("NotOwner-run").lock());
+		owner.start();
+		owner.join();
+
+		this.catchUpMisfires("NotOwner-run", executions::incrementAndGet, MisfirePolicy.FIRE_ALL);
+
+		Assertions.assertThat(executions.get()).isZero();
+		Assertions.assertThat(this.registry.find("hazelcast.cluster.scheduling.misfire").tag("taskName", "NotOwner-run").counter()).isNull();
+		hazelcastInstance.getLock("NotOwner-run").forceUnlock();
+	}
+
+	@Test
+	public void doesNotCountRunningExecutionOfOtherMemberAsMissed() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		AtomicInteger runningExecutions = new AtomicInteger();
+		AtomicInteger maxRunningExecutions = new AtomicInteger();
+		// the execution of the first fire is still running on one member while the other member executes the next fire
+		Runnable task = () -> {
+			maxRunningExecutions.accumulateAndGet(runningExecutions.incrementAndGet(), Math::max);
+			try {
+				if (executions.incrementAndGet() == 1) {
+					Thread.sleep(1500);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				runningExecutions.decrementAndGet();
+			}
+		};
+		this.missedExecutionsSince("Overlapping-run", 0);
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		ScheduledExecutorService otherExecutor = Executors.newSingleThreadScheduledExecutor();
+		HazelcastReschedulingRunnable member = this.scheduleEverySecond("Overlapping-run", task, executor,
+				this.scheduledTaskExecutionProtocol);
+		HazelcastReschedulingRunnable otherMember = this.scheduleEverySecond("Overlapping-run", task, otherExecutor,
+				new ScheduledTaskExecutionProtocol(hazelcastInstance, new ScheduledTaskLoggingProperties(), this.registry));
+
+		Thread.sleep(3500);
+		member.cancel(false);
+		otherMember.cancel(false);
+		executor.shutdown();
+		otherExecutor.shutdown();
+		Assertions.assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+		Assertions.assertThat(otherExecutor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+		Assertions.assertThat(executions.get()).isGreaterThanOrEqualTo(2);
+		Assertions.assertThat(maxRunningExecutions.get()).isEqualTo(2);
+		Assertions.assertThat(this.registry.find("hazelcast.cluster.scheduling.misfire").tag("taskName", "Overlapping-run").counter())
+				.isNull();
+	}
+
+	private void missedExecutionsSince(String taskName, int seconds) {
+		long lastSuccessfullExecution = System.currentTimeMillis() / 1000 * 1000 - seconds * 1000L;
+		hazelcastInstance.getAtomicLong("lastSuccessfullExecution-" + taskName).set(lastSuccessfullExecution);
+	}
+
+	private void catchUpMisfires(String taskName, Runnable task, MisfirePolicy misfirePolicy) throws InterruptedException {
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		TaskOwnership taskOwnership = new LockTaskOwnership(hazelcastInstance.getLock(taskName), hazelcastInstance.getAtomicLong(taskName));
+		// every second, so each second since the last successful execution is missed
+		HazelcastReschedulingRunnable reschedulingRunnable = new HazelcastReschedulingRunnable(task, taskName, new CronTrigger("* * * * * *"),
+				executor, taskOwnership, this.scheduledTaskExecutionProtocol, TaskUtils.getDefaultErrorHandler(false));
+		reschedulingRunnable.setMisfirePolicy(misfirePolicy, 5);
+
+		reschedulingRunnable.catchUpMisfires();
+		executor.shutdown();
+		Assertions.assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+	}
+
+	private HazelcastReschedulingRunnable scheduleEverySecond(String taskName, Runnable task, ScheduledExecutorService executor,
+			ScheduledTaskExecutionProtocol scheduledTaskExecutionProtocol) {
+		TaskOwnership taskOwnership = new LockTaskOwnership(hazelcastInstance.getLock(taskName), hazelcastInstance.getAtomicLong(taskName));
+		HazelcastReschedulingRunnable reschedulingRunnable = new HazelcastReschedulingRunnable(task, taskName, new CronTrigger("* * * * * *"),
+				executor, taskOwnership, scheduledTaskExecutionProtocol, TaskUtils.getDefaultErrorHandler(false));
+		reschedulingRunnable.setMisfirePolicy(MisfirePolicy.FIRE_ALL, 5);
+		reschedulingRunnable.schedule();
+		return reschedulingRunnable;
+	}
+
+	private double misfires(String taskName, MisfirePolicy misfirePolicy) {
+		return this.registry.get("hazelcast.cluster.scheduling.misfire").tag("taskName", taskName).tag("policy", misfirePolicy.name())
+				.counter().count();
+	}
+}
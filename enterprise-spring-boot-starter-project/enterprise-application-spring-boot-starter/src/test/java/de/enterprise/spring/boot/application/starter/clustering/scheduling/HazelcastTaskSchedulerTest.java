@@ -0,0 +1,134 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+
+import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class HazelcastTaskSchedulerTest extends HazelcastTestSupport {
+
+	private static final long PERIOD = 200;
+
+	private final HazelcastTaskScheduler taskScheduler = newTaskScheduler();
+	// a second member of the cluster, sharing the hazelcast instance
+	private final HazelcastTaskScheduler otherTaskScheduler = newTaskScheduler();
+
+	@AfterEach
+	public void shutdown() {
+		this.taskScheduler.shutdown();
+		this.otherTaskScheduler.shutdown();
+	}
+
+	@Test
+	public void resolvesNameOfNamedTask() {
+		Assertions.assertThat(this.taskScheduler.resolveTaskName(NamedTask.of("Report-run", () -> {
+		}))).isEqualTo("Report-run");
+		Assertions.assertThat(this.taskScheduler.resolveTaskName(() -> {
+		})).isNull();
+	}
+
+	@Test
+	public void resolvesNameOfScheduledMethod() throws NoSuchMethodException {
+		Assertions.assertThat(this.taskScheduler.resolveTaskName(new ScheduledMethodRunnable(new ReportJob(), "report")))
+				.isEqualTo("ReportJob-report");
+	}
+
+	@Test
+	public void executesUnnamedTasksLocally() throws Exception {
+		this.taskScheduler.initialize();
+		CountDownLatch executions = new CountDownLatch(2);
+
+		this.taskScheduler.scheduleAtFixedRate(executions::countDown, 10);
+
+		Assertions.assertThat(executions.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void executesFixedRateScheduledMethodOnceInCluster() throws Exception {
+		ReportJob job = new ReportJob();
+		ScheduledMethodRunnable task = new ScheduledMethodRunnable(job, "report");
+
+		List<ScheduledFuture<?>> futures = this.scheduleOnEachMember(scheduler -> scheduler.scheduleAtFixedRate(task, PERIOD));
+
+		this.assertExecutedOnceInCluster(futures, "ReportJob-report", job.executionTimes);
+	}
+
+	@Test
+	public void executesFixedDelayTaskOnceInCluster() throws Exception {
+		List<Long> executionTimes = new CopyOnWriteArrayList<>();
+		Runnable task = NamedTask.of("FixedDelay-run", () -> executionTimes.add(System.currentTimeMillis()));
+		Date startTime = new Date(System.currentTimeMillis() + PERIOD);
+
+		List<ScheduledFuture<?>> futures = this.scheduleOnEachMember(scheduler -> scheduler.scheduleWithFixedDelay(task, startTime, PERIOD));
+
+		this.assertExecutedOnceInCluster(futures, "FixedDelay-run", executionTimes);
+	}
+
+	@Test
+	public void executesOneShotTaskOnceInCluster() throws Exception {
+		List<Long> executionTimes = new CopyOnWriteArrayList<>();
+		Runnable task = NamedTask.of("OneShot-run", () -> executionTimes.add(System.currentTimeMillis()));
+		Date startTime = new Date(System.currentTimeMillis() + PERIOD);
+
+		List<ScheduledFuture<?>> futures = this.scheduleOnEachMember(scheduler -> scheduler.schedule(task, startTime));
+
+		Thread.sleep(5 * PERIOD);
+		Assertions.assertThat(futures).hasOnlyElementsOfType(HazelcastReschedulingRunnable.class);
+		Assertions.assertThat(executionTimes).hasSize(1);
+	}
+
+	private List<ScheduledFuture<?>> scheduleOnEachMember(TaskScheduling taskScheduling) {
+		List<ScheduledFuture<?>> futures = new ArrayList<>();
+		for (HazelcastTaskScheduler scheduler : List.of(this.taskScheduler, this.otherTaskScheduler)) {
+			scheduler.initialize();
+			futures.add(taskScheduling.schedule(scheduler));
+		}
+		return futures;
+	}
+
+	private void assertExecutedOnceInCluster(List<ScheduledFuture<?>> futures, String taskName, List<Long> executionTimes)
+			throws InterruptedException {
+		Thread.sleep(6 * PERIOD);
+		futures.forEach(future -> future.cancel(false));
+
+		Assertions.assertThat(futures).hasOnlyElementsOfType(HazelcastReschedulingRunnable.class)
+				.extracting(future -> ((HazelcastReschedulingRunnable) future).getTaskName()).containsOnly(taskName);
+		Assertions.assertThat(executionTimes).hasSizeGreaterThanOrEqualTo(3);
+		// the first execution may start late, a second member executing the same execution would follow immediately
+		for (int i = 2; i < executionTimes.size(); i++) {
+			Assertions.assertThat(executionTimes.get(i) - executionTimes.get(i - 1)).isGreaterThan(PERIOD / 2);
+		}
+	}
+
+	private static HazelcastTaskScheduler newTaskScheduler() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		return new HazelcastTaskScheduler(hazelcastInstance, meterRegistry,
+				new ScheduledTaskExecutionProtocol(hazelcastInstance, new ScheduledTaskLoggingProperties(), meterRegistry),
+				new TracingProperties());
+	}
+
+	private interface TaskScheduling {
+
+		ScheduledFuture<?> schedule(HazelcastTaskScheduler scheduler);
+	}
+
+	public static class ReportJob {
+
+		private final List<Long> executionTimes = new CopyOnWriteArrayList<>();
+
+		public void report() {
+			this.executionTimes.add(System.currentTimeMillis());
+		}
+	}
+}
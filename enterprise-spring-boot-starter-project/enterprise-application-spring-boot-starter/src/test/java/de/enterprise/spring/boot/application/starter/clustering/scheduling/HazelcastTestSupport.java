@@ -0,0 +1,63 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.TcpIpConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+
+/**
+ * Starts a standalone Hazelcast instance per test class and creates members of a local cluster.
+ *
+ * @author Malte Geßner
+ *
+ */
+public abstract class HazelcastTestSupport {
+
+	private static final String CLUSTER_GROUP_NAME = "scheduling-test-cluster";
+	// ports apart from the standalone instances, which would be asked to join otherwise
+	private static final int CLUSTER_PORT = 5901;
+
+	protected static HazelcastInstance hazelcastInstance;
+
+	@BeforeAll
+	public static void startHazelcast() {
+		Config config = newConfig();
+		JoinConfig joinConfig = config.getNetworkConfig().getJoin();
+		joinConfig.getMulticastConfig().setEnabled(false);
+		joinConfig.getTcpIpConfig().setEnabled(false);
+		hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+	}
+
+	@AfterAll
+	public static void stopHazelcast() {
+		hazelcastInstance.shutdown();
+	}
+
+	/**
+	 * Starts a member of a local cluster, the members joining each other via TCP/IP on the loopback address.
+	 *
+	 * @return the started member, to be shut down by the test
+	 */
+	protected static HazelcastInstance newClusterMember() {
+		Config config = newConfig();
+		config.setProperty("hazelcast.local.localAddress", "127.0.0.1");
+		config.getGroupConfig().setName(CLUSTER_GROUP_NAME);
+		config.getNetworkConfig().setPort(CLUSTER_PORT);
+		JoinConfig joinConfig = config.getNetworkConfig().getJoin();
+		joinConfig.getMulticastConfig().setEnabled(false);
+		TcpIpConfig tcpIpConfig = joinConfig.getTcpIpConfig();
+		tcpIpConfig.setEnabled(true);
+		tcpIpConfig.addMember("127.0.0.1");
+		return Hazelcast.newHazelcastInstance(config);
+	}
+
+	private static Config newConfig() {
+		Config config = new Config();
+		config.setProperty("hazelcast.phone.home.enabled", "false");
+		return config;
+	}
+}
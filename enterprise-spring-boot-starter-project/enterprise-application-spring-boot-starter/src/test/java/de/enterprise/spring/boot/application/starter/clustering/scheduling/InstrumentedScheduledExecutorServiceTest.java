@@ -0,0 +1,50 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import de.enterprise.spring.boot.application.starter.tracing.Span;
+import de.enterprise.spring.boot.application.starter.tracing.TraceContext;
+import de.enterprise.spring.boot.application.starter.tracing.TracePropagation;
+import de.enterprise.spring.boot.application.starter.tracing.Tracer;
+import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
+import de.enterprise.spring.boot.application.starter.tracing.TracingUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InstrumentedScheduledExecutorServiceTest {
+
+	private final TracingProperties tracingProperties = new TracingProperties();
+	private final InstrumentedScheduledExecutorService executorService = new InstrumentedScheduledExecutorService(
+			Executors.newSingleThreadScheduledExecutor(), new SimpleMeterRegistry(), this.tracingProperties);
+
+	@AfterEach
+	public void shutdown() {
+		this.executorService.shutdownNow();
+		TracingUtils.setTracer(new Tracer(Collections.emptyList(), null));
+		MDC.clear();
+	}
+
+	@Test
+	public void startsSpanOfOneShotTaskAsChildOfSubmittingSpan() throws Exception {
+		TracingUtils.setTracer(new Tracer(Collections.singletonList(TracePropagation.W3C), null));
+		AtomicReference<TraceContext> taskContext = new AtomicReference<>();
+
+		Span requestSpan = TracingUtils.startSpan(this.tracingProperties, "GET /test", Span.Kind.SERVER, name -> null);
+		try {
+			this.executorService.submit(NamedTask.of("Report-run",
+					() -> taskContext.set(TracingUtils.currentTraceContext(this.tracingProperties)))).get(5, TimeUnit.SECONDS);
+		} finally {
+			TracingUtils.endSpan(this.tracingProperties, requestSpan);
+		}
+
+		Assertions.assertThat(taskContext.get().getTraceId()).isEqualTo(requestSpan.getContext().getTraceId());
+		Assertions.assertThat(taskContext.get().getParentSpanId()).isEqualTo(requestSpan.getContext().getSpanId());
+	}
+}
@@ -0,0 +1,94 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InstrumentedThreadPoolTaskExecutorTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final InstrumentedThreadPoolTaskExecutor taskExecutor = new InstrumentedThreadPoolTaskExecutor("test");
+
+	@AfterEach
+	public void shutdown() {
+		this.taskExecutor.shutdown();
+	}
+
+	@Test
+	public void recordsWaitAndExecutionTime() throws Exception {
+		this.taskExecutor.initialize();
+		this.taskExecutor.bindTo(this.registry);
+
+		this.taskExecutor.submit(() -> "done").get(5, TimeUnit.SECONDS);
+		this.taskExecutor.submit(() -> {
+		}).get(5, TimeUnit.SECONDS);
+		// the completed task count and the timers are updated after the future is done
+		this.taskExecutor.getThreadPoolExecutor().shutdown();
+		Assertions.assertThat(this.taskExecutor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+		Assertions.assertThat(this.registry.get("executor").tag("name", "test").timer().count()).isEqualTo(2);
+		Assertions.assertThat(this.registry.get("executor.idle").tag("name", "test").timer().count()).isEqualTo(2);
+		Assertions.assertThat(this.registry.get("executor.completed").tag("name", "test").functionCounter().count()).isEqualTo(2);
+		Assertions.assertThat(this.registry.get("executor.queued").tag("name", "test").gauge().value()).isZero();
+	}
+
+	@Test
+	public void countsRejectedTasksOfBoundedQueue() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		this.taskExecutor.setCorePoolSize(1);
+		this.taskExecutor.setMaxPoolSize(1);
+		this.taskExecutor.setQueueCapacity(1);
+		this.taskExecutor.setRejectedExecutionHandler(TaskRejectionPolicy.ABORT.createHandler());
+		this.taskExecutor.initialize();
+		this.taskExecutor.bindTo(this.registry);
+
+		this.taskExecutor.execute(() -> await(release));
+		this.taskExecutor.execute(() -> await(release));
+
+		Assertions.assertThatThrownBy(() -> this.taskExecutor.execute(() -> await(release))).isInstanceOf(TaskRejectedException.class);
+		Assertions.assertThat(this.registry.get("executor.rejected").functionCounter().count()).isEqualTo(1);
+		release.countDown();
+	}
+
+	@Test
+	public void growsCorePoolSizeIfTasksWaitTooLong() throws Exception {
+		this.taskExecutor.setCorePoolSize(1);
+		this.taskExecutor.setMaxPoolSize(3);
+		this.taskExecutor.setAdaptiveCorePoolSize(Duration.ofMillis(1), Duration.ZERO);
+		this.taskExecutor.initialize();
+
+		CountDownLatch completed = new CountDownLatch(5);
+		for (int i = 0; i < 5; i++) {
+			this.taskExecutor.execute(() -> {
+				sleep(20);
+				completed.countDown();
+			});
+		}
+		completed.await(5, TimeUnit.SECONDS);
+
+		Assertions.assertThat(this.taskExecutor.getCorePoolSize()).isEqualTo(3);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
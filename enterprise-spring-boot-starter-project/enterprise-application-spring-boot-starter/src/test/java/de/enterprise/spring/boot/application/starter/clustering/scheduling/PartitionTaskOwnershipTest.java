@@ -0,0 +1,85 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.hazelcast.core.HazelcastInstance;
+
+public class PartitionTaskOwnershipTest extends HazelcastTestSupport {
+
+	@Test
+	public void partitionOwnerExecutesEachExecutionOnce() {
+		PartitionTaskOwnership taskOwnership = new PartitionTaskOwnership(hazelcastInstance.getPartitionService(), "Job-run",
+				hazelcastInstance.getAtomicLong("Job-run"));
+		Date scheduledExecutionTime = new Date();
+		taskOwnership.scheduled(scheduledExecutionTime);
+
+		Assertions.assertThat(taskOwnership.acquire(scheduledExecutionTime, new Date())).isTrue();
+		Assertions.assertThat(taskOwnership.acquire(scheduledExecutionTime, new Date())).isFalse();
+	}
+
+	@Test
+	public void ownerIsLocalMember() {
+		PartitionTaskOwnership taskOwnership = new PartitionTaskOwnership(hazelcastInstance.getPartitionService(), "Report-run",
+				hazelcastInstance.getAtomicLong("Report-run"));
+
+		Assertions.assertThat(taskOwnership.getMode()).isEqualTo(TaskOwnershipMode.PARTITION);
+		Assertions.assertThat(taskOwnership.getOwner())
+				.isEqualTo(hazelcastInstance.getCluster().getLocalMember().getAddress().toString());
+	}
+
+	@Test
+	public void eachTaskRunsOnOnePartitionOwnerAndMovesOnShutdown() throws InterruptedException {
+		HazelcastInstance member = newClusterMember();
+		HazelcastInstance otherMember = newClusterMember();
+		try {
+			awaitPartitionsAssigned(member);
+			List<String> taskNames = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				taskNames.add("Cluster-" + i + "-run");
+			}
+
+			int otherMemberExecutions = 0;
+			for (String taskName : taskNames) {
+				boolean executed = executeOnce(member, taskName);
+				boolean executedByOtherMember = executeOnce(otherMember, taskName);
+				Assertions.assertThat(executed).as(taskName).isNotEqualTo(executedByOtherMember);
+				otherMemberExecutions += executedByOtherMember ? 1 : 0;
+			}
+			Assertions.assertThat(otherMemberExecutions).isBetween(1, taskNames.size() - 1);
+
+			otherMember.shutdown();
+			awaitPartitionsAssigned(member);
+
+			for (String taskName : taskNames) {
+				Assertions.assertThat(executeOnce(member, taskName)).as(taskName).isTrue();
+			}
+		} finally {
+			otherMember.shutdown();
+			member.shutdown();
+		}
+	}
+
+	private static boolean executeOnce(HazelcastInstance member, String taskName) {
+		PartitionTaskOwnership taskOwnership = new PartitionTaskOwnership(member.getPartitionService(), taskName,
+				member.getAtomicLong(taskName));
+		Date scheduledExecutionTime = new Date();
+		taskOwnership.scheduled(scheduledExecutionTime);
+		return taskOwnership.acquire(scheduledExecutionTime, new Date());
+	}
+
+	private static void awaitPartitionsAssigned(HazelcastInstance member) throws InterruptedException {
+		long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		// partitions are assigned on first access
+		while (!member.getPartitionService().isClusterSafe()
+				|| member.getPartitionService().getPartitions().stream().anyMatch(partition -> partition.getOwner() == null)) {
+			Assertions.assertThat(System.nanoTime()).as("partitions assigned").isLessThan(timeout);
+			Thread.sleep(50);
+		}
+	}
+}
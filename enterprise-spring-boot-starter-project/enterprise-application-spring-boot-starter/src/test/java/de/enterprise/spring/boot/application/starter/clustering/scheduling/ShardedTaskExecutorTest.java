@@ -0,0 +1,150 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import com.hazelcast.core.IQueue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ShardedTaskExecutorTest extends HazelcastTestSupport {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final FlakyTask flakyTask = new FlakyTask();
+	private final BrokenTask brokenTask = new BrokenTask();
+	private ShardedTaskExecutor shardedTaskExecutor;
+
+	@BeforeEach
+	public void startExecutor() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerSingleton("flakyTask", this.flakyTask);
+		beanFactory.registerSingleton("brokenTask", this.brokenTask);
+		TaskSchedulingProperties.Sharding properties = new TaskSchedulingProperties.Sharding();
+		properties.setParallelism(2);
+		properties.setCheckInterval(Duration.ofMillis(20));
+		properties.setTimeout(Duration.ofSeconds(30));
+		this.shardedTaskExecutor = new ShardedTaskExecutor(hazelcastInstance,
+				new ScheduledTaskExecutionProtocol(hazelcastInstance, new ScheduledTaskLoggingProperties(), this.registry), properties,
+				beanFactory.getBeanProvider(ShardedTask.class));
+		this.shardedTaskExecutor.start();
+	}
+
+	@AfterEach
+	public void stopExecutor() {
+		this.shardedTaskExecutor.shutdown();
+	}
+
+	@Test
+	public void executesEachShardAndRetriesFailedShards() {
+		this.shardedTaskExecutor.execute(this.flakyTask);
+
+		Assertions.assertThat(this.flakyTask.executions).containsOnlyKeys(0, 1, 2, 3, 4, 5, 6, 7);
+		Assertions.assertThat(this.flakyTask.executions.get(3).get()).isEqualTo(2);
+		Assertions.assertThat(this.registry.get("hazelcast.cluster.scheduling.shardExecution").tag("taskName", "FlakyTask")
+				.tag("outcome", "SUCCESS").timer().count()).isEqualTo(8);
+		Assertions.assertThat(hazelcastInstance.getMap(ShardedTaskExecutor.SHARD_MAP_NAME)).isEmpty();
+	}
+
+	@Test
+	public void failsAfterMaxAttempts() {
+		Assertions.assertThatThrownBy(() -> this.shardedTaskExecutor.execute(this.brokenTask)).isInstanceOf(IllegalStateException.class)
+				.hasMessage("1 of 2 shards of task <BrokenTask> failed");
+		Assertions.assertThat(this.brokenTask.attempts.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void doesNotRecreateStateOfTimedOutRun() throws Exception {
+		SlowTask slowTask = new SlowTask();
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerSingleton("slowTask", slowTask);
+		TaskSchedulingProperties.Sharding properties = new TaskSchedulingProperties.Sharding();
+		properties.setCheckInterval(Duration.ofMillis(20));
+		properties.setTimeout(Duration.ofMillis(200));
+		ShardedTaskExecutor slowTaskExecutor = new ShardedTaskExecutor(hazelcastInstance,
+				new ScheduledTaskExecutionProtocol(hazelcastInstance, new ScheduledTaskLoggingProperties(), this.registry), properties,
+				beanFactory.getBeanProvider(ShardedTask.class));
+		slowTaskExecutor.start();
+		try {
+			Assertions.assertThatThrownBy(() -> slowTaskExecutor.execute(slowTask)).isInstanceOf(IllegalStateException.class)
+					.hasMessageContaining("not finished within");
+
+			slowTask.release.countDown();
+			Assertions.assertThat(slowTask.finished.await(5, TimeUnit.SECONDS)).isTrue();
+			// give the worker time to store the result
+			Thread.sleep(200);
+
+			Assertions.assertThat(hazelcastInstance.getMap(ShardedTaskExecutor.SHARD_MAP_NAME)).isEmpty();
+			Assertions.assertThat(hazelcastInstance.getDistributedObjects()).noneMatch(distributedObject -> distributedObject instanceof IQueue);
+		} finally {
+			slowTaskExecutor.shutdown();
+		}
+	}
+
+	private static class FlakyTask implements ShardedTask {
+
+		private final Map<Integer, AtomicInteger> executions = new ConcurrentHashMap<>();
+
+		@Override
+		public int getShardCount() {
+			return 8;
+		}
+
+		@Override
+		public void executeShard(int shard, int shardCount) {
+			int execution = this.executions.computeIfAbsent(shard, key -> new AtomicInteger()).incrementAndGet();
+			if (shard == 3 && execution == 1) {
+				throw new IllegalStateException("first attempt of shard 3 fails");
+			}
+		}
+	}
+
+	private static class BrokenTask implements ShardedTask {
+
+		private final AtomicInteger attempts = new AtomicInteger();
+
+		@Override
+		public int getShardCount() {
+			return 2;
+		}
+
+		@Override
+		public void executeShard(int shard, int shardCount) {
+			if (shard == 1) {
+				this.attempts.incrementAndGet();
+				throw new IllegalStateException("shard 1 always fails");
+			}
+		}
+	}
+
+	private static class SlowTask implements ShardedTask {
+
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final CountDownLatch finished = new CountDownLatch(1);
+
+		@Override
+		public int getShardCount() {
+			return 1;
+		}
+
+		@Override
+		public void executeShard(int shard, int shardCount) {
+			try {
+				this.release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				this.finished.countDown();
+			}
+		}
+	}
+}
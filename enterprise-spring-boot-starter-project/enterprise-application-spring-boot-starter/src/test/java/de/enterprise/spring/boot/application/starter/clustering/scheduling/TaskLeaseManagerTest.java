@@ -0,0 +1,62 @@
+package de.enterprise.spring.boot.application.starter.clustering.scheduling;
+
+import java.time.Duration;
+import java.util.Date;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TaskLeaseManagerTest extends HazelcastTestSupport {
+
+	@Test
+	public void onlyOneMemberHoldsLease() {
+		TaskLeaseManager first = new TaskLeaseManager(hazelcastInstance, "member-1", Duration.ofSeconds(30), Duration.ofSeconds(10));
+		TaskLeaseManager second = new TaskLeaseManager(hazelcastInstance, "member-2", Duration.ofSeconds(30), Duration.ofSeconds(10));
+		try {
+			first.register("Job-run");
+			second.register("Job-run");
+			second.renewLeases();
+
+			Assertions.assertThat(first.isOwner("Job-run")).isTrue();
+			Assertions.assertThat(second.isOwner("Job-run")).isFalse();
+			Assertions.assertThat(new LeaseTaskOwnership(second, "Job-run").acquire(new Date(), new Date())).isFalse();
+		} finally {
+			first.shutdown();
+			second.shutdown();
+		}
+	}
+
+	@Test
+	public void leaseIsTakenOverAfterRelease() {
+		TaskLeaseManager first = new TaskLeaseManager(hazelcastInstance, "member-1", Duration.ofSeconds(30), Duration.ofSeconds(10));
+		TaskLeaseManager second = new TaskLeaseManager(hazelcastInstance, "member-2", Duration.ofSeconds(30), Duration.ofSeconds(10));
+		try {
+			first.register("Report-run");
+			second.register("Report-run");
+
+			first.shutdown();
+			second.renewLeases();
+
+			Assertions.assertThat(first.isOwner("Report-run")).isFalse();
+			Assertions.assertThat(second.isOwner("Report-run")).isTrue();
+		} finally {
+			second.shutdown();
+		}
+	}
+
+	@Test
+	public void expiredLeaseIsTakenOver() {
+		// lease of an unresponsive member which was not renewed in time
+		long expired = hazelcastInstance.getCluster().getClusterTime() - 1;
+		hazelcastInstance.getMap(TaskLeaseManager.LEASE_MAP_NAME).put("Cleanup-run", "member-0|" + expired);
+
+		TaskLeaseManager manager = new TaskLeaseManager(hazelcastInstance, "member-1", Duration.ofSeconds(30), Duration.ofSeconds(10));
+		try {
+			manager.register("Cleanup-run");
+
+			Assertions.assertThat(manager.isOwner("Cleanup-run")).isTrue();
+		} finally {
+			manager.shutdown();
+		}
+	}
+}
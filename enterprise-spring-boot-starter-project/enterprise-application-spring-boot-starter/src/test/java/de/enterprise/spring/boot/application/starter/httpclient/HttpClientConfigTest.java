@@ -0,0 +1,125 @@
+package de.enterprise.spring.boot.application.starter.httpclient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class HttpClientConfigTest {
+
+	@Test
+	public void createsPooledRequestFactoryWithMetrics() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		HttpClientConfig config = new HttpClientConfig();
+		ReflectionTestUtils.setField(config, "restTemplateBuilder", new RestTemplateBuilder());
+		ReflectionTestUtils.setField(config, "applicationConfiguredDefaultJacksonObjectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(config, "loggingProperties", new LoggingProperties());
+		ReflectionTestUtils.setField(config, "meterRegistry", meterRegistry);
+		config.setBaseAddress("https://book.me/api");
+		config.getConnectionPool().setMaxTotal(7);
+
+		ExtendedRestTemplate restTemplate = config.createPreConfiguredRestTemplateBuilder().build(ExtendedRestTemplate.class);
+
+		Assertions.assertThat(restTemplate.getRequestFactory()).isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+		Assertions.assertThat(meterRegistry.get("httpclientconnection.max-connections").tag("httpClientName", "book.me").gauge().value())
+				.isEqualTo(7);
+	}
+
+	@Test
+	public void createsIndependentRestTemplatesWithSharedPoolAndClosesClientsOnDestroy() {
+		HttpClientConfig config = new HttpClientConfig();
+		ReflectionTestUtils.setField(config, "restTemplateBuilder", new RestTemplateBuilder());
+		ReflectionTestUtils.setField(config, "applicationConfiguredDefaultJacksonObjectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(config, "loggingProperties", new LoggingProperties());
+		config.setBaseAddress("http://localhost:1");
+		config.setLogDetailsEnabled(true);
+
+		ExtendedRestTemplate otherRestTemplate = config.createPreConfiguredRestTemplateBuilder().build(ExtendedRestTemplate.class);
+		ExtendedRestTemplate restTemplate = config.createPreConfiguredRestTemplateBuilder().build(ExtendedRestTemplate.class);
+
+		Assertions.assertThat(restTemplate.getInterceptors()).hasSize(1);
+		Assertions.assertThat(otherRestTemplate.getInterceptors()).hasSize(1).doesNotContainAnyElementsOf(restTemplate.getInterceptors());
+		// one connection pool per config, its metrics are registered with the client name
+		Assertions.assertThat(ReflectionTestUtils.getField(otherRestTemplate.getRequestFactory(), "requestFactory"))
+				.isSameAs(ReflectionTestUtils.getField(restTemplate.getRequestFactory(), "requestFactory"))
+				.isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+
+		config.destroy();
+
+		Assertions.assertThatThrownBy(() -> restTemplate.getForObject("/test", String.class)).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("shut down");
+	}
+
+	@Test
+	public void cachesResponsesAndRevalidatesWithETag() throws IOException {
+		AtomicInteger serverRequests = new AtomicInteger();
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/fresh", exchange -> {
+			serverRequests.incrementAndGet();
+			exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+			respond(exchange, 200, "fresh");
+		});
+		server.createContext("/revalidated", exchange -> {
+			serverRequests.incrementAndGet();
+			exchange.getResponseHeaders().add("Cache-Control", "max-age=0, must-revalidate");
+			exchange.getResponseHeaders().add("ETag", "\"v1\"");
+			if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+				exchange.sendResponseHeaders(304, -1);
+				exchange.close();
+			} else {
+				respond(exchange, 200, "revalidated");
+			}
+		});
+		server.start();
+		try {
+			SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+			HttpClientConfig config = new HttpClientConfig();
+			ReflectionTestUtils.setField(config, "restTemplateBuilder", new RestTemplateBuilder());
+			ReflectionTestUtils.setField(config, "applicationConfiguredDefaultJacksonObjectMapper", new ObjectMapper());
+			ReflectionTestUtils.setField(config, "loggingProperties", new LoggingProperties());
+			ReflectionTestUtils.setField(config, "meterRegistry", meterRegistry);
+			config.setBaseAddress("http://localhost:" + server.getAddress().getPort());
+			config.setName("cached");
+			config.getCache().setEnabled(true);
+
+			ExtendedRestTemplate restTemplate = config.createPreConfiguredRestTemplateBuilder().build(ExtendedRestTemplate.class);
+
+			Assertions.assertThat(restTemplate.getForObject("/fresh", String.class)).isEqualTo("fresh");
+			Assertions.assertThat(restTemplate.getForObject("/fresh", String.class)).isEqualTo("fresh");
+			Assertions.assertThat(restTemplate.getForObject("/revalidated", String.class)).isEqualTo("revalidated");
+			Assertions.assertThat(restTemplate.getForObject("/revalidated", String.class)).isEqualTo("revalidated");
+
+			Assertions.assertThat(serverRequests).hasValue(3);
+			Assertions.assertThat(meterRegistry.get("http.client.cache.requests").tag("client", "cached").tag("result", "hit").counter()
+					.count()).isEqualTo(1);
+			Assertions.assertThat(meterRegistry.get("http.client.cache.requests").tag("result", "miss").counter().count()).isEqualTo(2);
+			Assertions.assertThat(meterRegistry.get("http.client.cache.requests").tag("result", "validated").counter().count())
+					.isEqualTo(1);
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "text/plain");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream responseBody = exchange.getResponseBody()) {
+			responseBody.write(bytes);
+		}
+	}
+}
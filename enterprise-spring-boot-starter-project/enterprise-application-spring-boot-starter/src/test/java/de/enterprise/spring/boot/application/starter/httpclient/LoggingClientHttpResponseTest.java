@@ -0,0 +1,48 @@
+package de.enterprise.spring.boot.application.starter.httpclient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+public class LoggingClientHttpResponseTest {
+
+	@Test
+	public void passesBodyThroughAndCapturesBeginning() throws IOException {
+		String body = "0123456789".repeat(1000);
+		List<String> closedPayloads = new ArrayList<>();
+		List<Long> closedLengths = new ArrayList<>();
+		LoggingClientHttpResponse response = new LoggingClientHttpResponse(
+				new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK), 15, closedResponse -> {
+					closedPayloads.add(closedResponse.getCapturedPayload(StandardCharsets.UTF_8));
+					closedLengths.add(closedResponse.getTotalLength());
+				});
+
+		Assertions.assertThat(response.getBody().read()).isEqualTo('0');
+		String rest = StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+		response.close();
+		response.close();
+
+		Assertions.assertThat("0" + rest).isEqualTo(body);
+		Assertions.assertThat(closedPayloads).containsExactly("012345678901234");
+		Assertions.assertThat(closedLengths).containsExactly((long) body.length());
+	}
+
+	@Test
+	public void capturesNothingIfBodyIsNotRead() {
+		List<String> closedPayloads = new ArrayList<>();
+		LoggingClientHttpResponse response = new LoggingClientHttpResponse(
+				new MockClientHttpResponse("body".getBytes(StandardCharsets.UTF_8), HttpStatus.NO_CONTENT), 15,
+				closedResponse -> closedPayloads.add(closedResponse.getCapturedPayload(StandardCharsets.UTF_8)));
+
+		response.close();
+
+		Assertions.assertThat(closedPayloads).containsNull();
+	}
+}
@@ -0,0 +1,92 @@
+package de.enterprise.spring.boot.application.starter.httpclient;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RequestCoalescerTest {
+
+	@Test
+	public void sharesResultOfCallInFlight() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer("test", 5000);
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		coalescer.bindTo(meterRegistry);
+		CountDownLatch callStarted = new CountDownLatch(1);
+		CountDownLatch releaseCall = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> leader = executor.submit(() -> coalescer.execute("key", () -> {
+				calls.incrementAndGet();
+				callStarted.countDown();
+				await(releaseCall);
+				return "result";
+			}));
+			callStarted.await(5, TimeUnit.SECONDS);
+			Future<String> follower = executor.submit(() -> coalescer.execute("key", () -> {
+				calls.incrementAndGet();
+				return "own result";
+			}));
+			// give the follower time to join the call in flight
+			Thread.sleep(100);
+			releaseCall.countDown();
+
+			Assertions.assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+			Assertions.assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+		} finally {
+			executor.shutdownNow();
+		}
+		Assertions.assertThat(calls).hasValue(1);
+		Assertions.assertThat(meterRegistry.get("http.client.coalescing").tag("result", "coalesced").functionCounter().count())
+				.isEqualTo(1);
+		Assertions.assertThat(meterRegistry.get("http.client.coalescing").tag("result", "executed").functionCounter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	public void executesCallItselfAfterMaxWait() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer("test", 10);
+		CountDownLatch callStarted = new CountDownLatch(1);
+		CountDownLatch releaseCall = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			executor.submit(() -> coalescer.execute("key", () -> {
+				callStarted.countDown();
+				await(releaseCall);
+				return "result";
+			}));
+			callStarted.await(5, TimeUnit.SECONDS);
+
+			Assertions.assertThat(coalescer.execute("key", () -> "own result")).isEqualTo("own result");
+			Assertions.assertThat(coalescer.getTimedOutCalls()).isEqualTo(1);
+		} finally {
+			releaseCall.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void doesNotShareResultsOfCompletedCalls() {
+		RequestCoalescer coalescer = new RequestCoalescer("test", 5000);
+
+		Assertions.assertThat(coalescer.execute("key", () -> "first")).isEqualTo("first");
+		Assertions.assertThat(coalescer.execute("key", () -> "second")).isEqualTo("second");
+		Assertions.assertThat(coalescer.getExecutedCalls()).isEqualTo(2);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
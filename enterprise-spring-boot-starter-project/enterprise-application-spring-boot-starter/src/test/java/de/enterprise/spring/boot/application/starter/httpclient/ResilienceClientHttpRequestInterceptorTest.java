@@ -0,0 +1,139 @@
+package de.enterprise.spring.boot.application.starter.httpclient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+
+public class ResilienceClientHttpRequestInterceptorTest {
+
+	private final MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost/test"));
+
+	@Test
+	public void retriesServerErrorsAndRecordsThemInCircuitBreaker() throws IOException {
+		CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("test");
+		Retry retry = Retry.of("test", RetryConfig.<ClientHttpResponse> custom().maxAttempts(3).waitDuration(Duration.ofMillis(1))
+				.retryOnResult(response -> statusOf(response) >= 500).build());
+		AtomicInteger executions = new AtomicInteger();
+		ClientHttpRequestExecution execution = (request, body) -> new MockClientHttpResponse(new byte[0],
+				executions.incrementAndGet() == 1 ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK);
+
+		ResilienceClientHttpRequestInterceptor interceptor = new ResilienceClientHttpRequestInterceptor(circuitBreaker, retry, null, null,
+				null);
+		ClientHttpResponse response = interceptor.intercept(this.request, new byte[0], execution);
+
+		Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(executions).hasValue(2);
+		Assertions.assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+		Assertions.assertThat(circuitBreaker.getMetrics().getNumberOfSuccessfulCalls()).isEqualTo(1);
+		Assertions.assertThat(retry.getMetrics().getNumberOfSuccessfulCallsWithRetryAttempt()).isEqualTo(1);
+	}
+
+	@Test
+	public void retriesExceptionsUntilAttemptsAreExhausted() {
+		Retry retry = Retry.of("test", RetryConfig.custom().maxAttempts(2).waitDuration(Duration.ofMillis(1)).build());
+		AtomicInteger executions = new AtomicInteger();
+		ClientHttpRequestExecution execution = (request, body) -> {
+			executions.incrementAndGet();
+			throw new IOException("connection refused");
+		};
+
+		ResilienceClientHttpRequestInterceptor interceptor = new ResilienceClientHttpRequestInterceptor(null, retry, null, null, null);
+
+		Assertions.assertThatThrownBy(() -> interceptor.intercept(this.request, new byte[0], execution)).isInstanceOf(IOException.class)
+				.hasMessage("connection refused");
+		Assertions.assertThat(executions).hasValue(2);
+	}
+
+	@Test
+	public void timesOutSlowCallsInThreadPoolBulkhead() {
+		ThreadPoolBulkhead threadPoolBulkhead = ThreadPoolBulkhead.ofDefaults("test");
+		TimeLimiter timeLimiter = TimeLimiter.of(Duration.ofMillis(20));
+		ClientHttpRequestExecution execution = (request, body) -> {
+			try {
+				Thread.sleep(500);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+		};
+
+		ResilienceClientHttpRequestInterceptor interceptor = new ResilienceClientHttpRequestInterceptor(null, null, null,
+				threadPoolBulkhead, timeLimiter);
+
+		Assertions.assertThatThrownBy(() -> interceptor.intercept(this.request, new byte[0], execution)).isInstanceOf(IOException.class)
+				.hasMessageContaining("timed out");
+	}
+
+	@Test
+	public void closesResponseArrivingAfterTimeout() throws Exception {
+		ThreadPoolBulkhead threadPoolBulkhead = ThreadPoolBulkhead.ofDefaults("test");
+		TimeLimiter timeLimiter = TimeLimiter.of(Duration.ofMillis(20));
+		CountDownLatch closed = new CountDownLatch(1);
+		ClientHttpRequestExecution execution = (request, body) -> {
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return new MockClientHttpResponse(new byte[0], HttpStatus.OK) {
+				@Override
+				public void close() {
+					closed.countDown();
+				}
+			};
+		};
+
+		ResilienceClientHttpRequestInterceptor interceptor = new ResilienceClientHttpRequestInterceptor(null, null, null,
+				threadPoolBulkhead, timeLimiter);
+
+		Assertions.assertThatThrownBy(() -> interceptor.intercept(this.request, new byte[0], execution)).isInstanceOf(IOException.class);
+		Assertions.assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void rejectsTimeLimiterWithoutThreadPoolBulkhead() {
+		Assertions.assertThatThrownBy(() -> new ResilienceClientHttpRequestInterceptor(null, null, null, null, TimeLimiter.ofDefaults()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void rejectsCallsIfBulkheadIsFull() {
+		Bulkhead bulkhead = Bulkhead.of("test",
+				BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitDuration(Duration.ZERO).build());
+		bulkhead.acquirePermission();
+
+		ResilienceClientHttpRequestInterceptor interceptor = new ResilienceClientHttpRequestInterceptor(null, null, bulkhead, null, null);
+
+		Assertions.assertThatThrownBy(() -> interceptor.intercept(this.request, new byte[0],
+				(request, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK))).isInstanceOf(BulkheadFullException.class);
+	}
+
+	private static int statusOf(ClientHttpResponse response) {
+		try {
+			return response.getRawStatusCode();
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+}
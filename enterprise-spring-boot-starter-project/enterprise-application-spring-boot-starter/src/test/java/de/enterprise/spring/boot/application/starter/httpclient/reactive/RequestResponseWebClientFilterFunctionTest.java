@@ -0,0 +1,77 @@
+package de.enterprise.spring.boot.application.starter.httpclient.reactive;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class RequestResponseWebClientFilterFunctionTest {
+
+	private final Logger logger = (Logger) LoggerFactory.getLogger("request-logger-outbound");
+	private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+	private Level level;
+
+	@BeforeEach
+	public void addAppender() {
+		this.level = this.logger.getLevel();
+		this.logger.setLevel(Level.INFO);
+		this.appender.start();
+		this.logger.addAppender(this.appender);
+	}
+
+	@AfterEach
+	public void removeAppender() {
+		this.logger.detachAppender(this.appender);
+		this.logger.setLevel(this.level);
+	}
+
+	@Test
+	public void logsResponseWhenCallerHasReadBody() {
+		LoggingProperties loggingProperties = new LoggingProperties();
+		loggingProperties.setLogOutgoingRequestWithPayload(true);
+		loggingProperties.setLogOutgoingRequestMaxPayloadLength(7);
+		NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+		ByteBuf first = PooledByteBufAllocator.DEFAULT.buffer().writeBytes("abcde".getBytes(StandardCharsets.UTF_8));
+		ByteBuf second = PooledByteBufAllocator.DEFAULT.buffer().writeBytes("fghijk".getBytes(StandardCharsets.UTF_8));
+		ClientResponse response = ClientResponse.create(HttpStatus.OK)
+				.body(Flux.just(bufferFactory.wrap(first), bufferFactory.wrap(second)))
+				.build();
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/test")).build();
+
+		Mono<ClientResponse> exchange = new RequestResponseWebClientFilterFunction(loggingProperties).filter(request,
+				clientRequest -> Mono.just(response));
+
+		Assertions.assertThat(this.appender.list).isEmpty();
+		ClientResponse loggingResponse = exchange.block(Duration.ofSeconds(5));
+		Assertions.assertThat(this.appender.list).hasSize(1);
+		String body = loggingResponse.bodyToMono(String.class).block(Duration.ofSeconds(5));
+
+		Assertions.assertThat(body).isEqualTo("abcdefghijk");
+		Assertions.assertThat(this.appender.list).hasSize(2);
+		Assertions.assertThat(this.appender.list.get(1).getFormattedMessage())
+				.contains("statusCode=200", "responseSize=11", "durationMs=", "responseBody=abcdefg")
+				.doesNotContain("responseBody=abcdefgh");
+		Assertions.assertThat(first.refCnt()).isZero();
+		Assertions.assertThat(second.refCnt()).isZero();
+	}
+}
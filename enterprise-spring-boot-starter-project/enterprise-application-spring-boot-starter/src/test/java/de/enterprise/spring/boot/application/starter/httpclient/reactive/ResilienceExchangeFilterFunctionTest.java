@@ -0,0 +1,55 @@
+package de.enterprise.spring.boot.application.starter.httpclient.reactive;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import reactor.core.publisher.Mono;
+
+public class ResilienceExchangeFilterFunctionTest {
+
+	private final ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/test")).build();
+
+	@Test
+	public void retriesServerErrorsAndRecordsThemInCircuitBreaker() {
+		CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("test");
+		Retry retry = Retry.of("test", RetryConfig.<ClientResponse> custom().maxAttempts(3).waitDuration(Duration.ofMillis(1))
+				.retryOnResult(response -> response.rawStatusCode() >= 500).build());
+		AtomicInteger exchanges = new AtomicInteger();
+		ExchangeFunction next = request -> Mono.fromSupplier(() -> ClientResponse
+				.create(exchanges.incrementAndGet() == 1 ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK).build());
+
+		ClientResponse response = new ResilienceExchangeFilterFunction(circuitBreaker, retry, null, null).filter(this.request, next)
+				.block(Duration.ofSeconds(5));
+
+		Assertions.assertThat(response.statusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(exchanges).hasValue(2);
+		Assertions.assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+		Assertions.assertThat(circuitBreaker.getMetrics().getNumberOfSuccessfulCalls()).isEqualTo(1);
+	}
+
+	@Test
+	public void timesOutSlowExchanges() {
+		CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("test");
+		ExchangeFunction next = request -> Mono.never();
+
+		Mono<ClientResponse> response = new ResilienceExchangeFilterFunction(circuitBreaker, null, null,
+				TimeLimiter.of(Duration.ofMillis(20))).filter(this.request, next);
+
+		Assertions.assertThatThrownBy(() -> response.block(Duration.ofSeconds(5))).hasCauseInstanceOf(TimeoutException.class);
+		Assertions.assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,76 @@
+package de.enterprise.spring.boot.application.starter.httpclient.reactive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class WebClientConfigTest {
+
+	@Test
+	public void usesNamedConnectionPoolWithMetrics() throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/test", exchange -> {
+			byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream responseBody = exchange.getResponseBody()) {
+				responseBody.write(body);
+			}
+		});
+		server.start();
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		Metrics.addRegistry(meterRegistry);
+		WebClientConfig config = new WebClientConfig();
+		try {
+			ReflectionTestUtils.setField(config, "webClientBuilder", WebClient.builder());
+			ReflectionTestUtils.setField(config, "meterRegistry", meterRegistry);
+			config.setBaseAddress("http://localhost:" + server.getAddress().getPort());
+			config.setName("reactive-test");
+			config.getConnectionPool().setMaxPerRoute(3);
+
+			String body = config.createPreConfiguredWebClientBuilder().build().get().uri("/test").retrieve().bodyToMono(String.class)
+					.block(Duration.ofSeconds(5));
+
+			Assertions.assertThat(body).isEqualTo("ok");
+			Assertions.assertThat(config.getConnectionProvider().maxConnections()).isEqualTo(3);
+			Assertions.assertThat(meterRegistry.find("reactor.netty.connection.provider.total.connections").tag("name", "reactive-test")
+					.gauge()).isNotNull();
+		} finally {
+			config.destroy();
+			Metrics.removeRegistry(meterRegistry);
+			server.stop(0);
+		}
+	}
+
+	@Test
+	public void leavesSharedBuilderUnchanged() {
+		WebClient.Builder sharedBuilder = WebClient.builder();
+		WebClientConfig config = new WebClientConfig();
+		try {
+			ReflectionTestUtils.setField(config, "webClientBuilder", sharedBuilder);
+			ReflectionTestUtils.setField(config, "circuitBreakerRegistry", CircuitBreakerRegistry.ofDefaults());
+			config.setBaseAddress("http://localhost:1");
+			config.getResilience().setCircuitBreaker("test");
+
+			config.createPreConfiguredWebClientBuilder().build();
+			WebClient.Builder preConfiguredBuilder = config.createPreConfiguredWebClientBuilder();
+
+			sharedBuilder.filters(filters -> Assertions.assertThat(filters).isEmpty());
+			preConfiguredBuilder.filters(filters -> Assertions.assertThat(filters).hasSize(1));
+		} finally {
+			config.destroy();
+		}
+	}
+}
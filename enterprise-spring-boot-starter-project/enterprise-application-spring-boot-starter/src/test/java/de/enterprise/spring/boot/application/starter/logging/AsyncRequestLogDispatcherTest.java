@@ -0,0 +1,89 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties.AsyncRequestLogging;
+
+public class AsyncRequestLogDispatcherTest {
+
+	@Test
+	public void dropsEventsIfPoolIsExhausted() {
+		AsyncRequestLogging properties = new AsyncRequestLogging();
+		properties.setQueueCapacity(2);
+		properties.setOverflowPolicy(RequestLogOverflowPolicy.DROP);
+		AsyncRequestLogDispatcher dispatcher = new AsyncRequestLogDispatcher(properties, (event, target) -> {
+		});
+
+		Assertions.assertThat(dispatcher.acquire()).isNotNull();
+		Assertions.assertThat(dispatcher.acquire()).isNotNull();
+		Assertions.assertThat(dispatcher.acquire()).isNull();
+		Assertions.assertThat(dispatcher.getDroppedEvents()).isEqualTo(1);
+	}
+
+	@Test
+	public void writesAllPendingEventsOnDestroy() {
+		List<String> messages = Collections.synchronizedList(new ArrayList<>());
+		AsyncRequestLogDispatcher dispatcher = new AsyncRequestLogDispatcher(new AsyncRequestLogging(),
+				(event, target) -> messages.add(target.append(event.getUri()).toString()));
+		dispatcher.start();
+
+		for (int i = 0; i < 10; i++) {
+			RequestLogEvent event = dispatcher.acquire();
+			event.setUri("/test/" + i);
+			dispatcher.publish(event);
+		}
+		dispatcher.destroy();
+
+		Assertions.assertThat(messages).hasSize(10).contains("/test/0", "/test/9");
+		Assertions.assertThat(dispatcher.getWrittenEvents()).isEqualTo(10);
+		Assertions.assertThat(dispatcher.getDroppedEvents()).isZero();
+	}
+
+	@Test
+	public void writesAndRecyclesEventsPublishedAfterDestroy() {
+		List<String> messages = Collections.synchronizedList(new ArrayList<>());
+		AsyncRequestLogging properties = new AsyncRequestLogging();
+		properties.setQueueCapacity(2);
+		AsyncRequestLogDispatcher dispatcher = new AsyncRequestLogDispatcher(properties,
+				(event, target) -> messages.add(target.append(event.getUri()).toString()));
+		dispatcher.start();
+		dispatcher.destroy();
+
+		for (int i = 0; i < 5; i++) {
+			RequestLogEvent event = dispatcher.acquire();
+			event.setUri("/late/" + i);
+			dispatcher.publish(event);
+		}
+
+		Assertions.assertThat(messages).containsExactly("/late/0", "/late/1", "/late/2", "/late/3", "/late/4");
+		Assertions.assertThat(dispatcher.getPendingEvents()).isZero();
+		Assertions.assertThat(dispatcher.getDroppedEvents()).isZero();
+	}
+
+	@Test
+	public void restoresMdcOfPublishingThreadAfterDestroy() {
+		List<String> traceIds = Collections.synchronizedList(new ArrayList<>());
+		AsyncRequestLogging properties = new AsyncRequestLogging();
+		properties.setMdcKeys(List.of("traceId", "sessionId"));
+		AsyncRequestLogDispatcher dispatcher = new AsyncRequestLogDispatcher(properties,
+				(event, target) -> traceIds.add(MDC.get("traceId") + "/" + MDC.get("sessionId")));
+		dispatcher.start();
+		dispatcher.destroy();
+
+		MDC.put("traceId", "trace-1");
+		try {
+			dispatcher.publish(dispatcher.acquire());
+
+			Assertions.assertThat(traceIds).containsExactly("trace-1/null");
+			Assertions.assertThat(MDC.get("traceId")).isEqualTo("trace-1");
+		} finally {
+			MDC.clear();
+		}
+	}
+}
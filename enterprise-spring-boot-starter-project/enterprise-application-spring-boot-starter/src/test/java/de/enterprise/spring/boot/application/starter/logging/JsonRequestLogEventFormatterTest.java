@@ -0,0 +1,45 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class JsonRequestLogEventFormatterTest {
+
+	private final JsonRequestLogEventFormatter formatter = new JsonRequestLogEventFormatter();
+
+	@Test
+	public void formatOmitsMissingFields() {
+		RequestLogEvent event = new RequestLogEvent();
+		event.setMethod("GET");
+		event.setUri("/test");
+		event.setStatus(200);
+
+		StringBuilder json = new StringBuilder();
+		this.formatter.format(event, json);
+
+		Assertions.assertThat(json.toString()).isEqualTo("{\"method\":\"GET\",\"uri\":\"/test\",\"status\":200}");
+	}
+
+	@Test
+	public void formatGroupsHeaderValuesAndEscapesStrings() {
+		RequestLogEvent event = new RequestLogEvent();
+		event.setMethod("POST");
+		event.setUri("/test");
+		event.setQueryString("a=\"b\"");
+		event.setStatus(201);
+		event.setDurationNanos(TimeUnit.MILLISECONDS.toNanos(12));
+		event.addRequestHeader("Accept", "text/plain");
+		event.addRequestHeader("Accept", "application/json");
+		event.addRequestHeader("Authorization", RequestLogEvent.MASKED_VALUE);
+		event.setPayload("line1\nline2\u0001");
+
+		StringBuilder json = new StringBuilder();
+		this.formatter.format(event, json);
+
+		Assertions.assertThat(json.toString()).isEqualTo("{\"method\":\"POST\",\"uri\":\"/test\",\"query\":\"a=\\\"b\\\"\",\"status\":201,"
+				+ "\"durationMs\":12,\"requestHeaders\":{\"Accept\":[\"text/plain\",\"application/json\"],\"Authorization\":[\"**********\"]},"
+				+ "\"requestPayload\":\"line1\\nline2\\u0001\"}");
+	}
+}
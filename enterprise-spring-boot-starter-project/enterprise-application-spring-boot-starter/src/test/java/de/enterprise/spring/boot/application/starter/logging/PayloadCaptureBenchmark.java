@@ -0,0 +1,87 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+/**
+ * Compares the costs of logging the beginning of a reactive body with {@link PayloadCapture} and of aggregating the whole body, per body of
+ * 8 KB buffers. Not executed by the build, run the main method from the ide or the test classpath.
+ *
+ * @author Malte Geßner
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PayloadCaptureBenchmark {
+
+	private static final int BUFFER_SIZE = 8 * 1024;
+	private static final int MAX_PAYLOAD_LENGTH = 10 * 1024;
+
+	@Param({ "1024", "65536", "1048576" })
+	private int bodySize;
+
+	private final List<DataBuffer> body = new ArrayList<>();
+
+	@Setup
+	public void createBody() {
+		byte[] bytes = new byte[this.bodySize];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) ('a' + i % 26);
+		}
+		for (int offset = 0; offset < bytes.length; offset += BUFFER_SIZE) {
+			int length = Math.min(BUFFER_SIZE, bytes.length - offset);
+			this.body.add(DefaultDataBufferFactory.sharedInstance.wrap(bytes).slice(offset, length));
+		}
+	}
+
+	@Benchmark
+	public String capture() {
+		PayloadCapture payloadCapture = new PayloadCapture(MAX_PAYLOAD_LENGTH);
+		for (DataBuffer buffer : this.body) {
+			payloadCapture.capture(buffer);
+		}
+		String payload = payloadCapture.getPayload(StandardCharsets.UTF_8);
+		payloadCapture.release();
+		return payload;
+	}
+
+	@Benchmark
+	public String aggregate() {
+		int length = this.body.stream().mapToInt(DataBuffer::readableByteCount).sum();
+		byte[] payload = new byte[length];
+		int offset = 0;
+		for (DataBuffer buffer : this.body) {
+			int bufferLength = buffer.readableByteCount();
+			buffer.asByteBuffer().get(payload, offset, bufferLength);
+			offset += bufferLength;
+		}
+		return new String(payload, 0, Math.min(length, MAX_PAYLOAD_LENGTH), StandardCharsets.UTF_8);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(PayloadCaptureBenchmark.class.getSimpleName()).build()).run();
+	}
+}
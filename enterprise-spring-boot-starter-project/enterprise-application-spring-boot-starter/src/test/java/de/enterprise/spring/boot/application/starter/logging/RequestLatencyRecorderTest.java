@@ -0,0 +1,55 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties.RequestMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RequestLatencyRecorderTest {
+
+	@Test
+	public void recordsTimerPerRouteMethodAndStatusClass() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		RequestMetrics properties = new RequestMetrics();
+		properties.setSlo(List.of(Duration.ofMillis(100)));
+		RequestLatencyRecorder recorder = new RequestLatencyRecorder(properties, registry);
+
+		recorder.record("/orders/{id}", "GET", 200, TimeUnit.MILLISECONDS.toNanos(50));
+		recorder.record("/orders/{id}", "GET", 204, TimeUnit.MILLISECONDS.toNanos(150));
+		recorder.record("/orders/{id}", "GET", 500, TimeUnit.MILLISECONDS.toNanos(10));
+		recorder.record(null, "GET", 404, TimeUnit.MILLISECONDS.toNanos(1));
+
+		Timer successTimer = registry.get(RequestLatencyRecorder.METRIC_NAME)
+				.tags("route", "/orders/{id}", "method", "GET", "status", "2xx").timer();
+		Assertions.assertThat(successTimer.count()).isEqualTo(2);
+		CountAtBucket[] buckets = successTimer.takeSnapshot().histogramCounts();
+		Assertions.assertThat(buckets).hasSize(1);
+		Assertions.assertThat(buckets[0].count()).isEqualTo(1);
+		Assertions.assertThat(registry.get(RequestLatencyRecorder.METRIC_NAME).tags("status", "5xx").timer().count()).isEqualTo(1);
+		Assertions.assertThat(registry.get(RequestLatencyRecorder.METRIC_NAME).tags("route", "NOT_FOUND").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	public void limitsNumberOfRoutes() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		RequestMetrics properties = new RequestMetrics();
+		properties.setMaxRoutes(2);
+		RequestLatencyRecorder recorder = new RequestLatencyRecorder(properties, registry);
+
+		for (int i = 0; i < 5; i++) {
+			recorder.record("/route/" + i, "GET", 200, 1);
+		}
+
+		Assertions.assertThat(registry.get(RequestLatencyRecorder.METRIC_NAME).timers()).hasSize(3);
+		Assertions.assertThat(registry.get(RequestLatencyRecorder.METRIC_NAME).tags("route", RequestLatencyRecorder.OVERFLOW_ROUTE)
+				.timer().count()).isEqualTo(3);
+		Assertions.assertThat(registry.get(RequestLatencyRecorder.METRIC_NAME + ".overflow").functionCounter().count()).isEqualTo(3);
+	}
+}
@@ -0,0 +1,49 @@
+package de.enterprise.spring.boot.application.starter.logging;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties.RequestLogSampling;
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties.RouteSampling;
+
+public class RequestLogSamplerTest {
+
+	@Test
+	public void skipsMatchingRoutesButAlwaysLogsErrorsAndSlowRequests() {
+		RouteSampling healthRoute = new RouteSampling();
+		healthRoute.setPattern("/health/**");
+		healthRoute.setRate(0.0);
+		RequestLogSampling properties = new RequestLogSampling();
+		properties.setRoutes(List.of(healthRoute));
+		properties.setAlwaysLogSlowerThan(Duration.ofSeconds(1));
+		RequestLogSampler sampler = new RequestLogSampler(properties);
+
+		Assertions.assertThat(sampler.sample("/health/liveness", 200, 0)).isFalse();
+		Assertions.assertThat(sampler.sample("/health/liveness", 503, 0)).isTrue();
+		Assertions.assertThat(sampler.sample("/health/liveness", 200, TimeUnit.SECONDS.toNanos(2))).isTrue();
+		Assertions.assertThat(sampler.sample("/api/test", 200, 0)).isTrue();
+		Assertions.assertThat(sampler.getSampledOut()).isEqualTo(1);
+	}
+
+	@Test
+	public void limitsLinesPerSecond() {
+		RequestLogSampling properties = new RequestLogSampling();
+		properties.setMaxLinesPerSecond(5);
+		RequestLogSampler sampler = new RequestLogSampler(properties);
+
+		int logged = 0;
+		for (int i = 0; i < 20; i++) {
+			if (sampler.sample("/api/test", 500, 0)) {
+				logged++;
+			}
+		}
+
+		// the first second allows a burst of max lines, a few more may be granted if the loop is slow
+		Assertions.assertThat(logged).isBetween(5, 7);
+		Assertions.assertThat(sampler.getRateLimited()).isEqualTo(20 - logged);
+	}
+}
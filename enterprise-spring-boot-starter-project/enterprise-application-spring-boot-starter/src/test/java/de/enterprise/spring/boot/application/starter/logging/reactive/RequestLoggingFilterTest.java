@@ -1,15 +1,27 @@
 package de.enterprise.spring.boot.application.starter.logging.reactive;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
 import org.springframework.mock.web.server.MockServerWebExchange;
 
+import de.enterprise.spring.boot.application.starter.logging.JsonRequestLogEventFormatter;
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogSampler;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 public class RequestLoggingFilterTest {
 
 	private RequestLoggingFilter requestLoggingFilter;
@@ -87,4 +99,94 @@ public class RequestLoggingFilterTest {
 		Assertions.assertThat(result).doesNotContain(sensitiveHeaderValue);
 
 	}
+
+	@Test
+	public void filterWritesJsonWithMaskedHeader() {
+		String sensitiveHeader = "sensitiveHeader";
+		String sensitiveHeaderValue = "sensitiveValue";
+		List<String> messages = new ArrayList<>();
+		this.requestLoggingFilter = new RequestLoggingFilter() {
+			@Override
+			protected void afterRequest(String message) {
+				messages.add(message);
+			}
+		};
+		this.requestLoggingFilter.setIncludeHeaders(true);
+		this.requestLoggingFilter.setIncludeQueryString(true);
+		this.requestLoggingFilter.setSensitiveHeaders(List.of(sensitiveHeader));
+		this.requestLoggingFilter.setRequestLogEventFormatter(new JsonRequestLogEventFormatter());
+
+		MockServerHttpRequest request = MockServerHttpRequest.get("/test?a=b")
+				.header(sensitiveHeader, sensitiveHeaderValue)
+				.build();
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+
+		this.requestLoggingFilter.filter(exchange, filterExchange -> {
+			filterExchange.getResponse().setStatusCode(HttpStatus.ACCEPTED);
+			return Mono.empty();
+		}).block();
+
+		Assertions.assertThat(messages).hasSize(1);
+		Assertions.assertThat(messages.get(0))
+				.startsWith("{\"method\":\"GET\",\"uri\":\"/test\",\"query\":\"a=b\"")
+				.contains("\"status\":202")
+				.contains(String.format("\"%s\":[\"**********\"]", sensitiveHeader))
+				.doesNotContain(sensitiveHeaderValue);
+	}
+
+	@Test
+	public void filterLogsTruncatedPayloadAndReleasesBuffers() {
+		List<String> messages = new ArrayList<>();
+		this.requestLoggingFilter = new RequestLoggingFilter() {
+			@Override
+			protected void afterRequest(String message) {
+				messages.add(message);
+			}
+		};
+		this.requestLoggingFilter.setIncludePayload(true);
+		this.requestLoggingFilter.setMaxPayloadLength(8);
+
+		NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+		ByteBuf first = PooledByteBufAllocator.DEFAULT.buffer().writeBytes("abcde".getBytes(StandardCharsets.UTF_8));
+		ByteBuf second = PooledByteBufAllocator.DEFAULT.buffer().writeBytes("fghijk".getBytes(StandardCharsets.UTF_8));
+		ByteBuf third = PooledByteBufAllocator.DEFAULT.buffer().writeBytes("lmn".getBytes(StandardCharsets.UTF_8));
+		MockServerHttpRequest request = MockServerHttpRequest.post("/test")
+				.body(Flux.just(first, second, third).map(bufferFactory::wrap));
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+
+		this.requestLoggingFilter.filter(exchange, filterExchange -> filterExchange.getRequest().getBody()
+				.doOnNext(DataBufferUtils::release)
+				.then()).block();
+
+		Assertions.assertThat(messages).hasSize(1);
+		Assertions.assertThat(messages.get(0)).contains(";requestPayload=abcdefgh").doesNotContain("abcdefghi");
+		Assertions.assertThat(first.refCnt()).isZero();
+		Assertions.assertThat(second.refCnt()).isZero();
+		Assertions.assertThat(third.refCnt()).isZero();
+	}
+
+	@Test
+	public void filterLogsUnhandledErrorAsInternalServerError() {
+		List<String> messages = new ArrayList<>();
+		this.requestLoggingFilter = new RequestLoggingFilter() {
+			@Override
+			protected void afterRequest(String message) {
+				messages.add(message);
+			}
+		};
+		this.requestLoggingFilter.setRequestLogEventFormatter(new JsonRequestLogEventFormatter());
+		// only error responses are logged
+		LoggingProperties.RequestLogSampling sampling = new LoggingProperties.RequestLogSampling();
+		sampling.setDefaultRate(0.0);
+		this.requestLoggingFilter.setRequestLogSampler(new RequestLogSampler(sampling));
+
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/test").build());
+
+		Assertions.assertThatThrownBy(() -> this.requestLoggingFilter
+				.filter(exchange, filterExchange -> Mono.error(new IllegalStateException("unhandled"))).block())
+				.isInstanceOf(IllegalStateException.class);
+
+		Assertions.assertThat(messages).hasSize(1);
+		Assertions.assertThat(messages.get(0)).contains("\"status\":500");
+	}
 }
@@ -1,11 +1,35 @@
 package de.enterprise.spring.boot.application.starter.logging.servlet;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import de.enterprise.spring.boot.application.starter.logging.AsyncRequestLogDispatcher;
+import de.enterprise.spring.boot.application.starter.logging.DefaultRequestLogEventFormatter;
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties.AsyncRequestLogging;
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties.RequestLogSampling;
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties.RequestMetrics;
+import de.enterprise.spring.boot.application.starter.logging.LoggingProperties.RouteSampling;
+import de.enterprise.spring.boot.application.starter.logging.RequestLatencyRecorder;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogEventFormatter;
+import de.enterprise.spring.boot.application.starter.logging.RequestLogSampler;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public class RequestLoggingFilterTest {
 
@@ -47,4 +71,130 @@ public class RequestLoggingFilterTest {
 		Assertions.assertThat(result).contains(String.format("%s:\"**********\"", sensitiveHeader));
 		Assertions.assertThat(result).doesNotContain(sensitiveHeaderValue);
 	}
+
+	@Test
+	public void asyncLoggingWritesMaskedHeadersAndStatus() throws Exception {
+		String sensitiveHeader = "sensitiveHeader";
+		String sensitiveHeaderValue = "sensitiveValue";
+		List<String> messages = Collections.synchronizedList(new ArrayList<>());
+		DefaultRequestLogEventFormatter formatter = new DefaultRequestLogEventFormatter("request ", "", "response ", "");
+		AsyncRequestLogDispatcher dispatcher = new AsyncRequestLogDispatcher(new AsyncRequestLogging(), (event, target) -> {
+			formatter.format(event, target);
+			messages.add(target.toString());
+		});
+		dispatcher.start();
+		this.requestLoggingFilter = new RequestLoggingFilter() {
+			@Override
+			protected boolean shouldLog(HttpServletRequest request) {
+				return true;
+			}
+		};
+		this.requestLoggingFilter.setIncludeHeaders(true);
+		this.requestLoggingFilter.setSensitiveHeaders(List.of(sensitiveHeader));
+		this.requestLoggingFilter.setAsyncRequestLogDispatcher(dispatcher);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test");
+		request.addHeader(sensitiveHeader, sensitiveHeaderValue);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		response.setStatus(201);
+
+		this.requestLoggingFilter.doFilter(request, response, new MockFilterChain());
+		dispatcher.destroy();
+
+		Assertions.assertThat(messages).hasSize(1);
+		Assertions.assertThat(messages.get(0))
+				.startsWith("request method=GET;uri=/test")
+				.contains(String.format("%s:\"**********\"", sensitiveHeader))
+				.contains("response status=201")
+				.doesNotContain(sensitiveHeaderValue);
+	}
+
+	@Test
+	public void asyncLoggingUsesConfiguredMessagePrefixes() throws Exception {
+		List<String> messages = Collections.synchronizedList(new ArrayList<>());
+		this.requestLoggingFilter = new RequestLoggingFilter() {
+			@Override
+			protected boolean shouldLog(HttpServletRequest request) {
+				return true;
+			}
+		};
+		this.requestLoggingFilter.setBeforeMessagePrefix("in ");
+		this.requestLoggingFilter.setAfterMessagePrefix("out ");
+		RequestLogEventFormatter formatter = this.requestLoggingFilter.createRequestLogEventFormatter();
+		AsyncRequestLogDispatcher dispatcher = new AsyncRequestLogDispatcher(new AsyncRequestLogging(), (event, target) -> {
+			formatter.format(event, target);
+			messages.add(target.toString());
+		});
+		dispatcher.start();
+		this.requestLoggingFilter.setAsyncRequestLogDispatcher(dispatcher);
+
+		this.requestLoggingFilter.doFilter(new MockHttpServletRequest("GET", "/test"), new MockHttpServletResponse(), new MockFilterChain());
+		dispatcher.destroy();
+
+		Assertions.assertThat(messages).hasSize(1);
+		Assertions.assertThat(messages.get(0)).startsWith("in method=GET;uri=/test").contains("out status=200");
+	}
+
+	@Test
+	public void samplingSkipsRouteButLogsErrors() throws Exception {
+		List<String> messages = new ArrayList<>();
+		this.requestLoggingFilter = new RequestLoggingFilter() {
+			@Override
+			protected boolean shouldLog(HttpServletRequest request) {
+				return true;
+			}
+
+			@Override
+			protected void afterRequest(HttpServletRequest request, String message) {
+				messages.add(message);
+			}
+		};
+		RouteSampling healthRoute = new RouteSampling();
+		healthRoute.setPattern("/health/**");
+		healthRoute.setRate(0.0);
+		RequestLogSampling sampling = new RequestLogSampling();
+		sampling.setRoutes(List.of(healthRoute));
+		RequestLogSampler sampler = new RequestLogSampler(sampling);
+		this.requestLoggingFilter.setRequestLogSampler(sampler);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/health/liveness");
+		request.setContextPath("/app");
+		this.requestLoggingFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		MockHttpServletResponse errorResponse = new MockHttpServletResponse();
+		errorResponse.setStatus(503);
+		this.requestLoggingFilter.doFilter(request, errorResponse, new MockFilterChain());
+
+		Assertions.assertThat(messages).hasSize(1);
+		Assertions.assertThat(messages.get(0)).contains("uri=/app/health/liveness").contains("status=503");
+		Assertions.assertThat(sampler.getSampledOut()).isEqualTo(1);
+	}
+
+	@Test
+	public void recordsLatencyOfAsyncRequestFromInitialDispatch() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		this.requestLoggingFilter.setRequestLatencyRecorder(new RequestLatencyRecorder(new RequestMetrics(), registry));
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test");
+		request.setAsyncSupported(true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+		asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+		DeferredResult<String> deferredResult = new DeferredResult<>();
+
+		// handler starts the async processing
+		asyncManager.startDeferredResultProcessing(deferredResult);
+		this.requestLoggingFilter.doFilter(request, response, new MockFilterChain());
+		Assertions.assertThat(registry.find(RequestLatencyRecorder.METRIC_NAME).timer()).isNull();
+
+		Thread.sleep(50);
+		deferredResult.setResult("done");
+		request.setAsyncStarted(false);
+		request.setDispatcherType(DispatcherType.ASYNC);
+		this.requestLoggingFilter.doFilter(request, response, new MockFilterChain());
+
+		Timer timer = registry.get(RequestLatencyRecorder.METRIC_NAME).timer();
+		Assertions.assertThat(timer.count()).isEqualTo(1);
+		Assertions.assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+	}
 }
@@ -0,0 +1,48 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CompactIdGeneratorTest {
+
+	@Test
+	public void generatesCompactUrlSafeIds() {
+		String id = new CompactIdGenerator(42).generateId();
+
+		Assertions.assertThat(id).hasSize(22).matches("[-0-9A-Z_a-z]+");
+	}
+
+	@Test
+	public void generatesUniqueIdsConcurrently() {
+		CompactIdGenerator generator = new CompactIdGenerator();
+		Set<String> ids = ConcurrentHashMap.newKeySet();
+
+		IntStream.range(0, 200_000).parallel().forEach(i -> ids.add(generator.generateId()));
+
+		Assertions.assertThat(ids).hasSize(200_000);
+	}
+
+	@Test
+	public void sortsIdsByCreationTime() throws InterruptedException {
+		CompactIdGenerator generator = new CompactIdGenerator();
+		String first = generator.generateId();
+		Thread.sleep(2);
+		String second = generator.generateId();
+
+		Assertions.assertThat(first).isLessThan(second);
+	}
+
+	@Test
+	public void tagsIdsWithNode() {
+		String first = new CompactIdGenerator(0x100).generateId();
+		String second = new CompactIdGenerator(0x200).generateId();
+
+		// the 11th character holds the lowest bits of the first half: the upper 16 bits of the node tag
+		Assertions.assertThat(first.charAt(10)).isEqualTo('0');
+		Assertions.assertThat(second.charAt(10)).isEqualTo('1');
+	}
+}
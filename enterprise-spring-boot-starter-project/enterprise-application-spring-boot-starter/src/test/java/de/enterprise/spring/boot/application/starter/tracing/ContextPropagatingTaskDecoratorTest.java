@@ -0,0 +1,114 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+public class ContextPropagatingTaskDecoratorTest {
+
+	private final TracingProperties tracingProperties = new TracingProperties();
+
+	@AfterEach
+	public void clearMdc() {
+		MDC.clear();
+	}
+
+	@Test
+	public void passesConfiguredKeysAndRestoresPreviousMdc() {
+		ContextPropagatingTaskDecorator taskDecorator = new ContextPropagatingTaskDecorator(this.tracingProperties);
+		MDC.put("traceId", "trace-1");
+		MDC.put("other", "not passed");
+		Runnable task = taskDecorator.decorate(() -> {
+			Assertions.assertThat(MDC.get("traceId")).isEqualTo("trace-1");
+			Assertions.assertThat(MDC.get("sessionId")).isNull();
+			Assertions.assertThat(MDC.get("other")).isEqualTo("worker");
+		});
+		MDC.clear();
+		MDC.put("sessionId", "worker-session");
+		MDC.put("other", "worker");
+
+		task.run();
+
+		Assertions.assertThat(MDC.get("traceId")).isNull();
+		Assertions.assertThat(MDC.get("sessionId")).isEqualTo("worker-session");
+		Assertions.assertThat(MDC.get("other")).isEqualTo("worker");
+	}
+
+	@Test
+	public void passesCurrentSpanToTask() throws Exception {
+		ContextPropagatingTaskDecorator taskDecorator = new ContextPropagatingTaskDecorator(this.tracingProperties);
+		Span span = TracingUtils.startSpan(this.tracingProperties, "GET /test", Span.Kind.SERVER, null);
+		Map<String, TraceContext> contexts = new HashMap<>();
+		Thread thread = new Thread(taskDecorator.decorate(() -> contexts.put("task", TracingUtils.currentTraceContext(this.tracingProperties))));
+		TracingUtils.endSpan(this.tracingProperties, span);
+
+		thread.start();
+		thread.join();
+
+		Assertions.assertThat(contexts.get("task")).isSameAs(span.getContext());
+	}
+
+	@Test
+	public void decoratesExecutorAndSchedulerBeans() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerSingleton("contextPropagatingTaskDecorator", new ContextPropagatingTaskDecorator(this.tracingProperties));
+		ContextPropagatingExecutorBeanPostProcessor postProcessor = new ContextPropagatingExecutorBeanPostProcessor(
+				beanFactory.getBeanProvider(ContextPropagatingTaskDecorator.class));
+		ThreadPoolTaskExecutor taskExecutor = (ThreadPoolTaskExecutor) postProcessor
+				.postProcessBeforeInitialization(new ThreadPoolTaskExecutor(), "taskExecutor");
+		taskExecutor.initialize();
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.initialize();
+		taskScheduler = (ThreadPoolTaskScheduler) postProcessor.postProcessAfterInitialization(taskScheduler, "taskScheduler");
+		MDC.put("traceId", "trace-1");
+
+		try {
+			Assertions.assertThat(taskExecutor.submit(() -> MDC.get("traceId")).get(5, TimeUnit.SECONDS)).isEqualTo("trace-1");
+			Assertions.assertThat(taskScheduler.submit(() -> MDC.get("traceId")).get(5, TimeUnit.SECONDS)).isEqualTo("trace-1");
+			CompletableFuture<String> scheduledTraceId = new CompletableFuture<>();
+			taskScheduler.schedule(() -> scheduledTraceId.complete(MDC.get("traceId")), new Date());
+			Assertions.assertThat(scheduledTraceId.get(5, TimeUnit.SECONDS)).isEqualTo("trace-1");
+		} finally {
+			taskExecutor.shutdown();
+			taskScheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void doesNotDecoratePeriodicTasks() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerSingleton("contextPropagatingTaskDecorator", new ContextPropagatingTaskDecorator(this.tracingProperties));
+		ContextPropagatingExecutorBeanPostProcessor postProcessor = new ContextPropagatingExecutorBeanPostProcessor(
+				beanFactory.getBeanProvider(ContextPropagatingTaskDecorator.class));
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.initialize();
+		taskScheduler = (ThreadPoolTaskScheduler) postProcessor.postProcessAfterInitialization(taskScheduler, "taskScheduler");
+		MDC.put("traceId", "trace-1");
+		List<String> traceIds = new CopyOnWriteArrayList<>();
+		CountDownLatch executions = new CountDownLatch(2);
+
+		try {
+			taskScheduler.scheduleAtFixedRate(() -> {
+				traceIds.add(String.valueOf(MDC.get("traceId")));
+				executions.countDown();
+			}, 10);
+			Assertions.assertThat(executions.await(5, TimeUnit.SECONDS)).isTrue();
+		} finally {
+			taskScheduler.shutdown();
+		}
+		Assertions.assertThat(traceIds).doesNotContain("trace-1");
+	}
+}
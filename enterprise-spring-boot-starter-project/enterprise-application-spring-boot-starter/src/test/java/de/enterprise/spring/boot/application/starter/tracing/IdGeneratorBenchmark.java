@@ -0,0 +1,51 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the throughput of {@link CompactIdGenerator} and {@link UUID#randomUUID()} with concurrent threads. Not executed by the build,
+ * run the main method from the ide or the test classpath.
+ *
+ * @author Malte Geßner
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+
+	private final IdGenerator compactIdGenerator = new CompactIdGenerator();
+
+	@Benchmark
+	public String randomUuid() {
+		return UUID.randomUUID().toString();
+	}
+
+	@Benchmark
+	public String compactId() {
+		return this.compactIdGenerator.generateId();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(IdGeneratorBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,135 @@
+package de.enterprise.spring.boot.application.starter.tracing;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+public class TracerTest {
+
+	private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+	private static final String SPAN_ID = "00f067aa0ba902b7";
+
+	@AfterEach
+	public void resetTracer() {
+		TracingUtils.setTracer(new Tracer(Collections.emptyList(), null));
+		MDC.clear();
+	}
+
+	@Test
+	public void readsAndWritesW3cTraceContext() {
+		Tracer tracer = new Tracer(Collections.singletonList(TracePropagation.W3C), null);
+		Map<String, String> incoming = new HashMap<>();
+		incoming.put("traceparent", "00-" + TRACE_ID + "-" + SPAN_ID + "-01");
+		incoming.put("tracestate", "vendor=value");
+
+		Span span = tracer.startSpan("test", Span.Kind.SERVER, tracer.extract(incoming::get), null);
+		Map<String, String> outgoing = new HashMap<>();
+		tracer.inject(span.getContext(), outgoing::put);
+
+		Assertions.assertThat(span.getContext().getTraceId()).isEqualTo(TRACE_ID);
+		Assertions.assertThat(span.getContext().getParentSpanId()).isEqualTo(SPAN_ID);
+		Assertions.assertThat(outgoing).containsEntry("traceparent", "00-" + TRACE_ID + "-" + span.getContext().getSpanId() + "-01")
+				.containsEntry("tracestate", "vendor=value");
+	}
+
+	@Test
+	public void ignoresInvalidTraceparent() {
+		Tracer tracer = new Tracer(Collections.singletonList(TracePropagation.W3C), null);
+
+		Assertions.assertThat(tracer.extract(Collections.singletonMap("traceparent", "00-" + TRACE_ID + "-" + SPAN_ID)::get)).isNull();
+		Assertions.assertThat(tracer.extract(Collections.singletonMap("traceparent", "00-" + TRACE_ID.toUpperCase() + "-" + SPAN_ID + "-01")::get))
+				.isNull();
+		Assertions.assertThat(tracer.extract(
+				Collections.singletonMap("traceparent", "00-00000000000000000000000000000000-" + SPAN_ID + "-01")::get)).isNull();
+	}
+
+	@Test
+	public void readsB3SingleAndMultiHeaders() {
+		Tracer tracer = new Tracer(Arrays.asList(TracePropagation.W3C, TracePropagation.B3), null);
+
+		TraceContext single = tracer.extract(Collections.singletonMap("b3", TRACE_ID + "-" + SPAN_ID + "-0")::get);
+		Map<String, String> multi = new HashMap<>();
+		multi.put("X-B3-TraceId", "a3ce929d0e0e4736");
+		multi.put("X-B3-SpanId", SPAN_ID);
+		multi.put("X-B3-Sampled", "1");
+		TraceContext fromMulti = tracer.extract(multi::get);
+
+		Assertions.assertThat(single.getTraceId()).isEqualTo(TRACE_ID);
+		Assertions.assertThat(single.isSampled()).isFalse();
+		Assertions.assertThat(fromMulti.getTraceId()).isEqualTo("0000000000000000a3ce929d0e0e4736");
+		Assertions.assertThat(fromMulti.isSampled()).isTrue();
+	}
+
+	@Test
+	public void exportsServerAndClientSpansOfTrace() {
+		InMemorySpanExporter exporter = new InMemorySpanExporter(10);
+		BatchingSpanProcessor spanProcessor = new BatchingSpanProcessor(exporter, 10, 5, Duration.ofMinutes(1));
+		TracingUtils.setTracer(new Tracer(Collections.singletonList(TracePropagation.W3C), spanProcessor));
+		TracingProperties tracingProperties = new TracingProperties();
+
+		Span serverSpan = TracingUtils.startSpan(tracingProperties, "GET /test", Span.Kind.SERVER,
+				Collections.singletonMap("traceparent", "00-" + TRACE_ID + "-" + SPAN_ID + "-01")::get);
+		Assertions.assertThat(MDC.get("traceId")).isEqualTo(TRACE_ID);
+		Span clientSpan = TracingUtils.startClientSpan(tracingProperties, "GET other");
+		Map<String, String> outgoing = new HashMap<>();
+		TracingUtils.injectHeaders(tracingProperties, clientSpan.getContext(), outgoing::put);
+		clientSpan.end();
+		TracingUtils.endSpan(tracingProperties, serverSpan);
+		spanProcessor.shutdown();
+
+		List<Span> spans = exporter.getSpans();
+		Assertions.assertThat(spans).extracting(Span::getName).containsExactly("GET other", "GET /test");
+		Assertions.assertThat(spans.get(0).getContext().getParentSpanId()).isEqualTo(serverSpan.getContext().getSpanId());
+		Assertions.assertThat(outgoing).containsEntry("X-TraceId", TRACE_ID)
+				.containsEntry("traceparent", "00-" + TRACE_ID + "-" + clientSpan.getContext().getSpanId() + "-01");
+		Assertions.assertThat(spanProcessor.getExportedSpans()).isEqualTo(2);
+		Assertions.assertThat(MDC.get("traceId")).isNull();
+	}
+
+	@Test
+	public void keepsTraceIdHeaderWithoutPropagation() {
+		TracingProperties tracingProperties = new TracingProperties();
+
+		Span span = TracingUtils.startSpan(tracingProperties, "task", Span.Kind.INTERNAL,
+				Collections.singletonMap("X-TraceId", "app-123")::get);
+		Map<String, String> outgoing = new HashMap<>();
+		TracingUtils.injectHeaders(tracingProperties, TracingUtils.startClientSpan(tracingProperties, "call").getContext(), outgoing::put);
+		TracingUtils.endSpan(tracingProperties, span);
+
+		Assertions.assertThat(outgoing).containsOnly(Map.entry("X-TraceId", "app-123"));
+	}
+
+	@Test
+	public void restoresEnclosingSpanAfterNestedSpan() {
+		TracingUtils.setTracer(new Tracer(Collections.singletonList(TracePropagation.W3C), null));
+		TracingProperties tracingProperties = new TracingProperties();
+
+		Span serverSpan = TracingUtils.startSpan(tracingProperties, "GET /test", Span.Kind.SERVER,
+				Collections.singletonMap("traceparent", "00-" + TRACE_ID + "-" + SPAN_ID + "-01")::get);
+		Span internalSpan = TracingUtils.startSpan(tracingProperties, "task", Span.Kind.INTERNAL, null);
+
+		Assertions.assertThat(internalSpan.getContext().getTraceId()).isEqualTo(TRACE_ID);
+		Assertions.assertThat(internalSpan.getContext().getParentSpanId()).isEqualTo(serverSpan.getContext().getSpanId());
+		Assertions.assertThat(MDC.get("spanId")).isEqualTo(internalSpan.getContext().getSpanId());
+
+		TracingUtils.endSpan(tracingProperties, internalSpan);
+
+		Assertions.assertThat(TracingUtils.currentSpan()).isSameAs(serverSpan);
+		Assertions.assertThat(MDC.get("traceId")).isEqualTo(TRACE_ID);
+		Assertions.assertThat(MDC.get("spanId")).isEqualTo(serverSpan.getContext().getSpanId());
+
+		TracingUtils.endSpan(tracingProperties, serverSpan);
+
+		Assertions.assertThat(TracingUtils.currentSpan()).isNull();
+		Assertions.assertThat(MDC.get("traceId")).isNull();
+		Assertions.assertThat(MDC.get("spanId")).isNull();
+	}
+}
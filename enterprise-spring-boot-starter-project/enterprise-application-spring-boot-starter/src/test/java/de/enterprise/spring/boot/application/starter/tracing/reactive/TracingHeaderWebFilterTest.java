@@ -0,0 +1,66 @@
+package de.enterprise.spring.boot.application.starter.tracing.reactive;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import de.enterprise.spring.boot.application.starter.tracing.TraceContext;
+import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+public class TracingHeaderWebFilterTest {
+
+	private final TracingProperties tracingProperties = new TracingProperties();
+
+	@Test
+	public void carriesTraceContextAcrossThreadsInReactorContext() {
+		TracingHeaderWebFilter filter = new TracingHeaderWebFilter(this.tracingProperties);
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/test").header("X-TraceId", "app-123"));
+		AtomicReference<String> mdcOnOtherThread = new AtomicReference<>("not set");
+		AtomicReference<String> mdcAroundLogCall = new AtomicReference<>();
+		AtomicReference<ClientRequest> outgoingRequest = new AtomicReference<>();
+		TracingWebClientRequestFilterFunction clientFilter = new TracingWebClientRequestFilterFunction(this.tracingProperties);
+
+		filter.filter(exchange, filteredExchange -> Mono.delay(Duration.ofMillis(10), Schedulers.parallel())
+				.doOnNext(tick -> mdcOnOtherThread.set(MDC.get("traceId")))
+				.doOnEach(ReactorTracing.logOnNext(tick -> mdcAroundLogCall.set(MDC.get("traceId"))))
+				.then(clientFilter.filter(ClientRequest.create(HttpMethod.GET, URI.create("http://other/api")).build(), request -> {
+					outgoingRequest.set(request);
+					return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+				}))
+				.then())
+				.block(Duration.ofSeconds(5));
+
+		Assertions.assertThat(mdcOnOtherThread.get()).isNull();
+		Assertions.assertThat(mdcAroundLogCall.get()).isEqualTo("app-123");
+		Assertions.assertThat(MDC.get("traceId")).isNull();
+		Assertions.assertThat(outgoingRequest.get().headers().getFirst("X-TraceId")).isEqualTo("app-123");
+	}
+
+	@Test
+	public void readsParentOfOutgoingCallFromReactorContext() {
+		TraceContext parent = TraceContext.newRoot(TraceContext.newTraceId());
+		AtomicReference<ClientRequest> outgoingRequest = new AtomicReference<>();
+
+		new TracingWebClientRequestFilterFunction(this.tracingProperties)
+				.filter(ClientRequest.create(HttpMethod.GET, URI.create("http://other/api")).build(), request -> {
+					outgoingRequest.set(request);
+					return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+				})
+				.contextWrite(context -> ReactorTracing.withTraceContext(context, this.tracingProperties, parent))
+				.block(Duration.ofSeconds(5));
+
+		Assertions.assertThat(outgoingRequest.get().headers().getFirst("X-TraceId")).isEqualTo(parent.getTraceId());
+	}
+}
@@ -0,0 +1,73 @@
+package de.enterprise.spring.boot.application.starter.tracing.servlet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import de.enterprise.spring.boot.application.starter.tracing.SessionIdMode;
+import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
+
+public class TracingHeaderFilterTest {
+
+	@Test
+	public void createsNoSessionForStatelessRequests() throws Exception {
+		TracingHeaderFilter filter = new TracingHeaderFilter(new TracingProperties());
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api");
+		Map<String, String> mdc = new HashMap<>();
+
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> mdc.putAll(MDC.getCopyOfContextMap()));
+
+		Assertions.assertThat(request.getSession(false)).isNull();
+		Assertions.assertThat(mdc).containsKey("traceId").doesNotContainKey("sessionId").doesNotContainKey("requestId");
+	}
+
+	@Test
+	public void addsSessionIdWhenSessionIsCreatedDuringRequest() throws Exception {
+		TracingHeaderFilter filter = new TracingHeaderFilter(new TracingProperties());
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+		Map<String, String> mdc = new HashMap<>();
+
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+			String sessionId = ((HttpServletRequest) req).getSession().getId();
+			mdc.putAll(MDC.getCopyOfContextMap());
+			Assertions.assertThat(mdc).containsEntry("sessionId", sessionId);
+		});
+
+		Assertions.assertThat(mdc).containsKey("sessionId");
+		Assertions.assertThat(MDC.get("sessionId")).isNull();
+	}
+
+	@Test
+	public void addsRequestIdWithoutSession() throws Exception {
+		TracingProperties tracingProperties = new TracingProperties();
+		tracingProperties.setSessionIdMode(SessionIdMode.REQUEST_ID);
+		TracingHeaderFilter filter = new TracingHeaderFilter(tracingProperties);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api");
+		Map<String, String> mdc = new HashMap<>();
+
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> mdc.putAll(MDC.getCopyOfContextMap()));
+
+		Assertions.assertThat(request.getSession(false)).isNull();
+		Assertions.assertThat(mdc.get("requestId")).hasSize(22);
+	}
+
+	@Test
+	public void createsSessionInCreateMode() throws Exception {
+		TracingProperties tracingProperties = new TracingProperties();
+		tracingProperties.setSessionIdMode(SessionIdMode.CREATE);
+		TracingHeaderFilter filter = new TracingHeaderFilter(tracingProperties);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api");
+
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+		});
+
+		Assertions.assertThat(request.getSession(false)).isNotNull();
+	}
+}
@@ -6,6 +6,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
@@ -20,10 +21,13 @@ import org.springframework.cloud.aws.messaging.listener.QueueMessageAcknowledgme
 import org.springframework.cloud.aws.messaging.listener.QueueMessageVisibility;
 import org.springframework.cloud.aws.messaging.listener.SimpleMessageListenerContainer;
 import org.springframework.cloud.aws.messaging.listener.SqsMessageDeletionPolicy;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.MimeTypeUtils;
 
 import com.amazonaws.services.sqs.model.DeleteMessageRequest;
@@ -31,6 +35,8 @@ import com.amazonaws.services.sqs.model.Message;
 import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
 import com.amazonaws.services.sqs.model.ReceiveMessageResult;
 
+import de.enterprise.spring.boot.application.starter.tracing.ContextPropagatingTaskDecorator;
+import de.enterprise.spring.boot.application.starter.tracing.Span;
 import de.enterprise.spring.boot.application.starter.tracing.TracingProperties;
 import de.enterprise.spring.boot.application.starter.tracing.TracingUtils;
 import de.enterprise.starters.aws.ecs.sqs.SqsProperties.QueueProperties;
@@ -51,6 +57,8 @@ import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 public class ResilientMessageListenerContainer extends SimpleMessageListenerContainer {
 
 	private static final String CIRCUITBREAKER_NAME_PREFIX = "sqsListener";
+	private static final int DEFAULT_WORKER_THREADS = 2;
+	private static final int DEFAULT_MAX_NUMBER_OF_MESSAGES = 2;
 	private final CircuitBreakerRegistry circuitBreakerRegistry;
 	private final SqsProperties sqsDefaultProperties;
 	private final TracingProperties tracingProperties;
@@ -88,6 +96,33 @@ public class ResilientMessageListenerContainer extends SimpleMessageListenerCont
 		getMessageHandler().handleMessage(stringMessage);
 	}
 
+	/**
+	 * Copied from {@link SimpleMessageListenerContainer#createDefaultTaskExecutor()} to pass the trace context of the polling thread to
+	 * the message executors, the decorator must be set before the executor is initialized.
+	 */
+	@Override
+	protected AsyncTaskExecutor createDefaultTaskExecutor() {
+		String beanName = getBeanName();
+		ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+		threadPoolTaskExecutor.setThreadNamePrefix(
+				beanName != null ? beanName + "-" : ClassUtils.getShortName(SimpleMessageListenerContainer.class) + "-");
+		int spinningThreads = this.getRegisteredQueues().size();
+
+		if (spinningThreads > 0) {
+			threadPoolTaskExecutor.setCorePoolSize(spinningThreads * DEFAULT_WORKER_THREADS);
+
+			int maxNumberOfMessagePerBatch = getMaxNumberOfMessages() != null ? getMaxNumberOfMessages() : DEFAULT_MAX_NUMBER_OF_MESSAGES;
+			threadPoolTaskExecutor.setMaxPoolSize(spinningThreads * (maxNumberOfMessagePerBatch + 1));
+		}
+
+		// No use of a thread pool executor queue to avoid retaining message to long in memory
+		threadPoolTaskExecutor.setQueueCapacity(0);
+		threadPoolTaskExecutor.setTaskDecorator(new ContextPropagatingTaskDecorator(this.tracingProperties));
+		threadPoolTaskExecutor.afterPropertiesSet();
+
+		return threadPoolTaskExecutor;
+	}
+
 	/**
 	 * Stops and waits until the specified queue has stopped. If the wait timeout specified by
 	 * {@link SimpleMessageListenerContainer#getQueueStopTimeout()} is reached, the current thread is interrupted.
@@ -293,8 +328,10 @@ public class ResilientMessageListenerContainer extends SimpleMessageListenerCont
 			}
 
 			org.springframework.messaging.Message<String> queueMessage = getMessageForExecution();
+			// the trace context of the sender is read from the message attributes
+			Span span = TracingUtils.startSpan(this.tracingProperties, "sqs " + this.logicalQueueName, Span.Kind.CONSUMER,
+					name -> Objects.toString(queueMessage.getHeaders().get(name), null));
 			try {
-				TracingUtils.addNewMdcTraceContext(this.tracingProperties);
 				if (this.circuitBreaker.tryAcquirePermission()) {
 					notifyEventListeners(l -> l.onMessageProcessingAttempt(this.internalQueueName));
 					this.circuitBreaker.executeRunnable(() -> executeMessage(queueMessage));
@@ -307,6 +344,9 @@ public class ResilientMessageListenerContainer extends SimpleMessageListenerCont
 					notifyEventListeners(l -> l.onMessageProcessingRejection(this.internalQueueName));
 				}
 			} catch (MessagingException messagingException) {
+				if (span != null) {
+					span.error(messagingException);
+				}
 				getLogger().debug("exception while processing message for queueName={}, circuitBreakerName={}", this.logicalQueueName,
 						this.circuitBreaker.getName());
 				notifyEventListeners(l -> l.onMessageProcessingFailure(this.internalQueueName));
@@ -321,7 +361,7 @@ public class ResilientMessageListenerContainer extends SimpleMessageListenerCont
 					applyDeletionPolicyOnError(receiptHandle, messagingException);
 				}
 			} finally {
-				TracingUtils.removeMdcTraceContext(this.tracingProperties);
+				TracingUtils.endSpan(this.tracingProperties, span);
 			}
 		}
 